@@ -0,0 +1,30 @@
+public class Adjustment {
+    private int supplyId;
+    private int delta; // Positive = stock in, negative = stock out
+    private String reason;
+    private String performedBy;
+
+    public Adjustment(int supplyId, int delta, String reason, String performedBy) {
+        this.supplyId = supplyId;
+        this.delta = delta;
+        this.reason = reason;
+        this.performedBy = performedBy;
+    }
+
+    public int getSupplyId() { return supplyId; }
+    public void setSupplyId(int supplyId) { this.supplyId = supplyId; }
+
+    public int getDelta() { return delta; }
+    public void setDelta(int delta) { this.delta = delta; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public String getPerformedBy() { return performedBy; }
+    public void setPerformedBy(String performedBy) { this.performedBy = performedBy; }
+
+    @Override
+    public String toString() {
+        return String.format("Supply #%d: %+d (%s)", supplyId, delta, reason);
+    }
+}
@@ -0,0 +1,178 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Layout of the columnar snapshot files written by ColumnarSnapshotWriter and read by
+ * ColumnarSnapshotReader. It holds the supplies and transactions tables for offline
+ * analysis, so bulk scans don't touch the production database.
+ *
+ * File:    MAGIC | column chunks ... | footer | footer offset (long) | MAGIC
+ * Tables are split into row groups of up to ROW_GROUP_ROWS rows. Each row group stores
+ * one chunk per column. Each chunk is encoded by column type and then deflated, unless
+ * deflating doesn't shrink it. The footer indexes every chunk: offset, stored and raw
+ * length, codec, and min/max for numeric columns, so a reader can skip whole row groups.
+ *
+ * Chunk encodings (all integers are zigzag varints):
+ *   numeric  [nullable: hasNulls byte, then a presence bitmap if 1] values, as deltas
+ *            from the previous present value for delta columns (ids, dates)
+ *   string   dictionary size, entries (length + UTF-8), then one code per row
+ *            (0 = null, n = dictionary entry n)
+ * DATE values are epoch days; TIMESTAMP values are epoch seconds of the local time.
+ */
+public final class ColumnarSnapshot {
+    static final byte[] MAGIC = {'M', 'I', 'S', 'N', 'A', 'P', '0', '1'};
+    static final int VERSION = 1;
+    static final int ROW_GROUP_ROWS = 65536;
+
+    static final byte CODEC_NONE = 0;
+    static final byte CODEC_DEFLATE = 1;
+
+    public static final String SUPPLIES = "supplies";
+    public static final String TRANSACTIONS = "transactions";
+
+    public enum ColumnType {
+        INT,
+        DATE,
+        TIMESTAMP,
+        STRING;
+
+        boolean isNumeric() {
+            return this != STRING;
+        }
+    }
+
+    public static final class Column {
+        private final String name;
+        private final ColumnType type;
+        private final boolean delta;      // Store differences (sorted or clustered values)
+        private final boolean nullable;
+
+        public Column(String name, ColumnType type, boolean delta, boolean nullable) {
+            this.name = name;
+            this.type = type;
+            this.delta = delta;
+            this.nullable = nullable;
+        }
+
+        public String getName() { return name; }
+        public ColumnType getType() { return type; }
+        public boolean isDelta() { return delta; }
+        public boolean isNullable() { return nullable; }
+
+        @Override
+        public String toString() {
+            return name + " " + type + (delta ? " delta" : "") + (nullable ? " null" : "");
+        }
+    }
+
+    // Column order matches the SELECTs in ColumnarSnapshotExporter
+    static final List<Column> SUPPLY_COLUMNS = columns(
+        new Column("id", ColumnType.INT, true, false),
+        new Column("name", ColumnType.STRING, false, true),
+        new Column("category", ColumnType.STRING, false, true),
+        new Column("quantity", ColumnType.INT, false, false),
+        new Column("expiry_date", ColumnType.DATE, true, true),
+        new Column("location", ColumnType.STRING, false, true),
+        new Column("supplier", ColumnType.STRING, false, true),
+        new Column("min_stock_level", ColumnType.INT, false, false));
+
+    static final List<Column> TRANSACTION_COLUMNS = columns(
+        new Column("id", ColumnType.INT, true, false),
+        new Column("supply_id", ColumnType.INT, false, false),
+        new Column("transaction_type", ColumnType.STRING, false, true),
+        new Column("quantity_changed", ColumnType.INT, false, false),
+        new Column("previous_quantity", ColumnType.INT, false, false),
+        new Column("new_quantity", ColumnType.INT, false, false),
+        new Column("reason", ColumnType.STRING, false, true),
+        new Column("performed_by", ColumnType.STRING, false, true),
+        new Column("transaction_date", ColumnType.TIMESTAMP, true, true));
+
+    // Where one column of one row group lives, from the footer
+    static final class ChunkInfo {
+        final long offset;
+        final int storedLength;
+        final int rawLength;
+        final byte codec;
+        final boolean hasRange;     // False for strings and all-null chunks
+        final long min;
+        final long max;
+
+        ChunkInfo(long offset, int storedLength, int rawLength, byte codec, boolean hasRange, long min, long max) {
+            this.offset = offset;
+            this.storedLength = storedLength;
+            this.rawLength = rawLength;
+            this.codec = codec;
+            this.hasRange = hasRange;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private ColumnarSnapshot() {
+    }
+
+    private static List<Column> columns(Column... columns) {
+        List<Column> list = new ArrayList<>();
+        Collections.addAll(list, columns);
+        return Collections.unmodifiableList(list);
+    }
+
+    // ===================== VARINTS =====================
+    static void writeVarLong(ByteSink out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // Growable byte array for encoding a chunk
+    static final class ByteSink {
+        private byte[] bytes = new byte[1024];
+        private int size = 0;
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] src) {
+            ensure(src.length);
+            System.arraycopy(src, 0, bytes, size, src.length);
+            size += src.length;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = java.util.Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Exports the supplies and transactions tables to a columnar snapshot file.
+ * Both tables are read inside one consistent-snapshot transaction, so the file matches
+ * a single point in time. Rows stream from forward-only cursors into
+ * ColumnarSnapshotWriter, so memory stays bounded however long the ledger is.
+ *
+ * The file is written as "<name>.part" and renamed into place when complete.
+ */
+public class ColumnarSnapshotExporter {
+    // Rows per round trip (needs useCursorFetch, see DatabaseConnection)
+    private static final int FETCH_SIZE = 1000;
+
+    public static class Result {
+        private final long supplyRows;
+        private final long transactionRows;
+        private final long bytes;
+        private final long millis;
+
+        Result(long supplyRows, long transactionRows, long bytes, long millis) {
+            this.supplyRows = supplyRows;
+            this.transactionRows = transactionRows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        public long getSupplyRows() { return supplyRows; }
+        public long getTransactionRows() { return transactionRows; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+
+        @Override
+        public String toString() {
+            return String.format("%d supplies, %d transactions, %,d KB in %d ms",
+                supplyRows, transactionRows, bytes / 1024, millis);
+        }
+    }
+
+    // Returns null if cancelled (nothing is left behind)
+    public static Result export(File target, IntConsumer progress, BooleanSupplier cancelled)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path file = target.toPath();
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        boolean written = false;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                    stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                }
+                long totalRows = count(conn, "supplies") + count(conn, "transactions");
+                long[] done = {0};
+                IntConsumer rowDone = n -> {
+                    done[0] += n;
+                    if (progress != null && totalRows > 0) {
+                        progress.accept((int) Math.min(99, done[0] * 100 / totalRows));
+                    }
+                };
+
+                long supplyRows;
+                long transactionRows;
+                try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(part)) {
+                    supplyRows = exportTable(conn, writer, ColumnarSnapshot.SUPPLIES,
+                        ColumnarSnapshot.SUPPLY_COLUMNS, rowDone, cancelled);
+                    if (supplyRows < 0) {
+                        return null;
+                    }
+                    transactionRows = exportTable(conn, writer, ColumnarSnapshot.TRANSACTIONS,
+                        ColumnarSnapshot.TRANSACTION_COLUMNS, rowDone, cancelled);
+                    if (transactionRows < 0) {
+                        return null;
+                    }
+                }
+                conn.commit();
+
+                Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+                written = true;
+                if (progress != null) {
+                    progress.accept(100);
+                }
+                Result result = new Result(supplyRows, transactionRows, Files.size(file),
+                                           (System.nanoTime() - start) / 1_000_000);
+                System.out.println("🧊 Snapshot exported to " + file.getFileName() + ": " + result);
+                return result;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private static long count(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Streams one table in id order; returns the row count, or -1 if cancelled
+    private static long exportTable(Connection conn, ColumnarSnapshotWriter writer, String table,
+                                    List<ColumnarSnapshot.Column> columns, IntConsumer rowDone,
+                                    BooleanSupplier cancelled) throws SQLException, IOException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int c = 0; c < columns.size(); c++) {
+            sql.append(c > 0 ? ", " : "").append(columns.get(c).getName());
+        }
+        sql.append(" FROM ").append(table).append(" ORDER BY id");
+
+        writer.beginTable(table, columns);
+        long rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    for (int c = 0; c < columns.size(); c++) {
+                        int index = c + 1;
+                        switch (columns.get(c).getType()) {
+                            case INT:
+                                long value = rs.getLong(index);
+                                if (!rs.wasNull()) {
+                                    writer.setLong(c, value);
+                                }
+                                break;
+                            case DATE:
+                                Date date = rs.getDate(index);
+                                writer.setDate(c, date != null ? date.toLocalDate() : null);
+                                break;
+                            case TIMESTAMP:
+                                Timestamp timestamp = rs.getTimestamp(index);
+                                writer.setTimestamp(c, timestamp != null ? timestamp.toLocalDateTime() : null);
+                                break;
+                            case STRING:
+                                writer.setString(c, rs.getString(index));
+                                break;
+                        }
+                    }
+                    writer.endRow();
+                    rows++;
+                    if (rows % FETCH_SIZE == 0) {
+                        rowDone.accept(FETCH_SIZE);
+                        if (cancelled != null && cancelled.getAsBoolean()) {
+                            System.out.println("⚠️ Snapshot export cancelled in " + table + " after " + rows + " row(s)");
+                            return -1;
+                        }
+                    }
+                }
+            }
+        }
+        rowDone.accept((int) (rows % FETCH_SIZE));
+        return writer.endTable();
+    }
+}
@@ -0,0 +1,407 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-mapped reader for columnar snapshot files (layout in ColumnarSnapshot).
+ * Opening reads only the footer. A scan decodes just the columns it asks for, one row
+ * group at a time, straight from the mapped file. Row groups whose footer min/max
+ * can't match a where() range are skipped without being read.
+ *
+ *   try (ColumnarSnapshotReader reader = ColumnarSnapshotReader.open(path)) {
+ *       ColumnarSnapshotReader.Cursor cursor = reader.scan("transactions", "supply_id", "quantity_changed");
+ *       while (cursor.next()) { ... cursor.getLong(0) ... }
+ *   }
+ *
+ * A reader is not thread-safe; give each thread its own cursor from its own reader.
+ */
+public class ColumnarSnapshotReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer wholeFile;     // Whole file mapped once when it fits, else null
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+    private final Inflater inflater = new Inflater();
+
+    private static class Table {
+        final String name;
+        final List<ColumnarSnapshot.Column> columns;
+        final long rowCount;
+        final int[] groupRows;
+        final ColumnarSnapshot.ChunkInfo[][] chunks;   // [group][column]
+
+        Table(String name, List<ColumnarSnapshot.Column> columns, long rowCount,
+              int[] groupRows, ColumnarSnapshot.ChunkInfo[][] chunks) {
+            this.name = name;
+            this.columns = columns;
+            this.rowCount = rowCount;
+            this.groupRows = groupRows;
+            this.chunks = chunks;
+        }
+
+        int indexOf(String column) {
+            for (int c = 0; c < columns.size(); c++) {
+                if (columns.get(c).getName().equals(column)) {
+                    return c;
+                }
+            }
+            throw new IllegalArgumentException("No column " + column + " in " + name);
+        }
+    }
+
+    private ColumnarSnapshotReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        int trailerLength = 8 + ColumnarSnapshot.MAGIC.length;
+        if (size < ColumnarSnapshot.MAGIC.length + trailerLength) {
+            throw new IOException("Not a snapshot file (too short)");
+        }
+        this.wholeFile = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+
+        ByteBuffer trailer = map(size - trailerLength, trailerLength);
+        long footerOffset = trailer.getLong();
+        checkMagic(trailer);
+        checkMagic(map(0, ColumnarSnapshot.MAGIC.length));
+        readFooter(map(footerOffset, (int) (size - trailerLength - footerOffset)));
+    }
+
+    public static ColumnarSnapshotReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarSnapshotReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkMagic(ByteBuffer buffer) throws IOException {
+        byte[] magic = new byte[ColumnarSnapshot.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, ColumnarSnapshot.MAGIC)) {
+            throw new IOException("Not a snapshot file (bad magic)");
+        }
+    }
+
+    private void readFooter(ByteBuffer footer) throws IOException {
+        int version = footer.getInt();
+        if (version != ColumnarSnapshot.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        int tableCount = footer.getInt();
+        ColumnarSnapshot.ColumnType[] types = ColumnarSnapshot.ColumnType.values();
+        for (int t = 0; t < tableCount; t++) {
+            String name = readUTF(footer);
+            int columnCount = footer.getInt();
+            List<ColumnarSnapshot.Column> columns = new ArrayList<>();
+            for (int c = 0; c < columnCount; c++) {
+                String columnName = readUTF(footer);
+                ColumnarSnapshot.ColumnType type = types[footer.get()];
+                boolean delta = footer.get() != 0;
+                boolean nullable = footer.get() != 0;
+                columns.add(new ColumnarSnapshot.Column(columnName, type, delta, nullable));
+            }
+            long rowCount = footer.getLong();
+            int groupCount = footer.getInt();
+            int[] groupRows = new int[groupCount];
+            ColumnarSnapshot.ChunkInfo[][] chunks = new ColumnarSnapshot.ChunkInfo[groupCount][columnCount];
+            for (int g = 0; g < groupCount; g++) {
+                groupRows[g] = footer.getInt();
+                for (int c = 0; c < columnCount; c++) {
+                    long offset = footer.getLong();
+                    int storedLength = footer.getInt();
+                    int rawLength = footer.getInt();
+                    byte codec = footer.get();
+                    boolean hasRange = footer.get() != 0;
+                    long min = footer.getLong();
+                    long max = footer.getLong();
+                    chunks[g][c] = new ColumnarSnapshot.ChunkInfo(offset, storedLength, rawLength, codec,
+                                                                  hasRange, min, max);
+                }
+            }
+            tables.put(name, new Table(name, Collections.unmodifiableList(columns), rowCount, groupRows, chunks));
+        }
+    }
+
+    // DataOutputStream.writeUTF layout (modified UTF-8 is plain UTF-8 for our names)
+    private static String readUTF(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer map(long offset, int length) throws IOException {
+        if (wholeFile != null) {
+            ByteBuffer slice = wholeFile.duplicate();
+            slice.position((int) offset).limit((int) offset + length);
+            return slice.slice();
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    // ===================== METADATA =====================
+    public List<String> getTables() {
+        return new ArrayList<>(tables.keySet());
+    }
+
+    public long getRowCount(String table) {
+        return table(table).rowCount;
+    }
+
+    public List<ColumnarSnapshot.Column> getColumns(String table) {
+        return table(table).columns;
+    }
+
+    public int getRowGroupCount(String table) {
+        return table(table).groupRows.length;
+    }
+
+    private Table table(String name) {
+        Table table = tables.get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("No table " + name + " in snapshot");
+        }
+        return table;
+    }
+
+    // Reads the listed columns (all of them if none are given), in that order
+    public Cursor scan(String table, String... columns) {
+        Table info = table(table);
+        int[] selected;
+        if (columns.length == 0) {
+            selected = new int[info.columns.size()];
+            for (int c = 0; c < selected.length; c++) {
+                selected[c] = c;
+            }
+        } else {
+            selected = new int[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                selected[c] = info.indexOf(columns[c]);
+            }
+        }
+        return new Cursor(info, selected);
+    }
+
+    // ===================== DECODING =====================
+    private ByteBuffer chunkBytes(ColumnarSnapshot.ChunkInfo chunk) throws IOException {
+        ByteBuffer stored = map(chunk.offset, chunk.storedLength);
+        if (chunk.codec == ColumnarSnapshot.CODEC_NONE) {
+            return stored;
+        }
+        byte[] input = new byte[chunk.storedLength];
+        stored.get(input);
+        byte[] output = new byte[chunk.rawLength];
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int length = inflater.inflate(output);
+            if (length != chunk.rawLength) {
+                throw new IOException("Corrupt chunk at offset " + chunk.offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt chunk at offset " + chunk.offset + ": " + e.getMessage());
+        }
+        return ByteBuffer.wrap(output);
+    }
+
+    // One decoded column of the current row group
+    private static class ColumnData {
+        long[] numbers;
+        boolean[] present;          // Null when the chunk has no nulls
+        String[] dictionary;        // Strings: entry n-1 is code n
+        int[] codes;
+    }
+
+    private ColumnData decode(ColumnarSnapshot.Column column, ColumnarSnapshot.ChunkInfo chunk, int rows)
+            throws IOException {
+        ByteBuffer in = chunkBytes(chunk);
+        ColumnData data = new ColumnData();
+        if (column.getType().isNumeric()) {
+            if (column.isNullable() && in.get() != 0) {
+                byte[] bitmap = new byte[(rows + 7) / 8];
+                in.get(bitmap);
+                data.present = new boolean[rows];
+                for (int r = 0; r < rows; r++) {
+                    data.present[r] = (bitmap[r >> 3] & (1 << (r & 7))) != 0;
+                }
+            }
+            data.numbers = new long[rows];
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                if (data.present != null && !data.present[r]) {
+                    continue;
+                }
+                long value = ColumnarSnapshot.readVarLong(in);
+                if (column.isDelta()) {
+                    value += previous;
+                }
+                data.numbers[r] = value;
+                previous = value;
+            }
+        } else {
+            int size = (int) ColumnarSnapshot.readVarLong(in);
+            data.dictionary = new String[size];
+            for (int d = 0; d < size; d++) {
+                byte[] bytes = new byte[(int) ColumnarSnapshot.readVarLong(in)];
+                in.get(bytes);
+                data.dictionary[d] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            data.codes = new int[rows];
+            for (int r = 0; r < rows; r++) {
+                data.codes[r] = (int) ColumnarSnapshot.readVarLong(in);
+            }
+        }
+        return data;
+    }
+
+    // ===================== CURSOR =====================
+    // Forward-only view of the selected columns; getters take the position in the selection
+    public class Cursor {
+        private final Table table;
+        private final int[] selected;
+        private final ColumnData[] current;
+        private int filterColumn = -1;      // Table column index of the where() column
+        private long filterMin;
+        private long filterMax;
+        private ColumnData filterData;
+
+        private int group = -1;
+        private int row = -1;
+        private int rowsInGroup = 0;
+        private long skippedGroups = 0;
+
+        private Cursor(Table table, int[] selected) {
+            this.table = table;
+            this.selected = selected;
+            this.current = new ColumnData[selected.length];
+        }
+
+        // Only rows whose numeric column is within [min, max]; nulls never match.
+        // Call before the first next().
+        public Cursor where(String column, long min, long max) {
+            int index = table.indexOf(column);
+            if (!table.columns.get(index).getType().isNumeric()) {
+                throw new IllegalArgumentException("where() needs a numeric column, not " + column);
+            }
+            filterColumn = index;
+            filterMin = min;
+            filterMax = max;
+            return this;
+        }
+
+        public Cursor where(String column, LocalDate from, LocalDate to) {
+            return where(column, from.toEpochDay(), to.toEpochDay());
+        }
+
+        public Cursor where(String column, LocalDateTime from, LocalDateTime to) {
+            return where(column, from.toEpochSecond(ZoneOffset.UTC), to.toEpochSecond(ZoneOffset.UTC));
+        }
+
+        public boolean next() throws IOException {
+            while (true) {
+                row++;
+                while (row >= rowsInGroup) {
+                    if (!loadNextGroup()) {
+                        return false;
+                    }
+                }
+                if (filterColumn < 0 || matches(row)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean matches(int r) {
+            if (filterData.present != null && !filterData.present[r]) {
+                return false;
+            }
+            long value = filterData.numbers[r];
+            return value >= filterMin && value <= filterMax;
+        }
+
+        private boolean loadNextGroup() throws IOException {
+            while (++group < table.groupRows.length) {
+                ColumnarSnapshot.ChunkInfo[] chunks = table.chunks[group];
+                if (filterColumn >= 0) {
+                    ColumnarSnapshot.ChunkInfo chunk = chunks[filterColumn];
+                    if (!chunk.hasRange || chunk.max < filterMin || chunk.min > filterMax) {
+                        skippedGroups++;
+                        continue;
+                    }
+                }
+                int rows = table.groupRows[group];
+                filterData = null;
+                for (int s = 0; s < selected.length; s++) {
+                    int c = selected[s];
+                    current[s] = decode(table.columns.get(c), chunks[c], rows);
+                    if (c == filterColumn) {
+                        filterData = current[s];
+                    }
+                }
+                if (filterColumn >= 0 && filterData == null) {
+                    filterData = decode(table.columns.get(filterColumn), chunks[filterColumn], rows);
+                }
+                rowsInGroup = rows;
+                row = 0;
+                return true;
+            }
+            rowsInGroup = 0;
+            return false;
+        }
+
+        public boolean isNull(int column) {
+            ColumnData data = current[column];
+            if (data.codes != null) {
+                return data.codes[row] == 0;
+            }
+            return data.present != null && !data.present[row];
+        }
+
+        public long getLong(int column) {
+            return current[column].numbers[row];
+        }
+
+        public int getInt(int column) {
+            return (int) current[column].numbers[row];
+        }
+
+        public LocalDate getDate(int column) {
+            return isNull(column) ? null : LocalDate.ofEpochDay(getLong(column));
+        }
+
+        public LocalDateTime getTimestamp(int column) {
+            return isNull(column) ? null : LocalDateTime.ofEpochSecond(getLong(column), 0, ZoneOffset.UTC);
+        }
+
+        public String getString(int column) {
+            ColumnData data = current[column];
+            int code = data.codes[row];
+            return code == 0 ? null : data.dictionary[code - 1];
+        }
+
+        // Row groups passed over thanks to the footer min/max
+        public long getSkippedGroups() {
+            return skippedGroups;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a columnar snapshot file (layout in ColumnarSnapshot) one row at a time.
+ * Rows are buffered for a single row group, then written column by column, so memory
+ * is bounded by ROW_GROUP_ROWS however big the table is.
+ *
+ *   beginTable(...), then per row: set*(column, value) for every column, endRow()
+ *   endTable(), ... close() writes the footer
+ *
+ * A column that isn't set in a row is stored as null.
+ */
+public class ColumnarSnapshotWriter implements Closeable {
+    private final OutputStream out;
+    private long position = 0;
+    private final List<TableInfo> tables = new ArrayList<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ColumnarSnapshot.ByteSink raw = new ColumnarSnapshot.ByteSink();
+    private boolean closed = false;
+
+    // The table being written and its current row group
+    private TableInfo table;
+    private long[][] numbers;
+    private String[][] strings;
+    private boolean[][] present;
+    private int rows;
+
+    private static class TableInfo {
+        final String name;
+        final List<ColumnarSnapshot.Column> columns;
+        final List<Integer> groupRows = new ArrayList<>();
+        final List<ColumnarSnapshot.ChunkInfo[]> groups = new ArrayList<>();
+        long rowCount = 0;
+
+        TableInfo(String name, List<ColumnarSnapshot.Column> columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+
+    public ColumnarSnapshotWriter(Path path) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 256 * 1024);
+        write(ColumnarSnapshot.MAGIC, ColumnarSnapshot.MAGIC.length);
+    }
+
+    public void beginTable(String name, List<ColumnarSnapshot.Column> columns) throws IOException {
+        if (table != null) {
+            endTable();
+        }
+        table = new TableInfo(name, columns);
+        int rowsPerGroup = ColumnarSnapshot.ROW_GROUP_ROWS;
+        numbers = new long[columns.size()][];
+        strings = new String[columns.size()][];
+        present = new boolean[columns.size()][rowsPerGroup];
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).getType().isNumeric()) {
+                numbers[c] = new long[rowsPerGroup];
+            } else {
+                strings[c] = new String[rowsPerGroup];
+            }
+        }
+        rows = 0;
+    }
+
+    // ===================== ROW VALUES =====================
+    public void setLong(int column, long value) {
+        numbers[column][rows] = value;
+        present[column][rows] = true;
+    }
+
+    public void setDate(int column, LocalDate value) {
+        if (value != null) {
+            setLong(column, value.toEpochDay());
+        }
+    }
+
+    public void setTimestamp(int column, LocalDateTime value) {
+        if (value != null) {
+            setLong(column, value.toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    public void setString(int column, String value) {
+        strings[column][rows] = value;
+        present[column][rows] = value != null;
+    }
+
+    public void endRow() throws IOException {
+        rows++;
+        table.rowCount++;
+        if (rows == ColumnarSnapshot.ROW_GROUP_ROWS) {
+            flushRowGroup();
+        }
+    }
+
+    // Returns the number of rows written to the table
+    public long endTable() throws IOException {
+        if (table == null) {
+            return 0;
+        }
+        if (rows > 0) {
+            flushRowGroup();
+        }
+        tables.add(table);
+        long count = table.rowCount;
+        table = null;
+        numbers = null;
+        strings = null;
+        present = null;
+        return count;
+    }
+
+    // ===================== CHUNKS =====================
+    private void flushRowGroup() throws IOException {
+        List<ColumnarSnapshot.Column> columns = table.columns;
+        ColumnarSnapshot.ChunkInfo[] chunks = new ColumnarSnapshot.ChunkInfo[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            ColumnarSnapshot.Column column = columns.get(c);
+            raw.reset();
+            long[] range = column.getType().isNumeric() ? encodeNumbers(column, c) : null;
+            if (!column.getType().isNumeric()) {
+                encodeStrings(c);
+            }
+            chunks[c] = writeChunk(range);
+
+            Arrays.fill(present[c], 0, rows, false);
+            if (strings[c] != null) {
+                Arrays.fill(strings[c], 0, rows, null);
+            }
+        }
+        table.groups.add(chunks);
+        table.groupRows.add(rows);
+        rows = 0;
+    }
+
+    // Returns {min, max} of the present values, or null if there are none
+    private long[] encodeNumbers(ColumnarSnapshot.Column column, int c) {
+        boolean hasNulls = false;
+        for (int r = 0; r < rows; r++) {
+            if (!present[c][r]) {
+                hasNulls = true;
+                break;
+            }
+        }
+        if (hasNulls && !column.isNullable()) {
+            throw new IllegalStateException("Null in non-null column " + table.name + "." + column.getName());
+        }
+        if (column.isNullable()) {
+            raw.put((byte) (hasNulls ? 1 : 0));
+            if (hasNulls) {
+                for (int r = 0; r < rows; r += 8) {
+                    int bits = 0;
+                    for (int b = 0; b < 8 && r + b < rows; b++) {
+                        if (present[c][r + b]) {
+                            bits |= 1 << b;
+                        }
+                    }
+                    raw.put((byte) bits);
+                }
+            }
+        }
+
+        long previous = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        boolean any = false;
+        for (int r = 0; r < rows; r++) {
+            if (!present[c][r]) {
+                continue;
+            }
+            long value = numbers[c][r];
+            ColumnarSnapshot.writeVarLong(raw, column.isDelta() ? value - previous : value);
+            previous = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            any = true;
+        }
+        return any ? new long[]{min, max} : null;
+    }
+
+    // Dictionary per chunk, so memory stays bounded even for free-text columns
+    private void encodeStrings(int c) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] rowCodes = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            String value = strings[c][r];
+            if (value != null) {
+                Integer code = codes.get(value);
+                if (code == null) {
+                    dictionary.add(value);
+                    code = dictionary.size();
+                    codes.put(value, code);
+                }
+                rowCodes[r] = code;
+            }
+        }
+        ColumnarSnapshot.writeVarLong(raw, dictionary.size());
+        for (String entry : dictionary) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            ColumnarSnapshot.writeVarLong(raw, bytes.length);
+            raw.put(bytes);
+        }
+        for (int r = 0; r < rows; r++) {
+            ColumnarSnapshot.writeVarLong(raw, rowCodes[r]);
+        }
+    }
+
+    // Deflates the encoded chunk if that makes it smaller, then appends it to the file
+    private ColumnarSnapshot.ChunkInfo writeChunk(long[] range) throws IOException {
+        int rawLength = raw.size();
+        byte[] compressed = new byte[Math.max(1, rawLength)];
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, rawLength);
+        deflater.finish();
+        int compressedLength = deflater.deflate(compressed);
+
+        long offset = position;
+        byte codec;
+        int storedLength;
+        if (deflater.finished() && compressedLength < rawLength) {
+            codec = ColumnarSnapshot.CODEC_DEFLATE;
+            storedLength = compressedLength;
+            write(compressed, compressedLength);
+        } else {
+            codec = ColumnarSnapshot.CODEC_NONE;
+            storedLength = rawLength;
+            write(raw.array(), rawLength);
+        }
+        return new ColumnarSnapshot.ChunkInfo(offset, storedLength, rawLength, codec,
+                                              range != null, range != null ? range[0] : 0, range != null ? range[1] : 0);
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    // ===================== FOOTER =====================
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (table != null) {
+                endTable();
+            }
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(ColumnarSnapshot.VERSION);
+            footer.writeInt(tables.size());
+            for (TableInfo info : tables) {
+                footer.writeUTF(info.name);
+                footer.writeInt(info.columns.size());
+                for (ColumnarSnapshot.Column column : info.columns) {
+                    footer.writeUTF(column.getName());
+                    footer.writeByte(column.getType().ordinal());
+                    footer.writeBoolean(column.isDelta());
+                    footer.writeBoolean(column.isNullable());
+                }
+                footer.writeLong(info.rowCount);
+                footer.writeInt(info.groups.size());
+                for (int g = 0; g < info.groups.size(); g++) {
+                    footer.writeInt(info.groupRows.get(g));
+                    for (ColumnarSnapshot.ChunkInfo chunk : info.groups.get(g)) {
+                        footer.writeLong(chunk.offset);
+                        footer.writeInt(chunk.storedLength);
+                        footer.writeInt(chunk.rawLength);
+                        footer.writeByte(chunk.codec);
+                        footer.writeBoolean(chunk.hasRange);
+                        footer.writeLong(chunk.min);
+                        footer.writeLong(chunk.max);
+                    }
+                }
+            }
+            footer.flush();
+
+            long footerOffset = position;
+            write(footerBytes.toByteArray(), footerBytes.size());
+            DataOutputStream trailer = new DataOutputStream(out);
+            trailer.writeLong(footerOffset);
+            trailer.write(ColumnarSnapshot.MAGIC);
+            trailer.flush();
+            position += 8 + ColumnarSnapshot.MAGIC.length;
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    // Bytes written so far
+    public long getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,369 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool used by DatabaseConnection.
+ * Callers get a proxied Connection whose close() hands the physical
+ * connection back to the pool instead of closing the socket.
+ */
+public class ConnectionPool {
+    // Connections used within this window are not re-validated on borrow
+    private static final long ALIVE_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    // Idle connections beyond the warm-up count are closed after this long unused
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledEntry, Long> borrowed = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+    private volatile int minIdle = 0;           // Set by warmUp(); never evicted below this
+
+    // Statistics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    public ConnectionPool(String url, String username, String password,
+                          int maxSize, long borrowTimeoutMillis, long leakThresholdMillis) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1000, leakThresholdMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::detectLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        housekeeper.scheduleWithFixedDelay(this::evictIdle, IDLE_TIMEOUT_MILLIS / 2,
+                                           IDLE_TIMEOUT_MILLIS / 2, TimeUnit.MILLISECONDS);
+    }
+
+    // ===================== WARM-UP =====================
+    // Opens connections up front so the first screens don't pay for the handshake
+    public int warmUp(int count) {
+        int target = Math.min(count, maxSize);
+        minIdle = target;
+        int opened = 0;
+        while (idle.size() + borrowed.size() < target) {
+            try {
+                idle.offerLast(new PooledEntry(openPhysical()));
+                opened++;
+            } catch (SQLException e) {
+                System.err.println("⚠️ Connection pool warm-up stopped: " + e.getMessage());
+                break;
+            }
+        }
+        System.out.println("✅ Connection pool warmed up with " + opened + " connection(s)");
+        return opened;
+    }
+
+    // ===================== BORROW / RELEASE =====================
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis +
+                                       " ms waiting for a database connection " + getStats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(openPhysical());
+            }
+            entry.leakReported = false;
+            entry.borrowTrace = new Throwable("Connection borrowed here");
+            borrowed.put(entry, System.currentTimeMillis());
+            borrowCount.incrementAndGet();
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            discard(entry);
+        }
+        return null;
+    }
+
+    // Validation on borrow, skipped for connections that were just returned
+    private boolean isUsable(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastReturned < ALIVE_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return !entry.physical.isClosed() && entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void release(PooledEntry entry) {
+        if (borrowed.remove(entry) == null) {
+            return; // Already released
+        }
+
+        boolean healthy = resetState(entry);
+        if (healthy && !shutdown) {
+            entry.lastReturned = System.currentTimeMillis();
+            entry.borrowTrace = null;
+            // LIFO keeps the hottest connections in use and leaves the rest at the tail,
+            // where evictIdle() closes them once they pass IDLE_TIMEOUT_MILLIS
+            idle.offerFirst(entry);
+        } else {
+            discard(entry);
+        }
+        permits.release();
+    }
+
+    // Undo anything the borrower left behind so the next caller gets a clean connection
+    private boolean resetState(PooledEntry entry) {
+        try {
+            Connection conn = entry.physical;
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("⚠️ Discarding pooled connection after reset failure: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, username, password);
+        createdCount.incrementAndGet();
+        return conn;
+    }
+
+    private void discard(PooledEntry entry) {
+        discardedCount.incrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // Nothing useful to do with a broken connection
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        long current;
+        do {
+            current = maxWaitNanos.get();
+        } while (nanos > current && !maxWaitNanos.compareAndSet(current, nanos));
+    }
+
+    // ===================== IDLE EVICTION =====================
+    // The tail of the idle deque is the longest unused, so evict from there
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS;
+        PooledEntry oldest;
+        while (idle.size() > minIdle && (oldest = idle.peekLast()) != null && oldest.lastReturned < cutoff) {
+            // A borrower may have taken it since the peek; then just look again.
+            // Evictions show up in the discarded count.
+            if (idle.removeLastOccurrence(oldest)) {
+                discard(oldest);
+            }
+        }
+    }
+
+    // ===================== LEAK DETECTION =====================
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<PooledEntry, Long> e : borrowed.entrySet()) {
+            PooledEntry entry = e.getKey();
+            long heldFor = now - e.getValue();
+            if (heldFor > leakThresholdMillis && !entry.leakReported) {
+                entry.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("⚠️ Possible connection leak: connection held for " + heldFor + " ms");
+                if (entry.borrowTrace != null) {
+                    entry.borrowTrace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // ===================== STATS / SHUTDOWN =====================
+    public PoolStats getStats() {
+        long borrows = borrowCount.get();
+        return new PoolStats(
+            borrowed.size(),
+            idle.size(),
+            maxSize,
+            permits.getQueueLength(),
+            borrows,
+            borrows > 0 ? totalWaitNanos.get() / borrows / 1_000_000.0 : 0.0,
+            maxWaitNanos.get() / 1_000_000.0,
+            createdCount.get(),
+            discardedCount.get(),
+            leakCount.get()
+        );
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+        System.out.println("Connection pool shut down " + getStats());
+    }
+
+    // ===================== POOLED CONNECTION =====================
+    private class PooledEntry {
+        final Connection physical;
+        volatile long lastReturned = System.currentTimeMillis();
+        volatile Throwable borrowTrace;
+        volatile boolean leakReported;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Each borrow gets its own handle so a stale reference can't close someone else's lease
+        Connection newHandle() {
+            AtomicBoolean closed = new AtomicBoolean(false);
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                switch (name) {
+                    case "close":
+                        if (closed.compareAndSet(false, true)) {
+                            release(this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed.get() || physical.isClosed();
+                    case "unwrap":
+                    case "isWrapperFor":
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled[" + physical + "]";
+                    default:
+                        if (closed.get()) {
+                            throw new SQLException("Connection has already been returned to the pool");
+                        }
+                }
+                return invoke(method, args);
+            };
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final int waiting;
+        private final long totalBorrows;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long created;
+        private final long discarded;
+        private final long leaksDetected;
+
+        public PoolStats(int active, int idle, int maxSize, int waiting, long totalBorrows,
+                         double averageWaitMillis, double maxWaitMillis,
+                         long created, long discarded, long leaksDetected) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.totalBorrows = totalBorrows;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.created = created;
+            this.discarded = discarded;
+            this.leaksDetected = leaksDetected;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getMaxSize() { return maxSize; }
+        public int getWaiting() { return waiting; }
+        public long getTotalBorrows() { return totalBorrows; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        public long getCreated() { return created; }
+        public long getDiscarded() { return discarded; }
+        public long getLeaksDetected() { return leaksDetected; }
+
+        @Override
+        public String toString() {
+            return String.format("[active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, " +
+                                 "avgWait=%.2fms, maxWait=%.2fms, created=%d, discarded=%d, leaks=%d]",
+                active, idle, maxSize, waiting, totalBorrows, averageWaitMillis, maxWaitMillis,
+                created, discarded, leaksDetected);
+        }
+    }
+}
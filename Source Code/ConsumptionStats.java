@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Consumption over the last windowDays days, from MedicalSupplyDAO.getSupplyConsumption
+ * (one entry per supply) or getCategoryTurnover (one entry per category). Like
+ * SupplyAggregate the columns are parallel primitive arrays, index i is entry i.
+ *
+ * The IN/OUT totals come from the daily rollup, so they cost one pass over
+ * supplies x days in the window, however long the ledger is. Derived figures:
+ *   average daily use   OUT units / windowDays
+ *   days of stock       on hand / average daily use (NOT_CONSUMED if nothing went out)
+ *   turnover            OUT units / average stock, where average stock is the mean of
+ *                       the stock at the start of the window (on hand - IN + OUT) and now
+ */
+public class ConsumptionStats {
+    public static final double NOT_CONSUMED = -1;
+    // Window used by the dashboard and the consumption report
+    public static final int DEFAULT_WINDOW_DAYS = 30;
+
+    private final int windowDays;
+    private final boolean bySupply;
+
+    private int size = 0;
+    private int[] supplyIds;            // 0 for category entries
+    private String[] keys;              // Supply name or category
+    private String[] categories;
+    private int[] itemCounts;
+    private long[] onHand;
+    private long[] inQuantities;
+    private long[] outQuantities;
+
+    ConsumptionStats(int windowDays, boolean bySupply) {
+        this.windowDays = windowDays;
+        this.bySupply = bySupply;
+        allocate(16);
+    }
+
+    // Appends an entry; used while reading the result set
+    void add(int supplyId, String key, String category, int itemCount, long onHandQuantity,
+             long inQuantity, long outQuantity) {
+        if (size == keys.length) {
+            allocate(size * 2);
+        }
+        supplyIds[size] = supplyId;
+        keys[size] = key;
+        categories[size] = category;
+        itemCounts[size] = itemCount;
+        onHand[size] = onHandQuantity;
+        inQuantities[size] = inQuantity;
+        outQuantities[size] = outQuantity;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        supplyIds = supplyIds == null ? new int[capacity] : Arrays.copyOf(supplyIds, capacity);
+        keys = keys == null ? new String[capacity] : Arrays.copyOf(keys, capacity);
+        categories = categories == null ? new String[capacity] : Arrays.copyOf(categories, capacity);
+        itemCounts = itemCounts == null ? new int[capacity] : Arrays.copyOf(itemCounts, capacity);
+        onHand = onHand == null ? new long[capacity] : Arrays.copyOf(onHand, capacity);
+        inQuantities = inQuantities == null ? new long[capacity] : Arrays.copyOf(inQuantities, capacity);
+        outQuantities = outQuantities == null ? new long[capacity] : Arrays.copyOf(outQuantities, capacity);
+    }
+
+    public int getWindowDays() { return windowDays; }
+    public boolean isBySupply() { return bySupply; }
+    public int size() { return size; }
+
+    public int getSupplyId(int i) { return supplyIds[check(i)]; }
+    public String getKey(int i) { return keys[check(i)]; }
+    public String getCategory(int i) { return categories[check(i)]; }
+    public int getItemCount(int i) { return itemCounts[check(i)]; }
+    public long getOnHand(int i) { return onHand[check(i)]; }
+    public long getInQuantity(int i) { return inQuantities[check(i)]; }
+    public long getOutQuantity(int i) { return outQuantities[check(i)]; }
+
+    // ===================== DERIVED =====================
+    public double getAverageDailyUse(int i) {
+        return (double) getOutQuantity(i) / windowDays;
+    }
+
+    public double getDaysOfStock(int i) {
+        return daysOfStock(getOnHand(i), getOutQuantity(i), windowDays);
+    }
+
+    public double getTurnover(int i) {
+        return turnover(getOnHand(i), getInQuantity(i), getOutQuantity(i));
+    }
+
+    // Shared with the report SQL rows so both give the same figures
+    static double daysOfStock(long onHand, long outQuantity, int windowDays) {
+        if (outQuantity <= 0) {
+            return NOT_CONSUMED;
+        }
+        return onHand * (double) windowDays / outQuantity;
+    }
+
+    static double turnover(long onHand, long inQuantity, long outQuantity) {
+        long opening = Math.max(0, onHand - inQuantity + outQuantity);
+        double averageStock = (opening + onHand) / 2.0;
+        return averageStock > 0 ? outQuantity / averageStock : 0;
+    }
+
+    // Index of the entry with this key, or -1
+    public int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Entries that will run out within the given number of days at the current rate
+    public int countRunningOut(int withinDays) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            double days = daysOfStock(onHand[i], outQuantities[i], windowDays);
+            if (days != NOT_CONSUMED && days < withinDays) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long totalOut() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += outQuantities[i];
+        return total;
+    }
+
+    public long totalIn() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += inQuantities[i];
+        return total;
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Entry " + i + " of " + size);
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConsumptionStats[%s, %d days, entries=%d, in=%d, out=%d]",
+            bySupply ? "by supply" : "by category", windowDays, size, totalIn(), totalOut());
+    }
+}
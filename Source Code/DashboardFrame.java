@@ -1,6 +1,15 @@
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import javax.swing.*;
 
 public class DashboardFrame extends JFrame {
@@ -8,9 +17,67 @@ public class DashboardFrame extends JFrame {
     private CardLayout cardLayout;
     private MedicalSupplyDAO medicalSupplyDAO;
 
+    // Dashboard data is loaded off the EDT and refreshed on a timer
+    private static final int REFRESH_INTERVAL_MS = 30_000;
+    private static final int RECENT_ACTIVITY_DAYS = 5;
+    private static final int RECENT_ACTIVITY_LIMIT = 20;
+
+    // Last snapshot survives logout, so the next dashboard paints with data straight away
+    private static volatile DashboardSnapshot lastSnapshot;
+
+    private JLabel[] statValueLabels;
+    private DefaultListModel<String> lowStockModel;
+    private DefaultListModel<String> activityModel;
+    private JLabel lastUpdatedLabel;
+    private Timer refreshTimer;
+    private boolean refreshInFlight = false;
+
+    // Repaints the low-stock card and list as soon as a supply crosses its minimum
+    private final LowStockTracker.Listener lowStockListener =
+        (supply, nowLow) -> SwingUtilities.invokeLater(this::refreshLowStock);
+
+    // Sub-screens are built the first time they are opened (see showScreen)
+    private final Map<String, Supplier<Container>> screenFactories = new LinkedHashMap<>();
+    private final Set<String> builtScreens = new HashSet<>();
+
+    // Opt-in: -Dinventory.prefetchScreens=true builds the other screens after the dashboard is painted
+    private static final boolean PREFETCH_SCREENS = Boolean.getBoolean("inventory.prefetchScreens");
+    private static final int PREFETCH_DELAY_MS = 1_000;
+
+    private final long startNanos = System.nanoTime();
+
     public DashboardFrame() {
         medicalSupplyDAO = new MedicalSupplyDAO();
+        medicalSupplyDAO.startSearchIndexBuild();
         initializeUI();
+        System.out.println("📊 Dashboard constructed in " + elapsedMillis(startNanos) + " ms");
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                System.out.println("📊 Dashboard first paint in " + elapsedMillis(startNanos) + " ms");
+                if (PREFETCH_SCREENS) {
+                    prefetchScreens();
+                }
+            }
+        });
+
+        if (lastSnapshot != null) {
+            applySnapshot(lastSnapshot);
+        }
+        refreshDashboard();
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refreshDashboard());
+        refreshTimer.start();
+        LowStockTracker.getInstance().addListener(lowStockListener);
+    }
+
+    @Override
+    public void dispose() {
+        if (refreshTimer != null) {
+            refreshTimer.stop();
+        }
+        LowStockTracker.getInstance().removeListener(lowStockListener);
+        super.dispose();
     }
 
     private void initializeUI() {
@@ -26,12 +93,13 @@ public class DashboardFrame extends JFrame {
         mainContentPanel = new JPanel(cardLayout);
 
         // Add panels
+        // Only the dashboard is built now; each screen loads its own data, so the rest wait until opened
         mainContentPanel.add(createDashboardContent(), "DASHBOARD");
-        mainContentPanel.add(wrapWithBackButton(new ManageSuppliesFrame().getContentPanel()), "MANAGE_SUPPLIES");
-        mainContentPanel.add(wrapWithBackButton(new ViewInventoryFrame().getContentPanel()), "VIEW_INVENTORY");
-        mainContentPanel.add(wrapWithBackButton(new TransactionsFrame().getContentPanel()), "TRANSACTION_HISTORY");
-        mainContentPanel.add(wrapWithBackButton(new GenerateReportsFrame().getContentPanel()), "GENERATE_REPORTS");
-        mainContentPanel.add(wrapWithBackButton(new SystemSettingsFrame().getContentPane()), "SYSTEM_SETTINGS");
+        screenFactories.put("MANAGE_SUPPLIES", () -> new ManageSuppliesFrame().getContentPanel());
+        screenFactories.put("VIEW_INVENTORY", () -> new ViewInventoryFrame().getContentPanel());
+        screenFactories.put("TRANSACTION_HISTORY", () -> new TransactionsFrame().getContentPanel());
+        screenFactories.put("GENERATE_REPORTS", () -> new GenerateReportsFrame().getContentPanel());
+        screenFactories.put("SYSTEM_SETTINGS", () -> new SystemSettingsFrame().getContentPane());
 
         add(mainContentPanel, BorderLayout.CENTER);
     }
@@ -217,32 +285,39 @@ public class DashboardFrame extends JFrame {
         // Dashboard Title
         JLabel welcomeLabel = new JLabel("Dashboard", JLabel.LEFT);
         welcomeLabel.setFont(new Font("Segoe UI", Font.BOLD, 30));
-        welcomeLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 25, 0));
+
+        lastUpdatedLabel = new JLabel("Loading...", JLabel.RIGHT);
+        lastUpdatedLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        lastUpdatedLabel.setForeground(new Color(120, 120, 120));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setOpaque(false);
+        titlePanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 25, 0));
+        titlePanel.add(welcomeLabel, BorderLayout.WEST);
+        titlePanel.add(lastUpdatedLabel, BorderLayout.EAST);
 
         // Stats Cards Panel - REMOVED "Total Value"
         JPanel statsPanel = new JPanel(new GridLayout(2, 2, 20, 20)); // Changed to 2x2 grid
         statsPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 25, 0));
 
         // Updated stats array without "Total Value"
-        String[] stats = {"Total Supplies", "Categories", "Low Stock Items", "Expiring Soon", "Transactions"};
-        String[] values = {
-                String.valueOf(medicalSupplyDAO.getTotalSupplies()),
-                String.valueOf(medicalSupplyDAO.getTotalCategories()),
-                String.valueOf(medicalSupplyDAO.getLowStockCount()),
-                String.valueOf(medicalSupplyDAO.getExpiringSoonCount()),
-                String.valueOf(medicalSupplyDAO.getTransactionCount())
-        };
+        // Values are filled in by applySnapshot()
+        String[] stats = {"Total Supplies", "Categories", "Low Stock Items", "Expiring Soon", "Transactions",
+                "Runs Out in " + MedicalSupplyDAO.RUNNING_OUT_DAYS + " Days"};
 
         Color[] colors = {
                 new Color(0, 82, 165),
                 new Color(0, 123, 255),
                 new Color(220, 53, 69),
                 new Color(255, 193, 7),
-                new Color(111, 66, 193) // Purple for transactions
+                new Color(111, 66, 193), // Purple for transactions
+                new Color(253, 126, 20)  // Orange for stock about to run out
         };
 
+        statValueLabels = new JLabel[stats.length];
         for (int i = 0; i < stats.length; i++) {
-            statsPanel.add(createStatCard(stats[i], values[i], colors[i]));
+            statValueLabels[i] = new JLabel("-");
+            statsPanel.add(createStatCard(stats[i], statValueLabels[i], colors[i]));
         }
 
         // Lower Panel: Low Stock + Recent Activity
@@ -253,13 +328,8 @@ public class DashboardFrame extends JFrame {
         lowStockPanel.setBorder(BorderFactory.createTitledBorder("Low Stock Alerts"));
         lowStockPanel.setBackground(Color.WHITE);
 
-        List<MedicalSupply> lowStockItems = medicalSupplyDAO.getLowStockItems();
-        DefaultListModel<String> lowStockModel = new DefaultListModel<>();
-        if (lowStockItems.isEmpty()) lowStockModel.addElement("No low stock items");
-        for (MedicalSupply item : lowStockItems) {
-            lowStockModel.addElement(String.format("%s - %d left (Min: %d)",
-                    item.getName(), item.getQuantity(), item.getMinStockLevel()));
-        }
+        lowStockModel = new DefaultListModel<>();
+        lowStockModel.addElement("Loading...");
 
         JList<String> lowStockList = new JList<>(lowStockModel);
         lowStockList.setFont(new Font("Segoe UI", Font.PLAIN, 16));
@@ -270,23 +340,9 @@ public class DashboardFrame extends JFrame {
         activityPanel.setBorder(BorderFactory.createTitledBorder("Recent Activity"));
         activityPanel.setBackground(Color.WHITE);
 
-        DefaultListModel<String> activityModel = new DefaultListModel<>();
+        activityModel = new DefaultListModel<>();
         activityModel.addElement("System started");
         activityModel.addElement("User logged in");
-        
-        // Add recent transactions to activity
-        List<Transaction> recentTransactions = medicalSupplyDAO.getRecentTransactions(5);
-        for (Transaction transaction : recentTransactions) {
-            MedicalSupply supply = medicalSupplyDAO.getSupplyById(transaction.getSupplyId());
-            String supplyName = supply != null ? supply.getName() : "Unknown";
-            activityModel.addElement(String.format("%s: %s %d units", 
-                transaction.getTransactionDate().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm")),
-                supplyName, transaction.getQuantityChanged()));
-        }
-        
-        if (medicalSupplyDAO.getTotalSupplies() > 0) {
-            activityModel.addElement(medicalSupplyDAO.getTotalSupplies() + " supplies loaded");
-        }
 
         JList<String> activityList = new JList<>(activityModel);
         activityList.setFont(new Font("Segoe UI", Font.PLAIN, 16));
@@ -295,16 +351,106 @@ public class DashboardFrame extends JFrame {
         lowerPanel.add(lowStockPanel);
         lowerPanel.add(activityPanel);
 
-        mainPanel.add(welcomeLabel, BorderLayout.NORTH);
+        mainPanel.add(titlePanel, BorderLayout.NORTH);
         mainPanel.add(statsPanel, BorderLayout.CENTER);
         mainPanel.add(lowerPanel, BorderLayout.SOUTH);
 
         return mainPanel;
     }
 
+    // =========================
+    // DASHBOARD DATA
+    // =========================
+    // Loads a fresh snapshot in the background; overlapping requests are skipped
+    private void refreshDashboard() {
+        if (refreshInFlight) {
+            return;
+        }
+        refreshInFlight = true;
+
+        SwingWorker<DashboardSnapshot, Void> worker = new SwingWorker<>() {
+            @Override
+            protected DashboardSnapshot doInBackground() {
+                return medicalSupplyDAO.getDashboardSnapshot(RECENT_ACTIVITY_DAYS, RECENT_ACTIVITY_LIMIT);
+            }
+
+            @Override
+            protected void done() {
+                refreshInFlight = false;
+                try {
+                    DashboardSnapshot snapshot = get();
+                    if (snapshot != null) {
+                        lastSnapshot = snapshot;
+                        applySnapshot(snapshot);
+                    } else if (lastSnapshot == null) {
+                        lastUpdatedLabel.setText("⚠️ Unable to load dashboard data");
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ Dashboard refresh failed: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    // Tracker lookups are in memory, so this is cheap enough to run on the EDT
+    private void refreshLowStock() {
+        LowStockTracker tracker = LowStockTracker.getInstance();
+        if (!tracker.isReady() || !isDisplayable()) {
+            return;
+        }
+        List<MedicalSupply> items = tracker.getItems();
+        statValueLabels[2].setText(String.valueOf(items.size()));
+        showLowStock(items);
+    }
+
+    private void showLowStock(List<MedicalSupply> items) {
+        lowStockModel.clear();
+        if (items.isEmpty()) lowStockModel.addElement("No low stock items");
+        for (MedicalSupply item : items) {
+            lowStockModel.addElement(String.format("%s - %d left (Min: %d)",
+                    item.getName(), item.getQuantity(), item.getMinStockLevel()));
+        }
+    }
+
+    private void applySnapshot(DashboardSnapshot snapshot) {
+        int[] values = {
+                snapshot.getTotalSupplies(),
+                snapshot.getTotalCategories(),
+                snapshot.getLowStockCount(),
+                snapshot.getExpiringSoonCount(),
+                snapshot.getTransactionCount(),
+                snapshot.getRunningOutCount()
+        };
+        for (int i = 0; i < values.length; i++) {
+            statValueLabels[i].setText(String.valueOf(values[i]));
+        }
+
+        showLowStock(snapshot.getLowStockItems());
+
+        activityModel.clear();
+        activityModel.addElement("System started");
+        activityModel.addElement("User logged in");
+
+        // Add recent transactions to activity
+        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm");
+        for (Transaction transaction : snapshot.getRecentActivity()) {
+            String supplyName = transaction.getSupplyName() != null ? transaction.getSupplyName() : "Unknown";
+            activityModel.addElement(String.format("%s: %s %d units",
+                transaction.getTransactionDate().format(timeFormat),
+                supplyName, transaction.getQuantityChanged()));
+        }
+
+        if (snapshot.getTotalSupplies() > 0) {
+            activityModel.addElement(snapshot.getTotalSupplies() + " supplies loaded");
+        }
+
+        lastUpdatedLabel.setText("Updated " + snapshot.getLoadedAt().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+    }
+
     // REMOVED calculateTotalValue() method entirely
 
-    private JPanel createStatCard(String title, String value, Color color) {
+    private JPanel createStatCard(String title, JLabel valueLabel, Color color) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(Color.WHITE);
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -316,7 +462,6 @@ public class DashboardFrame extends JFrame {
         titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
         titleLabel.setForeground(new Color(100, 100, 100));
 
-        JLabel valueLabel = new JLabel(value);
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
         valueLabel.setForeground(color);
 
@@ -333,33 +478,60 @@ public class DashboardFrame extends JFrame {
                 refreshDashboard();
                 break;
             case "Manage Supplies":
-                cardLayout.show(mainContentPanel, "MANAGE_SUPPLIES");
+                showScreen("MANAGE_SUPPLIES");
                 break;
             case "View Inventory":
-                cardLayout.show(mainContentPanel, "VIEW_INVENTORY");
+                showScreen("VIEW_INVENTORY");
                 break;
             case "Transaction History":
-                cardLayout.show(mainContentPanel, "TRANSACTION_HISTORY");
+                showScreen("TRANSACTION_HISTORY");
                 break;
             case "Generate Reports":
-                cardLayout.show(mainContentPanel, "GENERATE_REPORTS");
+                showScreen("GENERATE_REPORTS");
                 break;
             case "System Settings":
-                cardLayout.show(mainContentPanel, "SYSTEM_SETTINGS");
+                showScreen("SYSTEM_SETTINGS");
                 break;
         }
     }
 
-    private void refreshDashboard() {
-        Component[] components = mainContentPanel.getComponents();
-        for (Component comp : components) {
-            if (comp.isVisible() && comp instanceof JPanel) {
-                mainContentPanel.remove(comp);
-                mainContentPanel.add(createDashboardContent(), "DASHBOARD");
-                cardLayout.show(mainContentPanel, "DASHBOARD");
-                break;
-            }
+    // =========================
+    // LAZY SCREENS
+    // =========================
+    private void showScreen(String card) {
+        ensureScreen(card);
+        cardLayout.show(mainContentPanel, card);
+    }
+
+    private void ensureScreen(String card) {
+        if (builtScreens.contains(card)) {
+            return;
         }
+        long start = System.nanoTime();
+        mainContentPanel.add(wrapWithBackButton(screenFactories.get(card).get()), card);
+        builtScreens.add(card);
+        System.out.println("📊 Built " + card + " screen in " + elapsedMillis(start) + " ms");
+    }
+
+    // Builds the remaining screens one per timer tick, so the EDT stays free between them
+    private void prefetchScreens() {
+        List<String> pending = new ArrayList<>(screenFactories.keySet());
+        Timer prefetchTimer = new Timer(PREFETCH_DELAY_MS, null);
+        prefetchTimer.addActionListener(e -> {
+            while (!pending.isEmpty() && builtScreens.contains(pending.get(0))) {
+                pending.remove(0);
+            }
+            if (pending.isEmpty() || !isDisplayable()) {
+                prefetchTimer.stop();
+                return;
+            }
+            ensureScreen(pending.remove(0));
+        });
+        prefetchTimer.start();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
     }
 
     private JButton createIconButton(String icon, String tooltip) {
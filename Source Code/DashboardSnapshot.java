@@ -0,0 +1,47 @@
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+// Everything the dashboard shows, loaded together by MedicalSupplyDAO.getDashboardSnapshot()
+public class DashboardSnapshot {
+    private final int totalSupplies;
+    private final int totalCategories;
+    private final int lowStockCount;
+    private final int expiringSoonCount;
+    private final int transactionCount;
+    private final int runningOutCount;          // Stock lasts under RUNNING_OUT_DAYS at current use
+    private final List<MedicalSupply> lowStockItems;
+    private final List<Transaction> recentActivity; // Supply names already filled in
+    private final LocalDateTime loadedAt;
+
+    public DashboardSnapshot(int totalSupplies, int totalCategories, int lowStockCount,
+                             int expiringSoonCount, int transactionCount, int runningOutCount,
+                             List<MedicalSupply> lowStockItems, List<Transaction> recentActivity) {
+        this.totalSupplies = totalSupplies;
+        this.totalCategories = totalCategories;
+        this.lowStockCount = lowStockCount;
+        this.expiringSoonCount = expiringSoonCount;
+        this.transactionCount = transactionCount;
+        this.runningOutCount = runningOutCount;
+        this.lowStockItems = Collections.unmodifiableList(lowStockItems);
+        this.recentActivity = Collections.unmodifiableList(recentActivity);
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    public int getTotalSupplies() { return totalSupplies; }
+    public int getTotalCategories() { return totalCategories; }
+    public int getLowStockCount() { return lowStockCount; }
+    public int getExpiringSoonCount() { return expiringSoonCount; }
+    public int getTransactionCount() { return transactionCount; }
+    public int getRunningOutCount() { return runningOutCount; }
+    public List<MedicalSupply> getLowStockItems() { return lowStockItems; }
+    public List<Transaction> getRecentActivity() { return recentActivity; }
+    public LocalDateTime getLoadedAt() { return loadedAt; }
+
+    @Override
+    public String toString() {
+        return String.format("Dashboard[supplies=%d, categories=%d, lowStock=%d, expiring=%d, transactions=%d, runningOut=%d, at %s]",
+            totalSupplies, totalCategories, lowStockCount, expiringSoonCount, transactionCount,
+            runningOutCount, loadedAt);
+    }
+}
@@ -1,26 +1,70 @@
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/medical_inventory";
+    // Server-side prepared statements, cached per connection so pooled connections reuse them.
+    // rewriteBatchedStatements turns JDBC batches into multi-row statements (one round trip).
+    // useCursorFetch makes setFetchSize(n) read n rows per round trip instead of the whole
+    // result; it only affects statements that set a fetch size (StreamingTableLoader).
+    private static final String URL = "jdbc:mysql://localhost:3306/medical_inventory" +
+            "?useServerPrepStmts=true&cachePrepStmts=true" +
+            "&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048" +
+            "&rewriteBatchedStatements=true&useCursorFetch=true";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "";
 
+    // Pool settings
+    private static final int MAX_POOL_SIZE = 10;
+    private static final int WARM_UP_SIZE = 3;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 30_000;
+
+    private static volatile ConnectionPool pool;
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName("com.mysql.cj.jdbc.Driver");
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("MySQL JDBC Driver not found", e);
+                    }
+                    current = new ConnectionPool(URL, USERNAME, PASSWORD,
+                            MAX_POOL_SIZE, BORROW_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS);
+                    current.warmUp(WARM_UP_SIZE);
+
+                    // Write-behind journal needs the pool to flush, so it stops first
+                    final ConnectionPool created = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        TransactionJournal.shutdownInstance();
+                        created.shutdown();
+                    }, "connection-pool-shutdown"));
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
     // This MUST return a Connection, not a boolean
+    // Borrowed from the pool; closing it returns it to the pool
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
-        }
-        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        return getPool().borrow();
+    }
+
+    // Pool statistics (active, idle, wait time) for diagnostics
+    public static ConnectionPool.PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
     }
 
     // Test connection returns boolean
     public static boolean testConnection() {
         try (Connection conn = getConnection()) {
-            System.out.println("Database connection test successful!");
+            System.out.println("Database connection test successful! Pool: " + getPoolStats());
             return true;
         } catch (SQLException e) {
             System.out.println("Database connection test failed: " + e.getMessage());
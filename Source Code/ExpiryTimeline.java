@@ -0,0 +1,262 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory timeline of supplies ordered by expiry date, so the expiry screens,
+ * alerts and reports don't each run their own query. Built with the search index
+ * (MedicalSupplyDAO.startSearchIndexBuild), kept current by the DAO's write methods
+ * and resynced from the database every midnight.
+ *
+ * Range lookups are a TreeMap sub-map: O(log n) to find the start, then O(k) for the
+ * dates in range. "Today" is read on every call, so items roll into "expired" at
+ * midnight without any rebuild.
+ */
+public class ExpiryTimeline {
+    private static final ExpiryTimeline INSTANCE = new ExpiryTimeline();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // expiry date -> supplies expiring that day (by id, so ties come back in id order)
+    private TreeMap<LocalDate, TreeMap<Integer, MedicalSupply>> byDate = new TreeMap<>();
+    private Map<Integer, MedicalSupply> byId = new HashMap<>();
+
+    // Build state: writes that land while a (re)load is running win over the loaded rows.
+    // A null value means the supply was deleted.
+    private boolean ready = false;
+    private boolean building = false;
+    private final Map<Integer, MedicalSupply> changedDuringBuild = new HashMap<>();
+    private final Map<Integer, Integer> quantitiesDuringBuild = new HashMap<>();
+
+    public static ExpiryTimeline getInstance() {
+        return INSTANCE;
+    }
+
+    // ===================== BUILD =====================
+    // Returns false if a load is already running. The timeline can be rebuilt once
+    // ready; queries keep using the current data until it finishes.
+    public boolean beginBuild() {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                return false;
+            }
+            building = true;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishBuild(List<MedicalSupply> supplies) {
+        lock.writeLock().lock();
+        try {
+            byDate = new TreeMap<>();
+            byId = new HashMap<>();
+            for (MedicalSupply supply : supplies) {
+                if (changedDuringBuild.containsKey(supply.getId())) {
+                    continue;
+                }
+                MedicalSupply copy = new MedicalSupply(supply);
+                Integer quantity = quantitiesDuringBuild.get(supply.getId());
+                if (quantity != null) {
+                    copy.setQuantity(quantity);
+                }
+                add(copy);
+            }
+            for (MedicalSupply changed : changedDuringBuild.values()) {
+                if (changed != null) {
+                    add(changed);
+                }
+            }
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            building = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Load failed; the current data (if any) stays in use
+    public void abortBuild() {
+        lock.writeLock().lock();
+        try {
+            building = false;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===================== INCREMENTAL UPDATES =====================
+    public void put(MedicalSupply supply) {
+        lock.writeLock().lock();
+        try {
+            MedicalSupply copy = new MedicalSupply(supply);
+            unlink(supply.getId());
+            add(copy);
+            if (building) {
+                changedDuringBuild.put(copy.getId(), copy);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            if (building) {
+                changedDuringBuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateQuantity(int id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            MedicalSupply supply = byId.get(id);
+            if (supply != null) {
+                supply.setQuantity(quantity);
+            }
+            if (building) {
+                MedicalSupply changed = changedDuringBuild.get(id);
+                if (changed != null) {
+                    changed.setQuantity(quantity);
+                } else if (!changedDuringBuild.containsKey(id)) {
+                    quantitiesDuringBuild.put(id, quantity);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Supplies without an expiry date aren't on the timeline
+    private void add(MedicalSupply supply) {
+        if (supply.getExpiryDate() == null) {
+            return;
+        }
+        byId.put(supply.getId(), supply);
+        byDate.computeIfAbsent(supply.getExpiryDate(), d -> new TreeMap<>()).put(supply.getId(), supply);
+    }
+
+    private void unlink(int id) {
+        MedicalSupply old = byId.remove(id);
+        if (old == null) {
+            return;
+        }
+        TreeMap<Integer, MedicalSupply> day = byDate.get(old.getExpiryDate());
+        if (day != null) {
+            day.remove(id);
+            if (day.isEmpty()) {
+                byDate.remove(old.getExpiryDate());
+            }
+        }
+    }
+
+    // ===================== QUERIES =====================
+    // Expiry date before today, most recently expired first (copies)
+    public List<MedicalSupply> getExpired() {
+        lock.readLock().lock();
+        try {
+            return copyOf(byDate.headMap(LocalDate.now(), false).descendingMap());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Expiring from today through today + days, soonest first (copies)
+    public List<MedicalSupply> getExpiringWithin(int days) {
+        LocalDate today = LocalDate.now();
+        return getExpiringBetween(today, today.plusDays(days));
+    }
+
+    // Expiry date in [from, to], soonest first (copies)
+    public List<MedicalSupply> getExpiringBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            if (to.isBefore(from)) {
+                return new ArrayList<>();
+            }
+            return copyOf(byDate.subMap(from, true, to, true));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countExpiringWithin(int days) {
+        LocalDate today = LocalDate.now();
+        return countBetween(today, today.plusDays(days));
+    }
+
+    public int countExpired() {
+        lock.readLock().lock();
+        try {
+            return count(byDate.headMap(LocalDate.now(), false));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of supplies with an expiry date in [from, to]
+    public int countBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            if (to.isBefore(from)) {
+                return 0;
+            }
+            return count(byDate.subMap(from, true, to, true));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<MedicalSupply> copyOf(NavigableMap<LocalDate, TreeMap<Integer, MedicalSupply>> range) {
+        List<MedicalSupply> result = new ArrayList<>();
+        for (TreeMap<Integer, MedicalSupply> day : range.values()) {
+            for (MedicalSupply supply : day.values()) {
+                result.add(new MedicalSupply(supply));
+            }
+        }
+        return result;
+    }
+
+    private static int count(NavigableMap<LocalDate, TreeMap<Integer, MedicalSupply>> range) {
+        int total = 0;
+        for (TreeMap<Integer, MedicalSupply> day : range.values()) {
+            total += day.size();
+        }
+        return total;
+    }
+}
@@ -2,10 +2,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import javax.swing.table.DefaultTableModel;
 
@@ -55,7 +52,8 @@ public class GenerateReportsFrame {
                 "Inventory Summary",
                 "Low Stock Report",
                 "Expiry Report",
-                "Category Summary"
+                "Category Summary",
+                "Consumption Report"
         });
 
         JLabel dateLabel = new JLabel("Date Range:");
@@ -73,12 +71,19 @@ public class GenerateReportsFrame {
         generateButton.setForeground(Color.WHITE);
         generateButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
 
+        JButton generateAllButton = new JButton("Generate All Reports");
+        generateAllButton.setBackground(new Color(40, 167, 69));
+        generateAllButton.setForeground(Color.WHITE);
+        generateAllButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+
         createReportPanel.add(typeLabel);
         createReportPanel.add(typeCombo);
         createReportPanel.add(dateLabel);
         createReportPanel.add(dateCombo);
         createReportPanel.add(new JLabel()); // spacer
         createReportPanel.add(generateButton);
+        createReportPanel.add(new JLabel()); // spacer
+        createReportPanel.add(generateAllButton);
 
         // Report preview area
         JPanel previewPanel = new JPanel(new BorderLayout());
@@ -109,11 +114,7 @@ public class GenerateReportsFrame {
                             "Incomplete Selection",
                             JOptionPane.WARNING_MESSAGE);
                 } else {
-                    // Generate preview text
-                    String reportContent = generateReportContent(reportType, dateRange);
-                    previewArea.setText(reportContent);
-
-                    // Ask user where to save
+                    // Ask user where to save first; the report is streamed straight to that file
                     JFileChooser fileChooser = new JFileChooser();
                     fileChooser.setDialogTitle("Save Excel Report");
                     fileChooser.setSelectedFile(new java.io.File(
@@ -123,43 +124,33 @@ public class GenerateReportsFrame {
                     int userSelection = fileChooser.showSaveDialog(contentPanel);
 
                     if (userSelection == JFileChooser.APPROVE_OPTION) {
-                        java.io.File fileToSave = fileChooser.getSelectedFile();
-                        try {
-                            exportToCSV(reportContent, fileToSave.getAbsolutePath());
-                            
-                            // Save report record to database
-                            boolean saved = medicalSupplyDAO.saveReport(
-                                reportType, 
-                                dateRange, 
-                                currentUser, 
-                                fileToSave.getAbsolutePath()
-                            );
-                            
-                            if (saved) {
-                                JOptionPane.showMessageDialog(contentPanel,
-                                        "✅ Report generated and saved to database!\n\n" +
-                                        "File: " + fileToSave.getAbsolutePath() + "\n" +
-                                        "Type: " + reportType + "\n" +
-                                        "Range: " + dateRange,
-                                        "Report Success",
-                                        JOptionPane.INFORMATION_MESSAGE);
-                            } else {
-                                JOptionPane.showMessageDialog(contentPanel,
-                                        "⚠ Report exported but not saved to database log.",
-                                        "Warning",
-                                        JOptionPane.WARNING_MESSAGE);
-                            }
-                        } catch (IOException ex) {
-                            JOptionPane.showMessageDialog(contentPanel,
-                                    "Error exporting report: " + ex.getMessage(),
-                                    "Export Error",
-                                    JOptionPane.ERROR_MESSAGE);
-                        }
+                        generateReport(reportType, dateRange, fileChooser.getSelectedFile(),
+                                       generateButton, previewArea);
                     }
                 }
             }
         });
 
+        // Every report type for the chosen range, from one read of the database
+        generateAllButton.addActionListener(e -> {
+            String dateRange = (String) dateCombo.getSelectedItem();
+            if ("Select range...".equals(dateRange)) {
+                JOptionPane.showMessageDialog(contentPanel,
+                        "Please select a date range",
+                        "Incomplete Selection",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            JFileChooser folderChooser = new JFileChooser();
+            folderChooser.setDialogTitle("Choose Folder for Report Pack");
+            folderChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (folderChooser.showSaveDialog(contentPanel) == JFileChooser.APPROVE_OPTION) {
+                generateReportPack(dateRange, folderChooser.getSelectedFile(),
+                                   generateAllButton, previewArea);
+            }
+        });
+
         return panel;
     }
     
@@ -292,100 +283,138 @@ public class GenerateReportsFrame {
         }
     }
 
-    private String generateReportContent(String reportType, String dateRange) {
-        StringBuilder report = new StringBuilder();
-        report.append("MEDICAL INVENTORY MANAGEMENT SYSTEM\n");
-        report.append("====================================\n");
-        report.append("Report Type: ").append(reportType).append("\n");
-        report.append("Date Range: ").append(dateRange).append("\n");
-        report.append("Generated: ").append(LocalDate.now().toString()).append("\n");
-        report.append("Generated By: ").append(currentUser).append("\n\n");
-
-        switch (reportType) {
-            case "Inventory Summary":
-                appendInventorySummary(report);
-                break;
-            case "Low Stock Report":
-                appendLowStockReport(report);
-                break;
-            case "Expiry Report":
-                appendExpiryReport(report);
-                break;
-            case "Category Summary":
-                appendCategorySummary(report);
-                break;
-        }
-
-        report.append("\n=== END OF REPORT ===\n");
-        return report.toString();
-    }
+    // Streams the report to disk in the background, with a progress dialog that can cancel it
+    private void generateReport(String reportType, String dateRange, java.io.File fileToSave,
+                                JButton generateButton, JTextArea previewArea) {
+        generateButton.setEnabled(false);
+        previewArea.setText("Generating " + reportType + "...");
+
+        StreamingReportWriter writer = new StreamingReportWriter(reportType, dateRange, currentUser, fileToSave);
+        JDialog progressDialog = createProgressDialog(writer, "Generating Report",
+                                                      "Writing " + fileToSave.getName() + "...");
+        writer.onFinished(() -> {
+            progressDialog.dispose();
+            generateButton.setEnabled(true);
+            reportFinished(writer, reportType, dateRange, previewArea);
+        });
 
-    // --- Methods to append data ---
-    private void appendInventorySummary(StringBuilder report) {
-        List<MedicalSupply> allSupplies = medicalSupplyDAO.getAllSupplies();
-        report.append("Inventory Summary\n");
-        report.append("Item Name,Category,Quantity,Expiry,Status\n");
-
-        for (MedicalSupply s : allSupplies) {
-            String status = s.getQuantity() == 0 ? "OUT OF STOCK" :
-                    s.getQuantity() <= s.getMinStockLevel() ? "LOW STOCK" : "IN STOCK";
-            report.append(String.format("%s,%s,%d,%s,%s\n",
-                    s.getName(), s.getCategory(), s.getQuantity(), 
-                    s.getExpiryDate() != null ? s.getExpiryDate().toString() : "N/A", 
-                    status));
-        }
+        writer.execute();
+        progressDialog.setVisible(true);
     }
 
-    private void appendLowStockReport(StringBuilder report) {
-        List<MedicalSupply> lowStockItems = medicalSupplyDAO.getLowStockItems();
-        report.append("Low Stock Report\n");
-        report.append("Item Name,Category,Quantity,Min Stock Level,Urgency\n");
+    private void generateReportPack(String dateRange, java.io.File folder,
+                                    JButton generateAllButton, JTextArea previewArea) {
+        generateAllButton.setEnabled(false);
+        previewArea.setText("Generating report pack...");
+
+        ReportPackWriter writer = new ReportPackWriter(dateRange, currentUser, folder);
+        JDialog progressDialog = createProgressDialog(writer, "Generating Report Pack",
+                                                      "Writing all reports to " + folder.getName() + "...");
+        writer.onFinished(() -> {
+            progressDialog.dispose();
+            generateAllButton.setEnabled(true);
+            reportPackFinished(writer, dateRange, previewArea);
+        });
 
-        for (MedicalSupply s : lowStockItems) {
-            String urgency = s.getQuantity() == 0 ? "CRITICAL" :
-                    s.getQuantity() <= s.getMinStockLevel() / 2 ? "HIGH" : "MEDIUM";
-            report.append(String.format("%s,%s,%d,%d,%s\n",
-                    s.getName(), s.getCategory(), s.getQuantity(), s.getMinStockLevel(), urgency));
-        }
+        writer.execute();
+        progressDialog.setVisible(true);
     }
 
-    private void appendExpiryReport(StringBuilder report) {
-        List<MedicalSupply> expiringItems = medicalSupplyDAO.getExpiringSoonItems(90);
-        report.append("Expiry Report (Next 90 Days)\n");
-        report.append("Item Name,Category,Quantity,Expiry,Days Left\n");
-
-        LocalDate now = LocalDate.now();
-        for (MedicalSupply s : expiringItems) {
-            if (s.getExpiryDate() != null) {
-                long daysLeft = java.time.temporal.ChronoUnit.DAYS.between(now, s.getExpiryDate());
-                report.append(String.format("%s,%s,%d,%s,%d\n",
-                        s.getName(), s.getCategory(), s.getQuantity(), s.getExpiryDate(), daysLeft));
+    // Modal progress bar with a Cancel button; the caller disposes it when the worker finishes
+    private JDialog createProgressDialog(SwingWorker<?, ?> worker, String title, String message) {
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JButton cancelButton = new JButton("Cancel");
+
+        JDialog progressDialog = new JDialog(SwingUtilities.getWindowAncestor(contentPanel),
+            title, Dialog.ModalityType.APPLICATION_MODAL);
+        progressDialog.setLayout(new BorderLayout());
+        progressDialog.add(new JLabel(message), BorderLayout.NORTH);
+        progressDialog.add(progressBar, BorderLayout.CENTER);
+        progressDialog.add(cancelButton, BorderLayout.SOUTH);
+        progressDialog.setSize(350, 120);
+        progressDialog.setLocationRelativeTo(contentPanel);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
             }
-        }
+        });
+        cancelButton.addActionListener(e -> worker.cancel(false));
+        return progressDialog;
     }
 
-    private void appendCategorySummary(StringBuilder report) {
-        List<MedicalSupply> allSupplies = medicalSupplyDAO.getAllSupplies();
-        report.append("Category Summary\n");
-        report.append("Category,Item Count,Total Quantity\n");
-
-        java.util.Map<String, Integer> counts = new java.util.HashMap<>();
-        java.util.Map<String, Integer> quantities = new java.util.HashMap<>();
-
-        for (MedicalSupply s : allSupplies) {
-            counts.put(s.getCategory(), counts.getOrDefault(s.getCategory(), 0) + 1);
-            quantities.put(s.getCategory(), quantities.getOrDefault(s.getCategory(), 0) + s.getQuantity());
+    private void reportFinished(StreamingReportWriter writer, String reportType, String dateRange,
+                                JTextArea previewArea) {
+        if (writer.isCancelled()) {
+            previewArea.setText("Report cancelled. No file was written.");
+            return;
+        }
+        if (writer.getError() != null) {
+            previewArea.setText("Report failed: " + writer.getError().getMessage());
+            JOptionPane.showMessageDialog(contentPanel,
+                    "Error exporting report: " + writer.getError().getMessage(),
+                    "Export Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
         }
 
-        for (String cat : counts.keySet()) {
-            report.append(String.format("%s,%d,%d\n", cat, counts.get(cat), quantities.get(cat)));
+        previewArea.setText(writer.getPreview());
+        previewArea.setCaretPosition(0);
+
+        String filePath = writer.getTarget().getAbsolutePath();
+        // Save report record to database
+        boolean saved = medicalSupplyDAO.saveReport(reportType, dateRange, currentUser, filePath);
+
+        if (saved) {
+            JOptionPane.showMessageDialog(contentPanel,
+                    "✅ Report generated and saved to database!\n\n" +
+                    "File: " + filePath + "\n" +
+                    "Type: " + reportType + "\n" +
+                    "Range: " + dateRange +
+                    (writer.isFromCache() ? "\n\nNo changes since the last run; reused the previous report." : ""),
+                    "Report Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(contentPanel,
+                    "⚠ Report exported but not saved to database log.",
+                    "Warning",
+                    JOptionPane.WARNING_MESSAGE);
         }
     }
 
-    // --- Export to CSV ---
-    private void exportToCSV(String content, String filePath) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(content);
+    private void reportPackFinished(ReportPackWriter writer, String dateRange, JTextArea previewArea) {
+        if (writer.isCancelled()) {
+            previewArea.setText("Report pack cancelled. No files were written.");
+            return;
+        }
+        if (writer.getError() != null) {
+            previewArea.setText("Report pack failed: " + writer.getError().getMessage());
+            JOptionPane.showMessageDialog(contentPanel,
+                    "Error generating report pack: " + writer.getError().getMessage(),
+                    "Export Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        StringBuilder files = new StringBuilder();
+        for (java.util.Map.Entry<String, java.io.File> entry : writer.getFiles().entrySet()) {
+            files.append(entry.getKey()).append(": ").append(entry.getValue().getAbsolutePath()).append("\n");
+        }
+        previewArea.setText("Report pack for " + dateRange + "\n\n" + files);
+        previewArea.setCaretPosition(0);
+
+        if (writer.isSaved()) {
+            JOptionPane.showMessageDialog(contentPanel,
+                    "✅ " + writer.getFiles().size() + " reports generated and saved to database!\n\n" + files,
+                    "Report Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(contentPanel,
+                    "⚠ Reports exported but not saved to database log.",
+                    "Warning",
+                    JOptionPane.WARNING_MESSAGE);
         }
     }
 
@@ -0,0 +1,69 @@
+// A committed change published by MedicalSupplyDAO on the InventoryEventBus.
+// Carries copies, so subscribers can keep them without affecting the DAO's caches.
+public class InventoryEvent {
+    public enum Type {
+        SUPPLY_CREATED,
+        SUPPLY_UPDATED,
+        SUPPLY_DELETED,
+        TRANSACTION_RECORDED
+    }
+
+    private final Type type;
+    private final int supplyId;
+    private final MedicalSupply supply;     // Full row; null for deletes and quantity-only updates
+    private final int quantity;             // New quantity (supply events other than delete)
+    private final Transaction transaction;  // TRANSACTION_RECORDED only
+
+    private InventoryEvent(Type type, int supplyId, MedicalSupply supply, int quantity, Transaction transaction) {
+        this.type = type;
+        this.supplyId = supplyId;
+        this.supply = supply;
+        this.quantity = quantity;
+        this.transaction = transaction;
+    }
+
+    public static InventoryEvent supplyCreated(MedicalSupply supply) {
+        return new InventoryEvent(Type.SUPPLY_CREATED, supply.getId(), new MedicalSupply(supply),
+                                  supply.getQuantity(), null);
+    }
+
+    public static InventoryEvent supplyUpdated(MedicalSupply supply) {
+        return new InventoryEvent(Type.SUPPLY_UPDATED, supply.getId(), new MedicalSupply(supply),
+                                  supply.getQuantity(), null);
+    }
+
+    // Stock movements only know the id and the new quantity
+    public static InventoryEvent quantityChanged(int supplyId, int quantity) {
+        return new InventoryEvent(Type.SUPPLY_UPDATED, supplyId, null, quantity, null);
+    }
+
+    public static InventoryEvent supplyDeleted(int supplyId) {
+        return new InventoryEvent(Type.SUPPLY_DELETED, supplyId, null, 0, null);
+    }
+
+    public static InventoryEvent transactionRecorded(Transaction transaction) {
+        return new InventoryEvent(Type.TRANSACTION_RECORDED, transaction.getSupplyId(), null,
+                                  transaction.getNewQuantity(), transaction);
+    }
+
+    public Type getType() { return type; }
+    public int getSupplyId() { return supplyId; }
+    public MedicalSupply getSupply() { return supply; }
+    public int getQuantity() { return quantity; }
+    public Transaction getTransaction() { return transaction; }
+
+    // The row as it is after this update, given the subscriber's current copy of it
+    public MedicalSupply applyTo(MedicalSupply current) {
+        if (supply != null) {
+            return new MedicalSupply(supply);
+        }
+        MedicalSupply updated = new MedicalSupply(current);
+        updated.setQuantity(quantity);
+        return updated;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[supply=" + supplyId + (transaction != null ? ", " + transaction : "") + "]";
+    }
+}
@@ -0,0 +1,70 @@
+import javax.swing.*;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process bus for committed inventory changes. MedicalSupplyDAO publishes after
+ * each write commits; screens subscribe and patch just the affected rows instead of
+ * reloading. Events are delivered on the EDT, in publish order.
+ *
+ * Subscribers are held weakly, because screens are rebuilt after logout and have no
+ * close hook. A screen must keep its listener in a field for as long as it wants events.
+ */
+public class InventoryEventBus {
+    private static final InventoryEventBus INSTANCE = new InventoryEventBus();
+
+    public interface Listener {
+        void inventoryChanged(InventoryEvent event);
+    }
+
+    private final List<WeakReference<Listener>> listeners = new CopyOnWriteArrayList<>();
+
+    public static InventoryEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(new WeakReference<>(listener));
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.removeIf(ref -> ref.get() == null || ref.get() == listener);
+    }
+
+    // Safe from any thread
+    public void publish(InventoryEvent event) {
+        publish(List.of(event));
+    }
+
+    // A batch goes to the EDT as one task, so a bulk write doesn't flood the queue
+    public void publish(List<InventoryEvent> events) {
+        if (events.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        final List<InventoryEvent> batch = new ArrayList<>(events);
+        SwingUtilities.invokeLater(() -> deliver(batch));
+    }
+
+    private void deliver(List<InventoryEvent> batch) {
+        List<Listener> live = new ArrayList<>();
+        for (WeakReference<Listener> ref : listeners) {
+            Listener listener = ref.get();
+            if (listener == null) {
+                listeners.remove(ref);
+            } else {
+                live.add(listener);
+            }
+        }
+        for (InventoryEvent event : batch) {
+            for (Listener listener : live) {
+                try {
+                    listener.inventoryChanged(event);
+                } catch (Exception e) {
+                    System.err.println("❌ Inventory event listener failed on " + event + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,437 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Virtualized inventory table model. Only the row count is known up front; rows are
+ * fetched a page at a time, in the background, when the table first asks for them.
+ * Pages next to the visible one are read ahead, and pages far from it are evicted.
+ * Sorting and filtering happen in SQL (see MedicalSupplyDAO.getSuppliesPage).
+ *
+ * Once the search index is built, a filter is answered from memory instead: the
+ * ranked matches are held as one list and header sorts reorder that list.
+ *
+ * Committed changes arrive from the InventoryEventBus: an edit patches the one row in
+ * place; an add or delete shifts rows, so the count and visible window are re-read.
+ */
+public class InventoryTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 100;
+    private static final int READ_AHEAD_PAGES = 1;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private static final String[] COLUMNS = {"ID", "Item Name", "Category", "Quantity", "Min Stock",
+                                             "Status", "Expiry Date", "Days Left", "Location", "Supplier"};
+    // Sort pushed to SQL for each column (ID is hidden and not sortable)
+    private static final MedicalSupplyDAO.SupplySort[] COLUMN_SORTS = {
+        null,
+        MedicalSupplyDAO.SupplySort.NAME,
+        MedicalSupplyDAO.SupplySort.CATEGORY,
+        MedicalSupplyDAO.SupplySort.QUANTITY,
+        MedicalSupplyDAO.SupplySort.MIN_STOCK,
+        MedicalSupplyDAO.SupplySort.STATUS,
+        MedicalSupplyDAO.SupplySort.EXPIRY,
+        MedicalSupplyDAO.SupplySort.EXPIRY,
+        MedicalSupplyDAO.SupplySort.LOCATION,
+        MedicalSupplyDAO.SupplySort.SUPPLIER
+    };
+
+    private final MedicalSupplyDAO medicalSupplyDAO;
+
+    // Query state
+    private String filter = null;
+    private int sortColumn = 1; // -1 = search relevance
+    private boolean ascending = true;
+
+    // Ranked matches from the search index (null when paging from SQL)
+    private List<MedicalSupply> searchResults = null;
+
+    // Window state (EDT only)
+    private int rowCount = 0;
+    private final Map<Integer, List<MedicalSupply>> pages = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private int lastRequestedPage = 0;
+    private int generation = 0; // Bumped on reload so late pages from an old query are dropped
+
+    // Held here because the bus only keeps a weak reference
+    private final InventoryEventBus.Listener inventoryListener = this::inventoryChanged;
+
+    public InventoryTableModel(MedicalSupplyDAO medicalSupplyDAO) {
+        this.medicalSupplyDAO = medicalSupplyDAO;
+        InventoryEventBus.getInstance().subscribe(inventoryListener);
+    }
+
+    // ===================== QUERY CONTROL =====================
+    // Re-runs the count and drops every cached page
+    public void reload() {
+        final int loadGeneration = ++generation;
+        pages.clear();
+        pendingPages.clear();
+        searchResults = null;
+
+        if (filter != null && SupplySearchIndex.getInstance().isReady()) {
+            loadSearchResults(loadGeneration);
+            return;
+        }
+        if (sortColumn < 0) {
+            sortColumn = 1;
+            ascending = true;
+        }
+
+        final String countFilter = filter;
+        SwingWorker<Integer, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return medicalSupplyDAO.countSupplies(countFilter);
+            }
+
+            @Override
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                try {
+                    rowCount = get();
+                    System.out.println("📊 Inventory window: " + rowCount + " item(s)" +
+                                     (countFilter != null ? " matching \"" + countFilter + "\"" : ""));
+                } catch (Exception e) {
+                    rowCount = 0;
+                    System.err.println("❌ Error counting inventory: " + e.getMessage());
+                }
+                fireTableDataChanged();
+            }
+        };
+        worker.execute();
+    }
+
+    private void loadSearchResults(final int loadGeneration) {
+        final String searchFilter = filter;
+        SwingWorker<List<MedicalSupply>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<MedicalSupply> doInBackground() {
+                return medicalSupplyDAO.searchSupplies(searchFilter);
+            }
+
+            @Override
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                try {
+                    searchResults = get();
+                    if (sortColumn >= 0) {
+                        sortSearchResults();
+                    }
+                } catch (Exception e) {
+                    searchResults = new ArrayList<>();
+                    System.err.println("❌ Error searching inventory: " + e.getMessage());
+                }
+                rowCount = searchResults.size();
+                System.out.println("Search found " + rowCount + " items for: " + searchFilter);
+                fireTableDataChanged();
+            }
+        };
+        worker.execute();
+    }
+
+    // Shows ranked matches already fetched from the index (see SearchPipeline),
+    // replacing the rows in place without another query
+    public void showSearchResults(String filter, List<MedicalSupply> results) {
+        generation++;
+        pages.clear();
+        pendingPages.clear();
+        this.filter = filter;
+        this.searchResults = new ArrayList<>(results);
+        sortColumn = -1;
+        ascending = true;
+        rowCount = searchResults.size();
+        System.out.println("Search found " + rowCount + " items for: " + filter);
+        fireTableDataChanged();
+    }
+
+    // Null or empty shows every supply; a new search starts out ranked by relevance
+    public void setFilter(String filter) {
+        this.filter = (filter == null || filter.trim().isEmpty()) ? null : filter.trim();
+        if (this.filter != null && SupplySearchIndex.getInstance().isReady()) {
+            sortColumn = -1;
+        }
+        reload();
+    }
+
+    // Clicking the same column again flips the direction
+    public void toggleSort(int column) {
+        if (column < 0 || column >= COLUMN_SORTS.length || COLUMN_SORTS[column] == null) {
+            return;
+        }
+        if (column == sortColumn) {
+            ascending = !ascending;
+        } else {
+            sortColumn = column;
+            ascending = true;
+        }
+
+        if (searchResults != null) {
+            sortSearchResults();
+            fireTableDataChanged();
+        } else {
+            reload();
+        }
+    }
+
+    // Same ordering as the SQL sort: the column's sort key, then id
+    private void sortSearchResults() {
+        final MedicalSupplyDAO.SupplySort sort = COLUMN_SORTS[sortColumn];
+        Comparator<MedicalSupply> comparator = (a, b) -> {
+            Object keyA = sort.keyOf(a);
+            Object keyB = sort.keyOf(b);
+            int result;
+            if (keyA instanceof String) {
+                result = String.CASE_INSENSITIVE_ORDER.compare((String) keyA, (String) keyB);
+            } else {
+                @SuppressWarnings("unchecked")
+                Comparable<Object> comparable = (Comparable<Object>) keyA;
+                result = comparable.compareTo(keyB);
+            }
+            return result != 0 ? result : Integer.compare(a.getId(), b.getId());
+        };
+        searchResults.sort(ascending ? comparator : comparator.reversed());
+    }
+
+    // The supply shown at a model row, or null if that row hasn't been fetched yet
+    public MedicalSupply getSupplyAt(int row) {
+        if (searchResults != null) {
+            return row < searchResults.size() ? searchResults.get(row) : null;
+        }
+        List<MedicalSupply> page = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return (page != null && index < page.size()) ? page.get(index) : null;
+    }
+
+    // ===================== LIVE UPDATES =====================
+    private void inventoryChanged(InventoryEvent event) {
+        switch (event.getType()) {
+            case SUPPLY_UPDATED:
+                patchSupply(event);
+                break;
+            case SUPPLY_DELETED:
+                if (searchResults != null) {
+                    int row = indexOf(searchResults, event.getSupplyId());
+                    if (row >= 0) {
+                        searchResults.remove(row);
+                        rowCount = searchResults.size();
+                        fireTableRowsDeleted(row, row);
+                    }
+                } else {
+                    reload();
+                }
+                break;
+            case SUPPLY_CREATED:
+                reload();
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Replaces the row wherever it's loaded; rows not fetched yet will be read fresh
+    private void patchSupply(InventoryEvent event) {
+        if (searchResults != null) {
+            int row = indexOf(searchResults, event.getSupplyId());
+            if (row >= 0) {
+                searchResults.set(row, event.applyTo(searchResults.get(row)));
+                fireTableRowsUpdated(row, row);
+            }
+            return;
+        }
+        int row = findLoadedRow(event.getSupplyId());
+        if (row >= 0) {
+            List<MedicalSupply> page = pages.get(row / PAGE_SIZE);
+            int index = row % PAGE_SIZE;
+            page.set(index, event.applyTo(page.get(index)));
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    private int findLoadedRow(int supplyId) {
+        for (Map.Entry<Integer, List<MedicalSupply>> entry : pages.entrySet()) {
+            int index = indexOf(entry.getValue(), supplyId);
+            if (index >= 0) {
+                return entry.getKey() * PAGE_SIZE + index;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(List<MedicalSupply> supplies, int supplyId) {
+        for (int i = 0; i < supplies.size(); i++) {
+            if (supplies.get(i).getId() == supplyId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ===================== TABLE MODEL =====================
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column == sortColumn) {
+            return COLUMNS[column] + (ascending ? " ▲" : " ▼");
+        }
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table non-editable
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        lastRequestedPage = pageIndex;
+
+        MedicalSupply supply = getSupplyAt(row);
+        if (supply == null) {
+            if (searchResults != null) {
+                return null;
+            }
+            requestPages(pageIndex);
+            return column == 1 ? "Loading..." : null;
+        }
+
+        // Formatted per cell as it's painted, so nothing is pre-built for off-screen rows
+        switch (column) {
+            case 0: return supply.getId();
+            case 1: return supply.getName();
+            case 2: return supply.getCategory();
+            case 3: return supply.getQuantity();
+            case 4: return supply.getMinStockLevel();
+            case 5: return getStockStatus(supply);
+            case 6: return supply.getExpiryDate() != null ? supply.getExpiryDate().toString() : "No Expiry";
+            case 7: return formatDaysLeft(supply);
+            case 8: return supply.getLocation();
+            case 9: return supply.getSupplier() != null ? supply.getSupplier() : "N/A";
+            default: return null;
+        }
+    }
+
+    // ===================== PAGE LOADING =====================
+    // Loads the missing pages from pageIndex through the read-ahead window in one query
+    private void requestPages(int pageIndex) {
+        int firstPage = Math.max(0, pageIndex - READ_AHEAD_PAGES);
+        int lastPage = Math.min((rowCount - 1) / PAGE_SIZE, pageIndex + READ_AHEAD_PAGES);
+
+        while (firstPage <= lastPage && (pages.containsKey(firstPage) || pendingPages.contains(firstPage))) {
+            firstPage++;
+        }
+        int runEnd = firstPage;
+        while (runEnd + 1 <= lastPage && !pages.containsKey(runEnd + 1) && !pendingPages.contains(runEnd + 1)) {
+            runEnd++;
+        }
+        if (firstPage > lastPage) {
+            return;
+        }
+
+        final int startPage = firstPage;
+        final int pageCount = runEnd - firstPage + 1;
+        for (int p = startPage; p < startPage + pageCount; p++) {
+            pendingPages.add(p);
+        }
+
+        // Seek from the previous page's last row when we have it; otherwise read by offset
+        List<MedicalSupply> previous = pages.get(startPage - 1);
+        final MedicalSupply after = (previous != null && previous.size() == PAGE_SIZE)
+                ? previous.get(PAGE_SIZE - 1) : null;
+
+        final int loadGeneration = generation;
+        final String pageFilter = filter;
+        final MedicalSupplyDAO.SupplySort sort = COLUMN_SORTS[sortColumn];
+        final boolean pageAscending = ascending;
+
+        SwingWorker<List<MedicalSupply>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<MedicalSupply> doInBackground() throws Exception {
+                return medicalSupplyDAO.getSuppliesPage(pageFilter, sort, pageAscending, after,
+                                                        startPage * PAGE_SIZE, pageCount * PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                for (int p = startPage; p < startPage + pageCount; p++) {
+                    pendingPages.remove(p);
+                }
+                try {
+                    List<MedicalSupply> rows = get();
+                    // Short pages (rows deleted since the count) are cached too, so they aren't re-requested
+                    for (int i = 0; i < pageCount; i++) {
+                        int from = Math.min(rows.size(), i * PAGE_SIZE);
+                        int to = Math.min(rows.size(), from + PAGE_SIZE);
+                        pages.put(startPage + i, new ArrayList<>(rows.subList(from, to)));
+                    }
+                    evictDistantPages();
+
+                    int firstRow = startPage * PAGE_SIZE;
+                    int lastRow = Math.min(rowCount, (startPage + pageCount) * PAGE_SIZE) - 1;
+                    if (lastRow >= firstRow) {
+                        fireTableRowsUpdated(firstRow, lastRow);
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ Error loading inventory rows: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    // Keeps the cache bounded by dropping the pages furthest from what's on screen
+    private void evictDistantPages() {
+        while (pages.size() > MAX_CACHED_PAGES) {
+            int furthest = -1;
+            for (int p : pages.keySet()) {
+                if (furthest < 0 || Math.abs(p - lastRequestedPage) > Math.abs(furthest - lastRequestedPage)) {
+                    furthest = p;
+                }
+            }
+            pages.remove(furthest);
+        }
+    }
+
+    // ===================== FORMATTING =====================
+    private String getStockStatus(MedicalSupply supply) {
+        if (supply.getQuantity() == 0) {
+            return "OUT OF STOCK";
+        } else if (supply.getQuantity() <= supply.getMinStockLevel()) {
+            return "LOW STOCK";
+        } else {
+            return "IN STOCK";
+        }
+    }
+
+    private String formatDaysLeft(MedicalSupply supply) {
+        if (supply.getExpiryDate() == null) {
+            return "No Expiry";
+        }
+        long daysLeft = ChronoUnit.DAYS.between(LocalDate.now(), supply.getExpiryDate());
+        return daysLeft >= 0 ? daysLeft + " days" : "Expired " + (-daysLeft) + " days ago";
+    }
+}
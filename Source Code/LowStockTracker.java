@@ -0,0 +1,283 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Set of supplies at or below their minimum stock level, maintained incrementally.
+ * The DAO's write methods keep it in step on every quantity and min-stock change, so
+ * membership and the count are O(1) and the low-stock list is built from memory.
+ *
+ * Listeners hear about supplies crossing the threshold in either direction. They are
+ * called on the thread that made the change (usually a worker), after the tracker
+ * has been updated, so Swing listeners should hop to the EDT.
+ */
+public class LowStockTracker {
+    private static final LowStockTracker INSTANCE = new LowStockTracker();
+
+    public interface Listener {
+        // nowLow: true = dropped to/below min stock, false = back above it (or deleted)
+        void lowStockChanged(MedicalSupply supply, boolean nowLow);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Every supply, plus the ids currently low on stock
+    private Map<Integer, MedicalSupply> supplies = new HashMap<>();
+    private Set<Integer> lowIds = new HashSet<>();
+
+    // Build state, same rules as ExpiryTimeline: writes during a load win (null = deleted)
+    private boolean ready = false;
+    private boolean building = false;
+    private final Map<Integer, MedicalSupply> changedDuringBuild = new HashMap<>();
+    private final Map<Integer, Integer> quantitiesDuringBuild = new HashMap<>();
+
+    // A threshold crossing to report once the lock is released
+    private static class Crossing {
+        final MedicalSupply supply;
+        final boolean nowLow;
+
+        Crossing(MedicalSupply supply, boolean nowLow) {
+            this.supply = supply;
+            this.nowLow = nowLow;
+        }
+    }
+
+    public static LowStockTracker getInstance() {
+        return INSTANCE;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ===================== BUILD =====================
+    public boolean beginBuild() {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                return false;
+            }
+            building = true;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // On a rebuild, supplies whose state differs from before are reported as crossings
+    public void finishBuild(List<MedicalSupply> loaded) {
+        List<Crossing> crossings = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            Map<Integer, MedicalSupply> previous = supplies;
+            Set<Integer> previousLow = lowIds;
+            supplies = new HashMap<>();
+            lowIds = new HashSet<>();
+            for (MedicalSupply supply : loaded) {
+                if (changedDuringBuild.containsKey(supply.getId())) {
+                    continue;
+                }
+                MedicalSupply copy = new MedicalSupply(supply);
+                Integer quantity = quantitiesDuringBuild.get(supply.getId());
+                if (quantity != null) {
+                    copy.setQuantity(quantity);
+                }
+                add(copy);
+            }
+            for (MedicalSupply changed : changedDuringBuild.values()) {
+                if (changed != null) {
+                    add(changed);
+                }
+            }
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            building = false;
+
+            if (ready) {
+                for (int id : lowIds) {
+                    if (!previousLow.contains(id)) {
+                        crossings.add(new Crossing(new MedicalSupply(supplies.get(id)), true));
+                    }
+                }
+                for (int id : previousLow) {
+                    if (!lowIds.contains(id)) {
+                        MedicalSupply now = supplies.containsKey(id) ? supplies.get(id) : previous.get(id);
+                        crossings.add(new Crossing(new MedicalSupply(now), false));
+                    }
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fire(crossings);
+    }
+
+    public void abortBuild() {
+        lock.writeLock().lock();
+        try {
+            building = false;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===================== INCREMENTAL UPDATES =====================
+    // Covers edits to min_stock_level as well as quantity
+    public void put(MedicalSupply supply) {
+        Crossing crossing;
+        lock.writeLock().lock();
+        try {
+            MedicalSupply copy = new MedicalSupply(supply);
+            boolean wasLow = lowIds.contains(copy.getId());
+            add(copy);
+            if (building) {
+                changedDuringBuild.put(copy.getId(), copy);
+            }
+            crossing = crossing(copy, wasLow);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fire(crossing);
+    }
+
+    public void remove(int id) {
+        Crossing crossing = null;
+        lock.writeLock().lock();
+        try {
+            MedicalSupply old = supplies.remove(id);
+            if (lowIds.remove(id) && old != null) {
+                crossing = new Crossing(new MedicalSupply(old), false);
+            }
+            if (building) {
+                changedDuringBuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fire(crossing);
+    }
+
+    public void updateQuantity(int id, int quantity) {
+        Crossing crossing = null;
+        lock.writeLock().lock();
+        try {
+            MedicalSupply supply = supplies.get(id);
+            if (supply != null) {
+                boolean wasLow = lowIds.contains(id);
+                supply.setQuantity(quantity);
+                classify(supply);
+                crossing = crossing(supply, wasLow);
+            }
+            if (building) {
+                MedicalSupply changed = changedDuringBuild.get(id);
+                if (changed != null) {
+                    changed.setQuantity(quantity);
+                } else if (!changedDuringBuild.containsKey(id)) {
+                    quantitiesDuringBuild.put(id, quantity);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fire(crossing);
+    }
+
+    private void add(MedicalSupply supply) {
+        supplies.put(supply.getId(), supply);
+        classify(supply);
+    }
+
+    // Same rule as the SQL: quantity <= min_stock_level
+    private void classify(MedicalSupply supply) {
+        if (supply.getQuantity() <= supply.getMinStockLevel()) {
+            lowIds.add(supply.getId());
+        } else {
+            lowIds.remove(supply.getId());
+        }
+    }
+
+    private Crossing crossing(MedicalSupply supply, boolean wasLow) {
+        boolean nowLow = lowIds.contains(supply.getId());
+        return nowLow != wasLow ? new Crossing(new MedicalSupply(supply), nowLow) : null;
+    }
+
+    // ===================== QUERIES =====================
+    public boolean isLowStock(int id) {
+        lock.readLock().lock();
+        try {
+            return lowIds.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return lowIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lowest quantity first, like the SQL it replaces (copies)
+    public List<MedicalSupply> getItems() {
+        List<MedicalSupply> items = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int id : lowIds) {
+                items.add(new MedicalSupply(supplies.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        items.sort(Comparator.comparingInt(MedicalSupply::getQuantity)
+                             .thenComparing(MedicalSupply::getName, String.CASE_INSENSITIVE_ORDER));
+        return items;
+    }
+
+    // ===================== EVENTS =====================
+    private void fire(Crossing crossing) {
+        if (crossing == null) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.lowStockChanged(crossing.supply, crossing.nowLow);
+            } catch (Exception e) {
+                System.err.println("❌ Low-stock listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fire(List<Crossing> crossings) {
+        for (Crossing crossing : crossings) {
+            fire(crossing);
+        }
+    }
+}
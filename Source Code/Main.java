@@ -13,6 +13,9 @@ public class Main {
         // Show splash screen or database check
         System.out.println("Starting Barangay Medical Inventory Management System...");
 
+        // Create/upgrade tables and indexes before any screen queries them
+        SchemaMigrator.migrate();
+
         SwingUtilities.invokeLater(() -> {
             try {
                 new LoginFrame().setVisible(true);
@@ -1,6 +1,11 @@
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Vector;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 
 public class ManageSuppliesFrame {
@@ -8,12 +13,21 @@ public class ManageSuppliesFrame {
     private JTable suppliesTable;
     private DefaultTableModel tableModel;
     private MedicalSupplyDAO medicalSupplyDAO;
-    private List<MedicalSupply> currentSupplies;
+    private List<MedicalSupply> currentSupplies = new ArrayList<>();
     private JTextField searchField;
+    private JLabel statusLabel;
+    
+    // Search-as-you-type: queries run off the EDT once typing pauses
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    private SearchPipeline<List<MedicalSupply>> searchPipeline;
+    
+    // Committed changes from any screen patch rows here; held in a field since the bus holds it weakly
+    private final InventoryEventBus.Listener inventoryListener = this::inventoryChanged;
     
     public ManageSuppliesFrame() {
         medicalSupplyDAO = new MedicalSupplyDAO();
         initializeUI();
+        InventoryEventBus.getInstance().subscribe(inventoryListener);
     }
     
     private void initializeUI() {
@@ -21,6 +35,10 @@ public class ManageSuppliesFrame {
         contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         contentPanel.setBackground(Color.WHITE);
         
+        searchPipeline = new SearchPipeline<>(SEARCH_DEBOUNCE_MS,
+            term -> term.isEmpty() ? medicalSupplyDAO.getAllSupplies() : medicalSupplyDAO.searchSupplies(term),
+            this::showSupplies);
+        
         JLabel headerLabel = new JLabel("Manage Supplies");
         headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
         headerLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
@@ -78,10 +96,7 @@ public class ManageSuppliesFrame {
         
         addButton.addActionListener(e -> {
             AddSupplyDialog dialog = new AddSupplyDialog();
-            dialog.setVisible(true);
-            if (dialog.isSuccess()) {
-                loadSuppliesData(); // Refresh table after adding
-            }
+            dialog.setVisible(true); // The new row arrives as a SUPPLY_CREATED event
         });
         
         refreshButton.addActionListener(e -> {
@@ -92,66 +107,154 @@ public class ManageSuppliesFrame {
             performSearch();
         });
         
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchPipeline.submit(searchField.getText().trim()); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchPipeline.submit(searchField.getText().trim()); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        
         JButton searchButton = new JButton("Search");
         searchButton.addActionListener(e -> performSearch());
         searchPanel.add(searchButton);
+        
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(new Color(108, 117, 125));
+        searchPanel.add(statusLabel);
     }
     
+    // Reloads the current view (all supplies, or the active search)
     private void loadSuppliesData() {
-        tableModel.setRowCount(0);
-        currentSupplies = medicalSupplyDAO.getAllSupplies();
+        searchPipeline.submitNow(searchField.getText().trim());
+    }
+    
+    private void performSearch() {
+        searchPipeline.submitNow(searchField.getText().trim());
+    }
+    
+    // Latest search result, delivered on the EDT by the pipeline
+    private void showSupplies(String searchTerm, List<MedicalSupply> supplies) {
+        if (suppliesTable.isEditing()) {
+            suppliesTable.getCellEditor().cancelCellEditing();
+        }
+        currentSupplies = new ArrayList<>(supplies);
+        patchRows(currentSupplies);
         
-        for (MedicalSupply supply : currentSupplies) {
-            Object[] row = {
-                supply.getId(),
-                supply.getName(),
-                supply.getCategory(),
-                supply.getQuantity(),
-                supply.getExpiryDate().toString(),
-                supply.getLocation(),
-                supply.getSupplier() != null ? supply.getSupplier() : "N/A",
-                supply.getMinStockLevel(),
-                "Edit/Delete"
-            };
-            tableModel.addRow(row);
+        statusLabel.setText(searchTerm.isEmpty()
+            ? "Loaded " + supplies.size() + " supplies"
+            : "Found " + supplies.size() + " supplies matching '" + searchTerm + "'");
+    }
+    
+    // Overwrites the rows in place: one event for the overlap, one for the difference
+    private void patchRows(List<MedicalSupply> supplies) {
+        @SuppressWarnings("unchecked")
+        Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) tableModel.getDataVector();
+        int oldCount = data.size();
+        int newCount = supplies.size();
+        
+        for (int i = 0; i < newCount; i++) {
+            Vector<Object> row = new Vector<>(Arrays.asList(toRow(supplies.get(i))));
+            if (i < oldCount) {
+                data.set(i, row);
+            } else {
+                data.add(row);
+            }
+        }
+        if (oldCount > newCount) {
+            data.setSize(newCount);
         }
         
-        JOptionPane.showMessageDialog(contentPanel, 
-            "Loaded " + currentSupplies.size() + " supplies from database.", 
-            "Data Loaded", 
-            JOptionPane.INFORMATION_MESSAGE);
+        int common = Math.min(oldCount, newCount);
+        if (common > 0) {
+            tableModel.fireTableRowsUpdated(0, common - 1);
+        }
+        if (newCount > oldCount) {
+            tableModel.fireTableRowsInserted(oldCount, newCount - 1);
+        } else if (oldCount > newCount) {
+            tableModel.fireTableRowsDeleted(newCount, oldCount - 1);
+        }
     }
     
-    private void performSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (!searchTerm.isEmpty()) {
-            tableModel.setRowCount(0);
-            currentSupplies = medicalSupplyDAO.searchSupplies(searchTerm);
-            
-            for (MedicalSupply supply : currentSupplies) {
-                Object[] row = {
-                    supply.getId(),
-                    supply.getName(),
-                    supply.getCategory(),
-                    supply.getQuantity(),
-                    supply.getExpiryDate().toString(),
-                    supply.getLocation(),
-                    supply.getSupplier() != null ? supply.getSupplier() : "N/A",
-                    supply.getMinStockLevel(),
-                    "Edit/Delete"
-                };
-                tableModel.addRow(row);
+    // ===================== LIVE UPDATES =====================
+    private void inventoryChanged(InventoryEvent event) {
+        switch (event.getType()) {
+            case SUPPLY_UPDATED: {
+                int row = rowOf(event.getSupplyId());
+                if (row >= 0) {
+                    stopEditing();
+                    MedicalSupply updated = event.applyTo(currentSupplies.get(row));
+                    currentSupplies.set(row, updated);
+                    @SuppressWarnings("unchecked")
+                    Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) tableModel.getDataVector();
+                    data.set(row, new Vector<>(Arrays.asList(toRow(updated))));
+                    tableModel.fireTableRowsUpdated(row, row);
+                }
+                break;
             }
-            
-            JOptionPane.showMessageDialog(contentPanel, 
-                "Found " + currentSupplies.size() + " supplies matching '" + searchTerm + "'", 
-                "Search Results", 
-                JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            loadSuppliesData();
+            case SUPPLY_DELETED: {
+                int row = rowOf(event.getSupplyId());
+                if (row >= 0) {
+                    stopEditing();
+                    currentSupplies.remove(row);
+                    tableModel.removeRow(row);
+                }
+                break;
+            }
+            case SUPPLY_CREATED: {
+                String term = searchField.getText().trim();
+                if (!term.isEmpty()) {
+                    performSearch(); // Only the search knows whether it matches
+                    break;
+                }
+                // Same place the name-ordered reload would put it
+                MedicalSupply created = event.getSupply();
+                int row = 0;
+                while (row < currentSupplies.size() &&
+                       String.CASE_INSENSITIVE_ORDER.compare(currentSupplies.get(row).getName(), created.getName()) <= 0) {
+                    row++;
+                }
+                stopEditing();
+                currentSupplies.add(row, created);
+                tableModel.insertRow(row, toRow(created));
+                statusLabel.setText("Added '" + created.getName() + "' - " + currentSupplies.size() + " supplies");
+                break;
+            }
+            default:
+                break;
+        }
+    }
+    
+    private int rowOf(int supplyId) {
+        for (int i = 0; i < currentSupplies.size(); i++) {
+            if (currentSupplies.get(i).getId() == supplyId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void stopEditing() {
+        if (suppliesTable.isEditing()) {
+            suppliesTable.getCellEditor().cancelCellEditing();
         }
     }
     
+    private Object[] toRow(MedicalSupply supply) {
+        return new Object[]{
+            supply.getId(),
+            supply.getName(),
+            supply.getCategory(),
+            supply.getQuantity(),
+            supply.getExpiryDate() != null ? supply.getExpiryDate().toString() : "No Expiry",
+            supply.getLocation(),
+            supply.getSupplier() != null ? supply.getSupplier() : "N/A",
+            supply.getMinStockLevel(),
+            "Edit/Delete"
+        };
+    }
+    
     public JPanel getContentPanel() {
         return contentPanel;
     }
@@ -213,12 +316,12 @@ public class ManageSuppliesFrame {
             editButton.addActionListener(e -> {
                 fireEditingStopped();
                 if (currentRow >= 0 && currentRow < currentSupplies.size()) {
-                    MedicalSupply supply = currentSupplies.get(currentRow);
-                    EditSupplyDialog dialog = new EditSupplyDialog(supply);
-                    dialog.setVisible(true);
-                    if (dialog.isSuccess()) {
-                        loadSuppliesData(); // Refresh table after editing
+                    MedicalSupply supply = reloadSupply(currentSupplies.get(currentRow));
+                    if (supply == null) {
+                        return;
                     }
+                    EditSupplyDialog dialog = new EditSupplyDialog(supply);
+                    dialog.setVisible(true); // The row is patched by the SUPPLY_UPDATED event
                 }
             });
             
@@ -226,7 +329,10 @@ public class ManageSuppliesFrame {
 deleteButton.addActionListener(e -> {
     fireEditingStopped();
     if (currentRow >= 0 && currentRow < currentSupplies.size()) {
-        MedicalSupply supply = currentSupplies.get(currentRow);
+        MedicalSupply supply = reloadSupply(currentSupplies.get(currentRow));
+        if (supply == null) {
+            return;
+        }
         int confirm = JOptionPane.showConfirmDialog(panel,
             "Are you sure you want to delete '" + supply.getName() + "'?\n" +
             "Quantity: " + supply.getQuantity() + " units\n" +
@@ -236,12 +342,9 @@ deleteButton.addActionListener(e -> {
         if (confirm == JOptionPane.YES_OPTION) {
             boolean success = medicalSupplyDAO.deleteSupply(supply.getId());
             if (success) {
-                JOptionPane.showMessageDialog(panel,
-                    "✅ Supply '" + supply.getName() + "' deleted successfully!\n" +
-                    "Transaction recorded for " + supply.getQuantity() + " units.",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                loadSuppliesData(); // Refresh table after deletion
+                // The row itself is removed by the SUPPLY_DELETED event
+                statusLabel.setText("✅ Deleted '" + supply.getName() + "' (" +
+                                    supply.getQuantity() + " units recorded as OUT)");
             } else {
                 JOptionPane.showMessageDialog(panel,
                     "❌ Failed to delete supply '" + supply.getName() + "'!",
@@ -256,6 +359,20 @@ deleteButton.addActionListener(e -> {
             panel.add(deleteButton);
         }
         
+        // The table row re-read from the database (not the supply cache, which misses other
+        // stations' writes), so the dialogs don't start from a row that predates an edit
+        // or stock movement. Null if the supply is gone.
+        private MedicalSupply reloadSupply(MedicalSupply row) {
+            MedicalSupply current = medicalSupplyDAO.getSupplyById(row.getId(), true);
+            if (current == null) {
+                JOptionPane.showMessageDialog(panel,
+                    "'" + row.getName() + "' no longer exists.",
+                    "Item Not Found",
+                    JOptionPane.WARNING_MESSAGE);
+            }
+            return current;
+        }
+        
         @Override
         public Component getTableCellEditorComponent(JTable table, Object value,
                 boolean isSelected, int row, int column) {
@@ -30,6 +30,12 @@ public class MedicalSupply {
         this.minStockLevel = minStockLevel;
     }
     
+    // Copy constructor
+    public MedicalSupply(MedicalSupply other) {
+        this(other.id, other.name, other.category, other.quantity, other.expiryDate,
+             other.location, other.supplier, other.minStockLevel);
+    }
+    
     // Getters and setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -1,12 +1,93 @@
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 import javax.swing.*;
 
 public class MedicalSupplyDAO {
     
+    // Shared by every DAO instance; every write below keeps them in step with the database
+    private static final SupplyCache supplyCache = SupplyCache.getInstance();
+    private static final SupplySearchIndex searchIndex = SupplySearchIndex.getInstance();
+    private static final ExpiryTimeline expiryTimeline = ExpiryTimeline.getInstance();
+    private static final LowStockTracker lowStockTracker = LowStockTracker.getInstance();
+    private static ScheduledExecutorService nightlyResync; // Started with the first index build
+    private static final InventoryEventBus eventBus = InventoryEventBus.getInstance();
+    // Supply writes made by this process; only used by getDataVersion() until the
+    // data_version table exists
+    private static final AtomicLong supplyChanges = new AtomicLong();
+    
+    // Called after a write commits
+    private void supplySaved(MedicalSupply supply, boolean created) {
+        supplyChanges.incrementAndGet();
+        supplyCache.put(supply);
+        searchIndex.put(supply);
+        expiryTimeline.put(supply);
+        lowStockTracker.put(supply);
+        eventBus.publish(created ? InventoryEvent.supplyCreated(supply) : InventoryEvent.supplyUpdated(supply));
+    }
+    
+    private void supplyRemoved(int id) {
+        supplyChanges.incrementAndGet();
+        supplyCache.invalidate(id);
+        searchIndex.remove(id);
+        expiryTimeline.remove(id);
+        lowStockTracker.remove(id);
+        eventBus.publish(InventoryEvent.supplyDeleted(id));
+    }
+    
+    private void quantityChanged(int id, int quantity) {
+        supplyChanges.incrementAndGet();
+        supplyCache.updateQuantity(id, quantity);
+        searchIndex.updateQuantity(id, quantity);
+        expiryTimeline.updateQuantity(id, quantity);
+        lowStockTracker.updateQuantity(id, quantity);
+        eventBus.publish(InventoryEvent.quantityChanged(id, quantity));
+    }
+    
+    private void transactionsRecorded(List<Transaction> transactions) {
+        List<InventoryEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            events.add(InventoryEvent.transactionRecorded(transaction));
+        }
+        eventBus.publish(events);
+    }
+    
+    // Low-stock predicate: the indexed generated flag once SchemaMigrator has added it,
+    // otherwise the column comparison (which always scans)
+    static String lowStockCondition() {
+        return SchemaMigrator.isLowStockFlagAvailable() ? "is_low_stock = 1" : "quantity <= min_stock_level";
+    }
+    
+    // Per-supply IN/OUT totals over the last `days` days, today included, as a derived
+    // table (supply_id, in_qty, out_qty): the daily rollup once SchemaMigrator has built
+    // it, otherwise summed from the ledger (a range scan of the date index)
+    static String consumptionTable(int days) {
+        String since = "DATE_SUB(CURDATE(), INTERVAL " + (Math.max(1, days) - 1) + " DAY)";
+        if (SchemaMigrator.isDailyRollupAvailable()) {
+            return "(SELECT supply_id, SUM(in_qty) AS in_qty, SUM(out_qty) AS out_qty " +
+                   "FROM supply_daily_rollup WHERE day >= " + since + " GROUP BY supply_id)";
+        }
+        return "(SELECT supply_id, " +
+               "SUM(CASE WHEN transaction_type = 'IN' THEN quantity_changed ELSE 0 END) AS in_qty, " +
+               "SUM(CASE WHEN transaction_type = 'OUT' THEN quantity_changed ELSE 0 END) AS out_qty " +
+               "FROM transactions WHERE transaction_date >= " + since + " GROUP BY supply_id)";
+    }
+    
     // ===================== CREATE SUPPLY WITH TRANSACTION =====================
     public boolean createSupply(MedicalSupply supply) {
         String sql = "INSERT INTO supplies (name, category, quantity, expiry_date, location, supplier, min_stock_level) VALUES (?, ?, ?, ?, ?, ?, ?)";
@@ -36,11 +117,12 @@ public class MedicalSupplyDAO {
                 if (affectedRows > 0) {
                     // Get the generated ID
                     ResultSet generatedKeys = pstmt.getGeneratedKeys();
+                    Transaction transaction = null;
                     if (generatedKeys.next()) {
                         int supplyId = generatedKeys.getInt(1);
                         
                         // Record transaction for initial quantity
-                        Transaction transaction = new Transaction(
+                        transaction = new Transaction(
                             supplyId,
                             "IN",
                             supply.getQuantity(),
@@ -52,12 +134,19 @@ public class MedicalSupplyDAO {
                         
                         // Record the transaction
                         recordTransactionInConnection(conn, transaction);
+                        transaction.setSupplyName(supply.getName());
+                        supply.setId(supplyId);
                         
                         System.out.println("✅ Transaction recorded for new supply: " + supply.getName() + 
                                          " (ID: " + supplyId + ", Qty: " + supply.getQuantity() + ")");
                     }
                     
+                    bumpDataVersion(conn);
                     conn.commit();
+                    if (supply.getId() > 0) {
+                        supplySaved(supply, true);
+                        transactionsRecorded(List.of(transaction));
+                    }
                     return true;
                 }
                 
@@ -82,13 +171,7 @@ public class MedicalSupplyDAO {
     
     // ===================== UPDATE SUPPLY WITH TRANSACTION =====================
     public boolean updateSupply(MedicalSupply supply) {
-        // First get the old supply data
-        MedicalSupply oldSupply = getSupplyById(supply.getId());
-        if (oldSupply == null) {
-            System.err.println("❌ Cannot find supply with ID: " + supply.getId());
-            return false;
-        }
-        
+        String selectSql = "SELECT quantity FROM supplies WHERE id = ? FOR UPDATE";
         String sql = "UPDATE supplies SET name = ?, category = ?, quantity = ?, expiry_date = ?, " +
                     "location = ?, supplier = ?, min_stock_level = ? WHERE id = ?";
         
@@ -97,6 +180,22 @@ public class MedicalSupplyDAO {
             
             try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 
+                // Old quantity is read under lock in this transaction (not from the cache),
+                // since the ledger row depends on it
+                int oldQuantity;
+                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+                    selectStmt.setInt(1, supply.getId());
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            supplyRemoved(supply.getId());
+                            System.err.println("❌ Cannot find supply with ID: " + supply.getId());
+                            return false;
+                        }
+                        oldQuantity = rs.getInt("quantity");
+                    }
+                }
+                
                 pstmt.setString(1, supply.getName());
                 pstmt.setString(2, supply.getCategory());
                 pstmt.setInt(3, supply.getQuantity());
@@ -114,30 +213,41 @@ public class MedicalSupplyDAO {
                 pstmt.setInt(8, supply.getId());
                 
                 int affectedRows = pstmt.executeUpdate();
+                Transaction transaction = null;
                 
                 // Check if quantity changed
-                if (affectedRows > 0 && oldSupply.getQuantity() != supply.getQuantity()) {
-                    int quantityChanged = supply.getQuantity() - oldSupply.getQuantity();
+                if (affectedRows > 0 && oldQuantity != supply.getQuantity()) {
+                    int quantityChanged = supply.getQuantity() - oldQuantity;
                     String transactionType = quantityChanged > 0 ? "IN" : "OUT";
                     
                     // Record transaction
-                    Transaction transaction = new Transaction(
+                    transaction = new Transaction(
                         supply.getId(),
                         transactionType,
                         Math.abs(quantityChanged),
-                        oldSupply.getQuantity(),
+                        oldQuantity,
                         supply.getQuantity(),
                         "Supply quantity updated in Manage Supplies",
                         "admin" // TODO: Replace with actual logged-in user
                     );
                     
                     recordTransactionInConnection(conn, transaction);
+                    transaction.setSupplyName(supply.getName());
                     
                     System.out.println("✅ Transaction recorded for updated supply: " + supply.getName() + 
                                      " (Changed: " + quantityChanged + ", New Qty: " + supply.getQuantity() + ")");
                 }
                 
+                if (affectedRows > 0) {
+                    bumpDataVersion(conn); // Also covers edits that record no transaction
+                }
                 conn.commit();
+                if (affectedRows > 0) {
+                    supplySaved(supply, false);
+                    if (transaction != null) {
+                        transactionsRecorded(List.of(transaction));
+                    }
+                }
                 return affectedRows > 0;
                 
             } catch (SQLException e) {
@@ -159,35 +269,48 @@ public class MedicalSupplyDAO {
     
     // ===================== DELETE SUPPLY WITH TRANSACTION =====================
     public boolean deleteSupply(int id) {
-        // First get the supply data before deleting
-        MedicalSupply supply = getSupplyById(id);
-        if (supply == null) {
-            System.err.println("❌ Cannot find supply with ID: " + id);
-            return false;
-        }
-        
+        String selectSql = "SELECT name, quantity FROM supplies WHERE id = ? FOR UPDATE";
         String sql = "DELETE FROM supplies WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             try {
+                // Read the remaining stock under lock in this transaction
+                String name;
+                int quantity;
+                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+                    selectStmt.setInt(1, id);
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            supplyRemoved(id);
+                            System.err.println("❌ Cannot find supply with ID: " + id);
+                            return false;
+                        }
+                        name = rs.getString("name");
+                        quantity = rs.getInt("quantity");
+                    }
+                }
+                
                 // Record transaction for deletion (OUT transaction for remaining quantity)
-                if (supply.getQuantity() > 0) {
-                    Transaction transaction = new Transaction(
+                Transaction transaction = null;
+                if (quantity > 0) {
+                    transaction = new Transaction(
                         id,
                         "OUT",
-                        supply.getQuantity(),
-                        supply.getQuantity(),
+                        quantity,
+                        quantity,
                         0,
                         "Supply deleted from system",
                         "admin" // TODO: Replace with actual logged-in user
                     );
                     
                     recordTransactionInConnection(conn, transaction);
+                    transaction.setSupplyName(name);
                     
-                    System.out.println("✅ Transaction recorded for deleted supply: " + supply.getName() + 
-                                     " (Removed: " + supply.getQuantity() + " units)");
+                    System.out.println("✅ Transaction recorded for deleted supply: " + name + 
+                                     " (Removed: " + quantity + " units)");
                 }
                 
                 // Now delete the supply
@@ -195,7 +318,12 @@ public class MedicalSupplyDAO {
                     pstmt.setInt(1, id);
                     int affectedRows = pstmt.executeUpdate();
                     
+                    bumpDataVersion(conn);
                     conn.commit();
+                    supplyRemoved(id);
+                    if (transaction != null) {
+                        transactionsRecorded(List.of(transaction));
+                    }
                     return affectedRows > 0;
                 }
                 
@@ -224,7 +352,7 @@ public class MedicalSupplyDAO {
                     "previous_quantity, new_quantity, reason, performed_by) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setInt(1, transaction.getSupplyId());
             pstmt.setString(2, transaction.getTransactionType());
             pstmt.setInt(3, transaction.getQuantityChanged());
@@ -233,35 +361,198 @@ public class MedicalSupplyDAO {
             pstmt.setString(6, transaction.getReason());
             pstmt.setString(7, transaction.getPerformedBy());
             
-            return pstmt.executeUpdate() > 0;
+            boolean inserted = pstmt.executeUpdate() > 0;
+            // Id is published with the event, so screens can tell live rows from loaded ones
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    transaction.setId(keys.getInt(1));
+                }
+            }
+            if (inserted) {
+                ledgerRowsWritten(conn, List.of(transaction), false);
+            }
+            return inserted;
         }
     }
     
-    // Record a transaction (standalone method)
-    public boolean recordTransaction(Transaction transaction) {
+    // Helper method to insert many transactions within a connection as one JDBC batch
+    // (sent as a multi-row INSERT because the URL enables rewriteBatchedStatements)
+    private void recordTransactionsBatchInConnection(Connection conn, List<Transaction> transactions) throws SQLException {
         String sql = "INSERT INTO transactions (supply_id, transaction_type, quantity_changed, " +
                     "previous_quantity, new_quantity, reason, performed_by) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, transaction.getSupplyId());
-            pstmt.setString(2, transaction.getTransactionType());
-            pstmt.setInt(3, transaction.getQuantityChanged());
-            pstmt.setInt(4, transaction.getPreviousQuantity());
-            pstmt.setInt(5, transaction.getNewQuantity());
-            pstmt.setString(6, transaction.getReason());
-            pstmt.setString(7, transaction.getPerformedBy());
-            
-            boolean result = pstmt.executeUpdate() > 0;
-            System.out.println("✅ Transaction recorded: " + (result ? "SUCCESS" : "FAILED"));
-            return result;
-            
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Transaction transaction : transactions) {
+                pstmt.setInt(1, transaction.getSupplyId());
+                pstmt.setString(2, transaction.getTransactionType());
+                pstmt.setInt(3, transaction.getQuantityChanged());
+                pstmt.setInt(4, transaction.getPreviousQuantity());
+                pstmt.setInt(5, transaction.getNewQuantity());
+                pstmt.setString(6, transaction.getReason());
+                pstmt.setString(7, transaction.getPerformedBy());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        ledgerRowsWritten(conn, transactions, false);
+    }
+    
+    // Keeps the tables derived from the ledger in step with newly inserted rows, on the
+    // caller's connection so they commit or roll back together. Every writer updates the
+    // rollup and then the summary counters, and within each table upserts its rows in
+    // primary key order, the same order the nightly FOR UPDATE scans lock them in; so
+    // writers and the reconcile queue on shared rows instead of deadlocking. With
+    // ledgerDates false the rows were stamped by the transaction_date default, so their
+    // day comes from the database clock too.
+    static void ledgerRowsWritten(Connection conn, List<Transaction> transactions,
+                                  boolean ledgerDates) throws SQLException {
+        addToDailyRollup(conn, transactions, ledgerDates);
+        addToTransactionSummary(conn, transactions, ledgerDates);
+        if (!transactions.isEmpty()) {
+            bumpDataVersion(conn);
+        }
+    }
+    
+    // Moves the report data stamp (see getDataVersion). Call inside the write's own
+    // transaction, after its other rows: the single counter row is the last lock taken,
+    // and the new value is visible exactly when the write is.
+    static void bumpDataVersion(Connection conn) throws SQLException {
+        if (!SchemaMigrator.isDataVersionAvailable()) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE data_version SET version = version + 1 WHERE id = 1");
+        }
+    }
+    
+    // Per supply and day IN/OUT totals, summed here first so each pair is one upsert
+    private static void addToDailyRollup(Connection conn, List<Transaction> transactions,
+                                         boolean ledgerDates) throws SQLException {
+        if (!SchemaMigrator.isDailyRollupAvailable() || transactions.isEmpty()) {
+            return;
+        }
+        // supply -> day (null = database today) -> {in qty, out qty, in count, out count},
+        // both ascending like the primary key; today sorts after any earlier day
+        Map<Integer, Map<LocalDate, long[]>> totals = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            boolean in = "IN".equals(transaction.getTransactionType());
+            if (!in && !"OUT".equals(transaction.getTransactionType())) {
+                continue;
+            }
+            LocalDate day = ledgerDates && transaction.getTransactionDate() != null
+                    ? transaction.getTransactionDate().toLocalDate() : null;
+            long[] sums = totals.computeIfAbsent(transaction.getSupplyId(),
+                                                 id -> new TreeMap<>(Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())))
+                                .computeIfAbsent(day, d -> new long[4]);
+            sums[in ? 0 : 1] += transaction.getQuantityChanged();
+            sums[in ? 2 : 3]++;
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO supply_daily_rollup (supply_id, day, in_qty, out_qty, in_count, out_count) " +
+                    "VALUES (?, COALESCE(?, CURDATE()), ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE in_qty = in_qty + VALUES(in_qty), " +
+                    "out_qty = out_qty + VALUES(out_qty), in_count = in_count + VALUES(in_count), " +
+                    "out_count = out_count + VALUES(out_count)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Map<LocalDate, long[]>> supply : totals.entrySet()) {
+                for (Map.Entry<LocalDate, long[]> day : supply.getValue().entrySet()) {
+                    long[] sums = day.getValue();
+                    pstmt.setInt(1, supply.getKey());
+                    pstmt.setDate(2, day.getKey() != null ? Date.valueOf(day.getKey()) : null);
+                    pstmt.setLong(3, sums[0]);
+                    pstmt.setLong(4, sums[1]);
+                    pstmt.setLong(5, sums[2]);
+                    pstmt.setLong(6, sums[3]);
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    // Counts per type, day and user for the transaction summary, in (dimension, dim_key)
+    // order like the primary key. A null day key stands for the database's today, so it
+    // sorts after every earlier day.
+    private static void addToTransactionSummary(Connection conn, List<Transaction> transactions,
+                                                boolean ledgerDates) throws SQLException {
+        if (!SchemaMigrator.isTransactionSummaryAvailable() || transactions.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Long>> counts = new TreeMap<>();
+        for (String dimension : new String[]{SUMMARY_TYPE, SUMMARY_DAY, SUMMARY_USER}) {
+            counts.put(dimension, new TreeMap<>(Comparator.nullsLast(Comparator.<String>naturalOrder())));
+        }
+        for (Transaction transaction : transactions) {
+            counts.get(SUMMARY_TYPE).merge(transaction.getTransactionType(), 1L, Long::sum);
+            String day = ledgerDates && transaction.getTransactionDate() != null
+                    ? transaction.getTransactionDate().toLocalDate().toString() : null;
+            counts.get(SUMMARY_DAY).merge(day, 1L, Long::sum);
+            if (transaction.getPerformedBy() != null) {
+                counts.get(SUMMARY_USER).merge(transaction.getPerformedBy(), 1L, Long::sum);
+            }
+        }
+        
+        String sql = "INSERT INTO transaction_summary (dimension, dim_key, txn_count) " +
+                    "VALUES (?, COALESCE(?, CAST(CURDATE() AS CHAR)), ?) " +
+                    "ON DUPLICATE KEY UPDATE txn_count = txn_count + VALUES(txn_count)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Map<String, Long>> dimension : counts.entrySet()) {
+                for (Map.Entry<String, Long> count : dimension.getValue().entrySet()) {
+                    pstmt.setString(1, dimension.getKey());
+                    pstmt.setString(2, count.getKey());
+                    pstmt.setLong(3, count.getValue());
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    // Record a transaction (standalone method)
+    // Not tied to a stock update, so it goes through the write-behind journal and is
+    // group-committed with other rows instead of taking its own connection and commit.
+    // Nothing in the app calls it yet: every ledger row today belongs to a stock change
+    // and is written in that change's transaction. It is the entry point for audit rows
+    // that can be written late. Returns true once the row is queued, not inserted; a
+    // flush that keeps failing is logged by the journal along with the rows it dropped.
+    public boolean recordTransaction(Transaction transaction) {
+        boolean result = TransactionJournal.getInstance().append(transaction);
+        System.out.println("✅ Transaction queued: " + (result ? "SUCCESS" : "FAILED"));
+        return result;
+    }
+    
+    // Deletes the whole ledger together with the tables derived from it, in one
+    // transaction, so consumption figures can't outlive the history they came from.
+    // Returns the number of ledger rows deleted, or -1 on error.
+    public int clearAllTransactions() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                // Same table order as the writers (ledger, rollup, summary counters)
+                int deleted = stmt.executeUpdate("DELETE FROM transactions");
+                if (SchemaMigrator.isDailyRollupAvailable()) {
+                    stmt.executeUpdate("DELETE FROM supply_daily_rollup");
+                }
+                if (SchemaMigrator.isTransactionSummaryAvailable()) {
+                    stmt.executeUpdate("DELETE FROM transaction_summary");
+                }
+                bumpDataVersion(conn);
+                conn.commit();
+                System.out.println("✅ Cleared " + deleted + " transaction(s)");
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
-            System.err.println("❌ Error recording transaction: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            System.err.println("❌ Error clearing transactions: " + e.getMessage());
+            return -1;
         }
     }
     
@@ -291,6 +582,119 @@ public class MedicalSupplyDAO {
         return transactions;
     }
     
+    // Keyset-paginated transaction history, newest first.
+    // Pass null/0 for the first page, then the date and id of the last row received.
+    // Seeks on (transaction_date, id) so every page costs the same regardless of ledger size.
+    public List<Transaction> getTransactionsPage(LocalDateTime beforeDate, int beforeId, int pageSize) throws SQLException {
+        return getTransactionsPage(null, beforeDate, beforeId, pageSize);
+    }
+    
+    // Set once we learn the server has no FULLTEXT index on transactions.reason
+    private static volatile boolean reasonFullTextAvailable = true;
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    
+    // Same paging, narrowed by a structured filter. Every condition is on a plain ledger
+    // column (supply_id, transaction_type, performed_by, transaction_date) so it can use
+    // the ledger indexes; the reason match uses MATCH ... AGAINST on the full-text index.
+    public List<Transaction> getTransactionsPage(TransactionFilter filter, LocalDateTime beforeDate,
+                                                 int beforeId, int pageSize) throws SQLException {
+        try {
+            return queryTransactionsPage(filter, beforeDate, beforeId, pageSize, reasonFullTextAvailable);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_FT_MATCHING_KEY_NOT_FOUND) {
+                throw e;
+            }
+            reasonFullTextAvailable = false;
+            System.err.println("⚠️ No full-text index on transactions.reason; falling back to LIKE");
+            return queryTransactionsPage(filter, beforeDate, beforeId, pageSize, false);
+        }
+    }
+    
+    private List<Transaction> queryTransactionsPage(TransactionFilter filter, LocalDateTime beforeDate,
+                                                    int beforeId, int pageSize, boolean fullText) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        
+        if (filter != null) {
+            if (!filter.getSupplyIds().isEmpty()) {
+                conditions.add("t.supply_id IN (" + placeholders(filter.getSupplyIds().size()) + ")");
+                params.addAll(filter.getSupplyIds());
+            }
+            if (filter.getTransactionType() != null) {
+                conditions.add("t.transaction_type = ?");
+                params.add(filter.getTransactionType());
+            }
+            if (filter.getPerformedBy() != null) {
+                conditions.add("t.performed_by = ?");
+                params.add(filter.getPerformedBy());
+            }
+            if (filter.getFromDate() != null) {
+                conditions.add("t.transaction_date >= ?");
+                params.add(Timestamp.valueOf(filter.getFromDate().atStartOfDay()));
+            }
+            if (filter.getToDate() != null) {
+                conditions.add("t.transaction_date < ?");
+                params.add(Timestamp.valueOf(filter.getToDate().plusDays(1).atStartOfDay()));
+            }
+            if (!filter.getReasonWords().isEmpty()) {
+                if (fullText) {
+                    conditions.add("MATCH(t.reason) AGAINST (? IN BOOLEAN MODE)");
+                    params.add(toBooleanModeQuery(filter.getReasonWords()));
+                } else {
+                    // Substring match; finds a superset of the full-text prefix match
+                    for (String word : filter.getReasonWords()) {
+                        conditions.add("t.reason LIKE ?");
+                        params.add("%" + word + "%");
+                    }
+                }
+            }
+        }
+        if (beforeDate != null) {
+            Timestamp cursor = Timestamp.valueOf(beforeDate);
+            conditions.add("(t.transaction_date < ? OR (t.transaction_date = ? AND t.id < ?))");
+            params.add(cursor);
+            params.add(cursor);
+            params.add(beforeId);
+        }
+        
+        String sql = "SELECT t.*, s.name as supply_name FROM transactions t " +
+                    "LEFT JOIN supplies s ON t.supply_id = s.id " +
+                    (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ") +
+                    "ORDER BY t.transaction_date DESC, t.id DESC LIMIT ?";
+        params.add(pageSize);
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Transaction transaction = extractTransactionFromResultSet(rs);
+                    transaction.setSupplyName(rs.getString("supply_name"));
+                    transactions.add(transaction);
+                }
+            }
+        }
+        
+        return transactions;
+    }
+    
+    // "expired gauze" -> "+expired* +gauze*": every word required, prefix match. The
+    // words come from TransactionFilter.getReasonWords, so no boolean-mode operators
+    // from user input get through, and live rows are matched on the same words.
+    private String toBooleanModeQuery(List<String> words) {
+        StringBuilder query = new StringBuilder();
+        for (String word : words) {
+            if (query.length() > 0) query.append(' ');
+            query.append('+').append(word).append('*');
+        }
+        return query.toString();
+    }
+    
     // Direct SQL method for TransactionsFrame
     public List<Transaction> getTransactionsDirect() {
         List<Transaction> transactions = new ArrayList<>();
@@ -409,50 +813,288 @@ public class MedicalSupplyDAO {
         return 0;
     }
     
-    // ===================== ENHANCED UPDATE QUANTITY METHOD =====================
-    public boolean updateQuantity(int supplyId, int newQuantity, String performedBy, String reason) {
-        // Get current quantity
-        int currentQuantity = getQuantityById(supplyId);
-        int quantityChanged = newQuantity - currentQuantity;
+    // ===================== TRANSACTION SUMMARY =====================
+    // transaction_summary dimensions; day rows are kept for the last SUMMARY_DAYS days
+    private static final String SUMMARY_TYPE = "type";
+    private static final String SUMMARY_DAY = "day";
+    private static final String SUMMARY_USER = "user";
+    private static final int SUMMARY_DAYS = 31;
+    
+    // Total ledger rows as a scalar subquery: the sum of the per-type counters once they
+    // exist, otherwise a COUNT(*) (which InnoDB answers by scanning an index)
+    static String transactionCountSql() {
+        return SchemaMigrator.isTransactionSummaryAvailable()
+            ? "(SELECT COALESCE(SUM(txn_count), 0) FROM transaction_summary WHERE dimension = '" + SUMMARY_TYPE + "')"
+            : "(SELECT COUNT(*) FROM transactions)";
+    }
+    
+    // Totals, per-type counts, today's count and the most active user. Read from the
+    // summary counters (a handful of primary key rows, whatever the ledger size) once
+    // SchemaMigrator has created them, otherwise counted from the ledger.
+    // Returns null if the database can't be reached.
+    public TransactionSummary getTransactionSummary() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (SchemaMigrator.isTransactionSummaryAvailable()) {
+                return readSummaryCounters(conn);
+            }
+            return countSummaryFromLedger(conn);
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading transaction summary: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private TransactionSummary readSummaryCounters(Connection conn) throws SQLException {
+        String sql = "SELECT dimension, dim_key, txn_count FROM transaction_summary WHERE dimension = ? " +
+                    "UNION ALL (SELECT dimension, dim_key, txn_count FROM transaction_summary " +
+                    "WHERE dimension = ? AND dim_key = CAST(CURDATE() AS CHAR)) " +
+                    "UNION ALL (SELECT dimension, dim_key, txn_count FROM transaction_summary " +
+                    "WHERE dimension = ? ORDER BY txn_count DESC, dim_key LIMIT 1)";
+        
+        Map<String, Long> byType = new TreeMap<>();
+        long today = 0;
+        String topUser = null;
+        long topUserCount = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, SUMMARY_TYPE);
+            pstmt.setString(2, SUMMARY_DAY);
+            pstmt.setString(3, SUMMARY_USER);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String dimension = rs.getString("dimension");
+                    long count = rs.getLong("txn_count");
+                    if (SUMMARY_TYPE.equals(dimension)) {
+                        byType.put(rs.getString("dim_key"), count);
+                    } else if (SUMMARY_DAY.equals(dimension)) {
+                        today = count;
+                    } else {
+                        topUser = rs.getString("dim_key");
+                        topUserCount = count;
+                    }
+                }
+            }
+        }
+        return new TransactionSummary(today, byType, topUser, topUserCount, true);
+    }
+    
+    // Before the counters exist: the same figures with GROUP BYs over the ledger
+    private TransactionSummary countSummaryFromLedger(Connection conn) throws SQLException {
+        Map<String, Long> byType = new TreeMap<>();
+        long today = 0;
+        String topUser = null;
+        long topUserCount = 0;
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT transaction_type, COUNT(*) as count " +
+                                                  "FROM transactions GROUP BY transaction_type")) {
+                while (rs.next()) {
+                    byType.put(rs.getString("transaction_type"), rs.getLong("count"));
+                }
+            }
+            // A plain range, so idx_transactions_date is used
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as today FROM transactions " +
+                                                  "WHERE transaction_date >= CURDATE() " +
+                                                  "AND transaction_date < CURDATE() + INTERVAL 1 DAY")) {
+                if (rs.next()) {
+                    today = rs.getLong("today");
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT performed_by, COUNT(*) as count " +
+                                                  "FROM transactions WHERE performed_by IS NOT NULL " +
+                                                  "GROUP BY performed_by ORDER BY count DESC LIMIT 1")) {
+                if (rs.next()) {
+                    topUser = rs.getString("performed_by");
+                    topUserCount = rs.getLong("count");
+                }
+            }
+        }
+        return new TransactionSummary(today, byType, topUser, topUserCount, false);
+    }
+    
+    // Recounts the ledger and rewrites the summary counters, correcting any drift (rows
+    // written by other tools, or a counter update lost to a bug). Runs in the nightly
+    // resync, which also drops day rows older than SUMMARY_DAYS.
+    //
+    // The counters are locked first, gaps included: writers that already counted have
+    // committed by then, and the rest wait at their counter update. The ledger is then
+    // read with a plain (non-locking) snapshot read, which sees exactly the rows already
+    // counted, so waiting writers add theirs on top afterwards and nothing is lost or
+    // counted twice. Returns the number of counters corrected, or -1 on error.
+    public int reconcileTransactionSummary() {
+        if (!SchemaMigrator.isTransactionSummaryAvailable()) {
+            return 0;
+        }
+        String lockSql = "SELECT dimension, dim_key, txn_count FROM transaction_summary FOR UPDATE";
+        String countSql = "SELECT ?, transaction_type, COUNT(*) FROM transactions GROUP BY transaction_type " +
+                         "UNION ALL SELECT ?, performed_by, COUNT(*) FROM transactions " +
+                         "WHERE performed_by IS NOT NULL GROUP BY performed_by " +
+                         "UNION ALL SELECT ?, CAST(DATE(transaction_date) AS CHAR), COUNT(*) FROM transactions " +
+                         "WHERE transaction_date >= CURDATE() - INTERVAL ? DAY GROUP BY DATE(transaction_date)";
+        String insertSql = "INSERT INTO transaction_summary (dimension, dim_key, txn_count) VALUES (?, ?, ?)";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<List<String>, Long> stored = new HashMap<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(lockSql)) {
+                    while (rs.next()) {
+                        stored.put(List.of(rs.getString(1), rs.getString(2)), rs.getLong(3));
+                    }
+                }
+                
+                Map<List<String>, Long> counted = new LinkedHashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(countSql)) {
+                    pstmt.setString(1, SUMMARY_TYPE);
+                    pstmt.setString(2, SUMMARY_USER);
+                    pstmt.setString(3, SUMMARY_DAY);
+                    pstmt.setInt(4, SUMMARY_DAYS - 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            counted.put(List.of(rs.getString(1), rs.getString(2)), rs.getLong(3));
+                        }
+                    }
+                }
+                
+                int corrected = 0;
+                for (Map.Entry<List<String>, Long> count : counted.entrySet()) {
+                    if (!count.getValue().equals(stored.get(count.getKey()))) {
+                        corrected++;
+                    }
+                }
+                for (List<String> key : stored.keySet()) {
+                    // Day rows that aged out are pruned, not corrected
+                    if (!counted.containsKey(key) && !SUMMARY_DAY.equals(key.get(0))) {
+                        corrected++;
+                    }
+                }
+                
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM transaction_summary");
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    for (Map.Entry<List<String>, Long> count : counted.entrySet()) {
+                        pstmt.setString(1, count.getKey().get(0));
+                        pstmt.setString(2, count.getKey().get(1));
+                        pstmt.setLong(3, count.getValue());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                
+                if (corrected > 0) {
+                    System.out.println("🔧 Transaction summary reconciled: " + corrected + " counter(s) corrected");
+                }
+                return corrected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error reconciling transaction summary: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    // Cheap stamp that moves whenever report data may have. It is the data_version
+    // counter, which every supply and ledger write bumps in its own transaction, so it
+    // sees edits from any client as soon as they commit, whatever order ids were handed
+    // out in. Until migration 7 is in it falls back to the newest transaction id, the
+    // supply count and this process's write counter, which can miss other clients'
+    // edits. Returns null if the database can't be reached.
+    public String getDataVersion() {
+        boolean counter = SchemaMigrator.isDataVersionAvailable();
+        String sql = counter
+                ? "SELECT version FROM data_version WHERE id = 1"
+                : "SELECT (SELECT COALESCE(MAX(id), 0) FROM transactions) as max_transaction_id, " +
+                  "(SELECT COUNT(*) FROM supplies) as supply_count";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (counter) {
+                // No row means the seed was deleted; never cache against that
+                return rs.next() ? "v" + rs.getLong("version") : null;
+            }
+            if (rs.next()) {
+                return "tx" + rs.getLong("max_transaction_id") +
+                       "/s" + rs.getLong("supply_count") +
+                       "/w" + supplyChanges.get();
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading data version: " + e.getMessage());
+        }
         
-        if (quantityChanged == 0) {
+        return null;
+    }
+    
+    // ===================== ATOMIC QUANTITY ADJUSTMENT =====================
+    // Applies a relative change (positive = stock in, negative = stock out) in one transaction.
+    // The UPDATE itself takes the row lock and refuses to go below zero, so concurrent
+    // adjustments from different stations are never lost.
+    // Returns the recorded transaction (with previous/new quantities), or null if it failed.
+    public Transaction adjustQuantity(int supplyId, int delta, String performedBy, String reason) {
+        if (delta == 0) {
             System.out.println("⚠️ No quantity change for supply ID: " + supplyId);
-            return true; // No change needed
+            return null;
         }
         
-        String transactionType = quantityChanged > 0 ? "IN" : "OUT";
+        String updateSql = "UPDATE supplies SET quantity = quantity + ? WHERE id = ? AND quantity + ? >= 0";
+        String selectSql = "SELECT quantity, name FROM supplies WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             try {
-                // Update quantity
-                String updateSql = "UPDATE supplies SET quantity = ? WHERE id = ?";
                 try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                    updateStmt.setInt(1, newQuantity);
+                    updateStmt.setInt(1, delta);
                     updateStmt.setInt(2, supplyId);
-                    updateStmt.executeUpdate();
+                    updateStmt.setInt(3, delta);
+                    if (updateStmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        System.err.println("❌ Quantity adjustment rejected for supply ID: " + supplyId +
+                                         " (not found or insufficient stock for " + delta + ")");
+                        return null;
+                    }
                 }
                 
-                // Record transaction
+                // Row is locked by our UPDATE, so this reads the value we just wrote
+                int newQuantity;
+                String name;
+                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+                    selectStmt.setInt(1, supplyId);
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        rs.next();
+                        newQuantity = rs.getInt("quantity");
+                        name = rs.getString("name");
+                    }
+                }
+                int previousQuantity = newQuantity - delta;
+                
                 Transaction transaction = new Transaction(
                     supplyId,
-                    transactionType,
-                    Math.abs(quantityChanged),
-                    currentQuantity,
+                    delta > 0 ? "IN" : "OUT",
+                    Math.abs(delta),
+                    previousQuantity,
                     newQuantity,
                     reason,
                     performedBy
                 );
                 
                 recordTransactionInConnection(conn, transaction);
-                
-                System.out.println("✅ Transaction recorded: " + transactionType + " " + 
-                                 Math.abs(quantityChanged) + " units for supply ID: " + supplyId +
-                                 " (From: " + currentQuantity + " To: " + newQuantity + ")");
-                
+                transaction.setSupplyName(name);
                 conn.commit();
-                return true;
+                quantityChanged(supplyId, newQuantity);
+                transactionsRecorded(List.of(transaction));
+                
+                System.out.println("✅ Transaction recorded: " + transaction.getTransactionType() + " " + 
+                                 Math.abs(delta) + " units for supply ID: " + supplyId +
+                                 " (From: " + previousQuantity + " To: " + newQuantity + ")");
+                return transaction;
                 
             } catch (SQLException e) {
                 conn.rollback();
@@ -462,31 +1104,215 @@ public class MedicalSupplyDAO {
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Error updating quantity: " + e.getMessage());
+            System.err.println("❌ Error adjusting quantity: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
     
-    // Helper method to get current quantity
-    private int getQuantityById(int supplyId) {
-        String sql = "SELECT quantity FROM supplies WHERE id = ?";
+    // ===================== BATCH ADJUSTMENTS =====================
+    // Applies many quantity changes and their ledger rows in one database transaction.
+    // The affected rows are locked up front (in id order, so concurrent batches can't
+    // deadlock), then the updates and ledger inserts go out as JDBC batches.
+    // All-or-nothing: returns the recorded transactions, or null if the batch was rejected.
+    public List<Transaction> applyAdjustments(List<Adjustment> adjustments) {
+        List<Transaction> recorded = new ArrayList<>();
+        if (adjustments == null || adjustments.isEmpty()) {
+            return recorded;
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, supplyId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("quantity");
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error getting quantity: " + e.getMessage());
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (Adjustment adjustment : adjustments) {
+            ids.add(adjustment.getSupplyId());
         }
         
-        return 0;
+        String lockSql = "SELECT id, quantity, name FROM supplies WHERE id IN (" +
+                        placeholders(ids.size()) + ") ORDER BY id FOR UPDATE";
+        String updateSql = "UPDATE supplies SET quantity = ? WHERE id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                // Lock every affected row and read its current quantity in one round trip
+                Map<Integer, Integer> quantities = new HashMap<>();
+                Map<Integer, String> names = new HashMap<>();
+                try (PreparedStatement lockStmt = conn.prepareStatement(lockSql)) {
+                    int index = 1;
+                    for (int id : ids) {
+                        lockStmt.setInt(index++, id);
+                    }
+                    try (ResultSet rs = lockStmt.executeQuery()) {
+                        while (rs.next()) {
+                            quantities.put(rs.getInt("id"), rs.getInt("quantity"));
+                            names.put(rs.getInt("id"), rs.getString("name"));
+                        }
+                    }
+                }
+                
+                // Work out each ledger row; several lines for the same item chain together
+                for (Adjustment adjustment : adjustments) {
+                    Integer current = quantities.get(adjustment.getSupplyId());
+                    if (current == null) {
+                        conn.rollback();
+                        System.err.println("❌ Batch rejected: cannot find supply with ID: " + adjustment.getSupplyId());
+                        return null;
+                    }
+                    
+                    int next = current + adjustment.getDelta();
+                    if (next < 0) {
+                        conn.rollback();
+                        System.err.println("❌ Batch rejected: insufficient stock for supply ID: " +
+                                         adjustment.getSupplyId() + " (" + current + " available, " +
+                                         adjustment.getDelta() + " requested)");
+                        return null;
+                    }
+                    if (adjustment.getDelta() == 0) {
+                        continue;
+                    }
+                    
+                    recorded.add(new Transaction(
+                        adjustment.getSupplyId(),
+                        adjustment.getDelta() > 0 ? "IN" : "OUT",
+                        Math.abs(adjustment.getDelta()),
+                        current,
+                        next,
+                        adjustment.getReason(),
+                        adjustment.getPerformedBy()
+                    ));
+                    quantities.put(adjustment.getSupplyId(), next);
+                }
+                
+                if (recorded.isEmpty()) {
+                    conn.rollback();
+                    return recorded;
+                }
+                
+                // Rows are locked, so writing the final absolute values is safe
+                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+                    for (int id : ids) {
+                        updateStmt.setInt(1, quantities.get(id));
+                        updateStmt.setInt(2, id);
+                        updateStmt.addBatch();
+                    }
+                    updateStmt.executeBatch();
+                }
+                
+                recordTransactionsBatchInConnection(conn, recorded);
+                for (Transaction transaction : recorded) {
+                    transaction.setSupplyName(names.get(transaction.getSupplyId()));
+                }
+                conn.commit();
+                for (int id : ids) {
+                    quantityChanged(id, quantities.get(id));
+                }
+                transactionsRecorded(recorded);
+                
+                System.out.println("✅ Batch applied: " + recorded.size() + " adjustment(s) across " +
+                                 ids.size() + " supplies");
+                return recorded;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error applying batch adjustments: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    // Builds "?, ?, ?" for IN lists
+    private String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+    
+    // ===================== ENHANCED UPDATE QUANTITY METHOD =====================
+    // Sets an absolute quantity. The current value is read with FOR UPDATE on the same
+    // connection, so the recorded change can't be invalidated by a concurrent writer.
+    public boolean updateQuantity(int supplyId, int newQuantity, String performedBy, String reason) {
+        String selectSql = "SELECT quantity, name FROM supplies WHERE id = ? FOR UPDATE";
+        String updateSql = "UPDATE supplies SET quantity = ? WHERE id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                // Get current quantity
+                int currentQuantity;
+                String name;
+                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+                    selectStmt.setInt(1, supplyId);
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            System.err.println("❌ Cannot find supply with ID: " + supplyId);
+                            return false;
+                        }
+                        currentQuantity = rs.getInt("quantity");
+                        name = rs.getString("name");
+                    }
+                }
+                
+                int quantityChanged = newQuantity - currentQuantity;
+                if (quantityChanged == 0) {
+                    conn.rollback();
+                    System.out.println("⚠️ No quantity change for supply ID: " + supplyId);
+                    return true; // No change needed
+                }
+                
+                String transactionType = quantityChanged > 0 ? "IN" : "OUT";
+                
+                // Update quantity
+                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+                    updateStmt.setInt(1, newQuantity);
+                    updateStmt.setInt(2, supplyId);
+                    updateStmt.executeUpdate();
+                }
+                
+                // Record transaction
+                Transaction transaction = new Transaction(
+                    supplyId,
+                    transactionType,
+                    Math.abs(quantityChanged),
+                    currentQuantity,
+                    newQuantity,
+                    reason,
+                    performedBy
+                );
+                
+                recordTransactionInConnection(conn, transaction);
+                transaction.setSupplyName(name);
+                
+                System.out.println("✅ Transaction recorded: " + transactionType + " " + 
+                                 Math.abs(quantityChanged) + " units for supply ID: " + supplyId +
+                                 " (From: " + currentQuantity + " To: " + newQuantity + ")");
+                
+                conn.commit();
+                quantityChanged(supplyId, newQuantity);
+                transactionsRecorded(List.of(transaction));
+                return true;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error updating quantity: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
     }
     
     // ===================== ORIGINAL METHODS (UNCHANGED) =====================
@@ -536,9 +1362,25 @@ public class MedicalSupplyDAO {
         );
     }
     
-    // Get supply by ID
+    // Get supply by ID (read-through SupplyCache). The cache only sees this process's
+    // writes until the nightly resync, so use it where a stale row is harmless, such as
+    // the supply name for a journaled ledger row.
     public MedicalSupply getSupplyById(int id) {
+        return getSupplyById(id, false);
+    }
+    
+    // With bypassCache the row is always read from the table (and the cache entry
+    // refreshed). For anything that writes back what it read, like the edit dialogs.
+    public MedicalSupply getSupplyById(int id, boolean bypassCache) {
+        if (!bypassCache) {
+            MedicalSupply cached = supplyCache.get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
         String sql = "SELECT * FROM supplies WHERE id = ?";
+        long loadGeneration = supplyCache.beginLoad();
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -547,8 +1389,11 @@ public class MedicalSupplyDAO {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractSupplyFromResultSet(rs);
+                MedicalSupply supply = extractSupplyFromResultSet(rs);
+                supplyCache.putIfUnchanged(supply, loadGeneration);
+                return supply;
             }
+            supplyCache.invalidate(id); // Deleted by another client
             
         } catch (SQLException e) {
             System.err.println("Error getting supply by ID: " + e.getMessage());
@@ -557,8 +1402,507 @@ public class MedicalSupplyDAO {
         return null;
     }
     
-    // Search supplies by name or category
+    // ===================== WINDOWED SUPPLY PAGES =====================
+    // Sort orders the inventory table pushes down to SQL. Nullable columns sort through a
+    // sentinel so (sort key, id) is always a usable keyset cursor.
+    public enum SupplySort {
+        NAME("name"),
+        CATEGORY("COALESCE(category, '')"),
+        QUANTITY("quantity"),
+        MIN_STOCK("min_stock_level"),
+        STATUS("CASE WHEN quantity = 0 THEN 0 WHEN quantity <= min_stock_level THEN 1 ELSE 2 END"),
+        EXPIRY("COALESCE(expiry_date, '9999-12-31')"),
+        LOCATION("COALESCE(location, '')"),
+        SUPPLIER("COALESCE(supplier, '')");
+        
+        private static final LocalDate NO_EXPIRY = LocalDate.of(9999, 12, 31);
+        private final String expression;
+        
+        SupplySort(String expression) {
+            this.expression = expression;
+        }
+        
+        // The row's value of this sort key, matching the SQL expression above
+        Object keyOf(MedicalSupply supply) {
+            switch (this) {
+                case NAME: return supply.getName();
+                case CATEGORY: return supply.getCategory() != null ? supply.getCategory() : "";
+                case QUANTITY: return supply.getQuantity();
+                case MIN_STOCK: return supply.getMinStockLevel();
+                case STATUS:
+                    if (supply.getQuantity() == 0) return 0;
+                    return supply.getQuantity() <= supply.getMinStockLevel() ? 1 : 2;
+                case EXPIRY:
+                    return Date.valueOf(supply.getExpiryDate() != null ? supply.getExpiryDate() : NO_EXPIRY);
+                case LOCATION: return supply.getLocation() != null ? supply.getLocation() : "";
+                case SUPPLIER: return supply.getSupplier() != null ? supply.getSupplier() : "";
+                default: throw new IllegalStateException("Unknown sort: " + this);
+            }
+        }
+    }
+    
+    // Number of supplies matching the optional name/category filter
+    public int countSupplies(String filter) throws SQLException {
+        boolean filtered = filter != null && !filter.isEmpty();
+        String sql = "SELECT COUNT(*) as total FROM supplies" +
+                    (filtered ? " WHERE (name LIKE ? OR category LIKE ?)" : "");
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (filtered) {
+                pstmt.setString(1, "%" + filter + "%");
+                pstmt.setString(2, "%" + filter + "%");
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt("total");
+            }
+        }
+    }
+    
+    // One window of supplies in the given order, optionally filtered by name/category.
+    // Pass the last row of the previous window as "after" to seek on (sort key, id);
+    // without it (e.g. after a scrollbar jump) the window is read at the given offset.
+    public List<MedicalSupply> getSuppliesPage(String filter, SupplySort sort, boolean ascending,
+                                              MedicalSupply after, int offset, int limit) throws SQLException {
+        List<MedicalSupply> supplies = new ArrayList<>();
+        boolean filtered = filter != null && !filter.isEmpty();
+        String direction = ascending ? "ASC" : "DESC";
+        String comparison = ascending ? ">" : "<";
+        
+        StringBuilder sql = new StringBuilder("SELECT * FROM supplies");
+        List<String> conditions = new ArrayList<>();
+        if (filtered) {
+            conditions.add("(name LIKE ? OR category LIKE ?)");
+        }
+        if (after != null) {
+            conditions.add("(" + sort.expression + " " + comparison + " ? OR (" +
+                          sort.expression + " = ? AND id " + comparison + " ?))");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(sort.expression).append(" ").append(direction)
+           .append(", id ").append(direction).append(" LIMIT ?");
+        if (after == null) {
+            sql.append(" OFFSET ?");
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (filtered) {
+                pstmt.setString(index++, "%" + filter + "%");
+                pstmt.setString(index++, "%" + filter + "%");
+            }
+            if (after != null) {
+                Object key = sort.keyOf(after);
+                pstmt.setObject(index++, key);
+                pstmt.setObject(index++, key);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index++, limit);
+            if (after == null) {
+                pstmt.setInt(index, offset);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    supplies.add(extractSupplyFromResultSet(rs));
+                }
+            }
+        }
+        
+        return supplies;
+    }
+    
+    // ===================== AGGREGATES =====================
+    // What aggregateSupplies groups by; ALL gives a single group with a null key
+    public enum SupplyGroup {
+        ALL(null, "All Supplies"),
+        CATEGORY("category", "Category"),
+        LOCATION("location", "Location"),
+        SUPPLIER("supplier", "Supplier");
+        
+        private final String column;
+        private final String label;
+        
+        SupplyGroup(String column, String label) {
+            this.column = column;
+            this.label = label;
+        }
+        
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+    
+    // Counts, quantity sums and expiry range per group, computed by the database: one
+    // small result set instead of loading every supply. expiringWithinDays sets the
+    // window for the "expiring" column (0 = today only). Groups come back ordered by key,
+    // null first. Returns null if the database can't be reached.
+    public SupplyAggregate aggregateSupplies(SupplyGroup group, SupplyFilter filter, int expiringWithinDays) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(group.column != null ? group.column : "NULL").append(" as group_key, ")
+            .append("COUNT(*) as item_count, ")
+            .append("COALESCE(SUM(quantity), 0) as total_quantity, ")
+            .append("COALESCE(SUM(").append(lowStockCondition()).append("), 0) as low_stock_count, ")
+            .append("COUNT(expiry_date) as with_expiry_count, ")
+            .append("COALESCE(SUM(expiry_date < CURDATE()), 0) as expired_count, ")
+            .append("COALESCE(SUM(expiry_date >= CURDATE() AND ")
+            .append("expiry_date <= DATE_ADD(CURDATE(), INTERVAL ? DAY)), 0) as expiring_count, ")
+            .append("MIN(expiry_date) as min_expiry, MAX(expiry_date) as max_expiry ")
+            .append("FROM supplies");
+        
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getCategory() != null) {
+                conditions.add("category = ?");
+                params.add(filter.getCategory());
+            }
+            if (filter.getLocation() != null) {
+                conditions.add("location = ?");
+                params.add(filter.getLocation());
+            }
+            if (filter.getSupplier() != null) {
+                conditions.add("supplier = ?");
+                params.add(filter.getSupplier());
+            }
+            if (filter.isLowStockOnly()) {
+                conditions.add(lowStockCondition());
+            }
+            if (filter.getExpiryFrom() != null) {
+                conditions.add("expiry_date >= ?");
+                params.add(Date.valueOf(filter.getExpiryFrom()));
+            }
+            if (filter.getExpiryTo() != null) {
+                conditions.add("expiry_date <= ?");
+                params.add(Date.valueOf(filter.getExpiryTo()));
+            }
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (group.column != null) {
+            sql.append(" GROUP BY ").append(group.column).append(" ORDER BY ").append(group.column);
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            pstmt.setInt(index++, Math.max(0, expiringWithinDays));
+            for (Object param : params) {
+                pstmt.setObject(index++, param);
+            }
+            
+            SupplyAggregate aggregate = new SupplyAggregate(group, expiringWithinDays);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Date minExpiry = rs.getDate("min_expiry");
+                    Date maxExpiry = rs.getDate("max_expiry");
+                    aggregate.add(rs.getString("group_key"),
+                                  rs.getInt("item_count"),
+                                  rs.getLong("total_quantity"),
+                                  rs.getInt("low_stock_count"),
+                                  rs.getInt("with_expiry_count"),
+                                  rs.getInt("expired_count"),
+                                  rs.getInt("expiring_count"),
+                                  minExpiry != null ? minExpiry.toLocalDate() : null,
+                                  maxExpiry != null ? maxExpiry.toLocalDate() : null);
+                }
+            }
+            return aggregate;
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error aggregating supplies by " + group + " (" +
+                               (filter != null ? filter : "all supplies") + "): " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // ===================== CONSUMPTION =====================
+    // Stock on hand and IN/OUT over the last `days` days for every supply, ordered by
+    // name; average daily use and days of stock are derived by ConsumptionStats.
+    // Returns null if the database can't be reached.
+    public ConsumptionStats getSupplyConsumption(int days) {
+        String sql = "SELECT s.id, s.name, s.category, s.quantity, " +
+                    "COALESCE(u.in_qty, 0) as in_qty, COALESCE(u.out_qty, 0) as out_qty " +
+                    "FROM supplies s LEFT JOIN " + consumptionTable(days) + " u ON u.supply_id = s.id " +
+                    "ORDER BY s.name";
+        return loadConsumption(sql, days, true);
+    }
+    
+    // The same per category (turnover per category), ordered by category, null first
+    public ConsumptionStats getCategoryTurnover(int days) {
+        String sql = "SELECT 0 as id, s.category as name, s.category, COUNT(*) as item_count, " +
+                    "COALESCE(SUM(s.quantity), 0) as quantity, " +
+                    "COALESCE(SUM(u.in_qty), 0) as in_qty, COALESCE(SUM(u.out_qty), 0) as out_qty " +
+                    "FROM supplies s LEFT JOIN " + consumptionTable(days) + " u ON u.supply_id = s.id " +
+                    "GROUP BY s.category ORDER BY s.category";
+        return loadConsumption(sql, days, false);
+    }
+    
+    private ConsumptionStats loadConsumption(String sql, int days, boolean bySupply) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            ConsumptionStats stats = new ConsumptionStats(Math.max(1, days), bySupply);
+            while (rs.next()) {
+                stats.add(rs.getInt("id"),
+                          rs.getString("name"),
+                          rs.getString("category"),
+                          bySupply ? 1 : rs.getInt("item_count"),
+                          rs.getLong("quantity"),
+                          rs.getLong("in_qty"),
+                          rs.getLong("out_qty"));
+            }
+            return stats;
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading consumption (" + (bySupply ? "by supply" : "by category") +
+                               ", " + days + " days): " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Rebuilds supply_daily_rollup from the ledger, correcting any drift (ledger rows
+    // written or deleted by other tools). Runs in the nightly resync. Same locking as
+    // reconcileTransactionSummary: rollup rows and gaps are locked first, then the ledger
+    // is recounted with a non-locking snapshot read, so writers waiting on the rollup
+    // add their rows on top afterwards. Returns the number of rows corrected, or -1.
+    public int rebuildDailyRollup() {
+        if (!SchemaMigrator.isDailyRollupAvailable()) {
+            return 0;
+        }
+        String lockSql = "SELECT supply_id, day, in_qty, out_qty, in_count, out_count " +
+                        "FROM supply_daily_rollup FOR UPDATE";
+        String countSql = "SELECT supply_id, DATE(transaction_date) as day, " +
+                         "SUM(CASE WHEN transaction_type = 'IN' THEN quantity_changed ELSE 0 END) as in_qty, " +
+                         "SUM(CASE WHEN transaction_type = 'OUT' THEN quantity_changed ELSE 0 END) as out_qty, " +
+                         "SUM(transaction_type = 'IN') as in_count, SUM(transaction_type = 'OUT') as out_count " +
+                         "FROM transactions WHERE transaction_date IS NOT NULL " +
+                         "GROUP BY supply_id, DATE(transaction_date) " +
+                         "HAVING SUM(transaction_type IN ('IN', 'OUT')) > 0";
+        String insertSql = "INSERT INTO supply_daily_rollup (supply_id, day, in_qty, out_qty, in_count, out_count) " +
+                          "VALUES (?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // supply id and epoch day -> {in qty, out qty, in count, out count}
+                Map<Long, long[]> stored = new HashMap<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(lockSql)) {
+                    while (rs.next()) {
+                        stored.put(rollupKey(rs.getInt(1), rs.getDate(2)),
+                                   new long[]{rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6)});
+                    }
+                }
+                
+                Map<Long, long[]> counted = new TreeMap<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(countSql)) {
+                    while (rs.next()) {
+                        counted.put(rollupKey(rs.getInt("supply_id"), rs.getDate("day")),
+                                    new long[]{rs.getLong("in_qty"), rs.getLong("out_qty"),
+                                               rs.getLong("in_count"), rs.getLong("out_count")});
+                    }
+                }
+                
+                int corrected = 0;
+                for (Map.Entry<Long, long[]> row : counted.entrySet()) {
+                    if (!Arrays.equals(row.getValue(), stored.get(row.getKey()))) {
+                        corrected++;
+                    }
+                }
+                for (Long key : stored.keySet()) {
+                    if (!counted.containsKey(key)) {
+                        corrected++;
+                    }
+                }
+                
+                if (corrected > 0) {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.executeUpdate("DELETE FROM supply_daily_rollup");
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                        for (Map.Entry<Long, long[]> row : counted.entrySet()) {
+                            long[] sums = row.getValue();
+                            pstmt.setInt(1, (int) (row.getKey() >> 32));
+                            pstmt.setDate(2, Date.valueOf(LocalDate.ofEpochDay((int) (long) row.getKey())));
+                            pstmt.setLong(3, sums[0]);
+                            pstmt.setLong(4, sums[1]);
+                            pstmt.setLong(5, sums[2]);
+                            pstmt.setLong(6, sums[3]);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                    bumpDataVersion(conn); // Consumption figures changed
+                }
+                conn.commit();
+                
+                if (corrected > 0) {
+                    System.out.println("🔧 Daily rollup rebuilt: " + corrected + " row(s) corrected");
+                }
+                return corrected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error rebuilding daily rollup: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    // Supply id in the high half, epoch day in the low half
+    private static long rollupKey(int supplyId, Date day) {
+        return ((long) supplyId << 32) | (day.toLocalDate().toEpochDay() & 0xFFFFFFFFL);
+    }
+    
+    // Builds the shared search index, expiry timeline and low-stock tracker in the
+    // background from one load of the supplies table, once per run
+    public void startSearchIndexBuild() {
+        final boolean buildIndex = !searchIndex.isReady() && searchIndex.beginBuild();
+        final boolean buildTimeline = !expiryTimeline.isReady() && expiryTimeline.beginBuild();
+        final boolean buildLowStock = !lowStockTracker.isReady() && lowStockTracker.beginBuild();
+        if (!buildIndex && !buildTimeline && !buildLowStock) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            long start = System.nanoTime();
+            List<MedicalSupply> supplies;
+            try {
+                supplies = loadAllSupplies();
+            } catch (SQLException e) {
+                if (buildIndex) searchIndex.abortBuild();
+                if (buildTimeline) expiryTimeline.abortBuild();
+                if (buildLowStock) lowStockTracker.abortBuild();
+                System.err.println("❌ Error building search index: " + e.getMessage());
+                return;
+            }
+            if (buildIndex) searchIndex.finishBuild(supplies);
+            if (buildTimeline) expiryTimeline.finishBuild(supplies);
+            if (buildLowStock) lowStockTracker.finishBuild(supplies);
+            System.out.println("✅ Search index built: " + supplies.size() + " supplies in " +
+                             (System.nanoTime() - start) / 1_000_000 + " ms");
+            scheduleNightlyResync();
+        }, "search-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+    
+    // Reloads the search index, expiry timeline and low-stock tracker shortly after every
+    // midnight, so edits made outside this app (or missed writes) can't leave them wrong
+    // for more than a day
+    private synchronized void scheduleNightlyResync() {
+        if (nightlyResync != null) {
+            return;
+        }
+        nightlyResync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "nightly-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long untilMidnight = Duration.between(LocalDateTime.now(),
+            LocalDate.now().plusDays(1).atStartOfDay().plusMinutes(1)).toMillis();
+        nightlyResync.scheduleAtFixedRate(this::resyncFromDatabase,
+            untilMidnight, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+    
+    // The nightly resync itself; also run right after a restore
+    private void resyncFromDatabase() {
+        // Cached supplies only follow this app's writes; drop them so edits made
+        // elsewhere are read again
+        supplyCache.invalidateAll();
+        boolean index = searchIndex.beginBuild();
+        boolean timeline = expiryTimeline.beginBuild();
+        boolean lowStock = lowStockTracker.beginBuild();
+        try {
+            List<MedicalSupply> supplies = loadAllSupplies();
+            if (index) searchIndex.finishBuild(supplies);
+            if (timeline) expiryTimeline.finishBuild(supplies);
+            if (lowStock) lowStockTracker.finishBuild(supplies);
+            System.out.println("✅ Resync: " + searchIndex.size() + " indexed, " +
+                             expiryTimeline.countExpired() + " expired, " +
+                             lowStockTracker.count() + " low on stock");
+        } catch (SQLException e) {
+            if (index) searchIndex.abortBuild();
+            if (timeline) expiryTimeline.abortBuild();
+            if (lowStock) lowStockTracker.abortBuild();
+            System.err.println("❌ Error in resync: " + e.getMessage());
+        }
+        rebuildDailyRollup();
+        reconcileTransactionSummary();
+    }
+    
+    // ===================== AFTER A RESTORE =====================
+    // A restore replaces every table behind the DAO, including data_version. Call
+    // beginRestore() before it and restoreFinished() after it (whether or not it got
+    // through), off the EDT.
+    
+    // The data_version counter before the restore; 0 if there isn't one
+    public long beginRestore() {
+        if (!SchemaMigrator.isDataVersionAvailable()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM data_version WHERE id = 1")) {
+            return rs.next() ? rs.getLong("version") : 0;
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading data version: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    // Moves data_version past anything handed out before the restore (the backup's value
+    // would reuse stamps for different data), drops every cached report and rebuilds the
+    // in-memory state from the restored tables.
+    public void restoreFinished(long versionBeforeRestore) {
+        if (SchemaMigrator.isDataVersionAvailable()) {
+            String sql = "INSERT INTO data_version (id, version) VALUES (1, ?) " +
+                         "ON DUPLICATE KEY UPDATE version = GREATEST(version + 1, VALUES(version))";
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, versionBeforeRestore + 1);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                System.err.println("❌ Error moving data version after restore: " + e.getMessage());
+            }
+        }
+        ReportCache.getInstance().clear();
+        resyncFromDatabase();
+    }
+    
+    private List<MedicalSupply> loadAllSupplies() throws SQLException {
+        List<MedicalSupply> supplies = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM supplies")) {
+            while (rs.next()) {
+                supplies.add(extractSupplyFromResultSet(rs));
+            }
+        }
+        return supplies;
+    }
+    
+    // Search supplies by name, category, location or supplier.
+    // Served from the in-memory index (ranked, typo tolerant) once it is built;
+    // until then falls back to a LIKE query on name/category.
     public List<MedicalSupply> searchSupplies(String searchTerm) {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(searchTerm);
+        }
+        
         List<MedicalSupply> supplies = new ArrayList<>();
         String sql = "SELECT * FROM supplies WHERE name LIKE ? OR category LIKE ? ORDER BY name";
         
@@ -583,8 +1927,12 @@ public class MedicalSupplyDAO {
     
     // Get low stock items
     public List<MedicalSupply> getLowStockItems() {
+        if (lowStockTracker.isReady()) {
+            return lowStockTracker.getItems();
+        }
+        
         List<MedicalSupply> supplies = new ArrayList<>();
-        String sql = "SELECT * FROM supplies WHERE quantity <= min_stock_level ORDER BY quantity ASC";
+        String sql = "SELECT * FROM supplies WHERE " + lowStockCondition() + " ORDER BY quantity ASC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -604,6 +1952,10 @@ public class MedicalSupplyDAO {
     
     // Get expiring soon items (within specified days)
     public List<MedicalSupply> getExpiringSoonItems(int daysThreshold) {
+        if (expiryTimeline.isReady()) {
+            return expiryTimeline.getExpiringWithin(daysThreshold);
+        }
+        
         List<MedicalSupply> supplies = new ArrayList<>();
         String sql = "SELECT * FROM supplies WHERE expiry_date <= DATE_ADD(CURDATE(), INTERVAL ? DAY) " +
                      "AND expiry_date >= CURDATE() ORDER BY expiry_date ASC";
@@ -657,6 +2009,10 @@ public class MedicalSupplyDAO {
     
     // Get expired items
     public List<MedicalSupply> getExpiredItems() {
+        if (expiryTimeline.isReady()) {
+            return expiryTimeline.getExpired();
+        }
+        
         List<MedicalSupply> supplies = new ArrayList<>();
         String sql = "SELECT * FROM supplies WHERE expiry_date < CURDATE() AND expiry_date IS NOT NULL ORDER BY expiry_date DESC";
         
@@ -678,6 +2034,10 @@ public class MedicalSupplyDAO {
     
     // Get items expiring in specific days
     public List<MedicalSupply> getExpiringInDays(int days) {
+        if (expiryTimeline.isReady()) {
+            return expiryTimeline.getExpiringWithin(days);
+        }
+        
         List<MedicalSupply> supplies = new ArrayList<>();
         String sql = "SELECT * FROM supplies WHERE expiry_date <= DATE_ADD(CURDATE(), INTERVAL ? DAY) " +
                      "AND expiry_date >= CURDATE() AND expiry_date IS NOT NULL ORDER BY expiry_date ASC";
@@ -700,24 +2060,119 @@ public class MedicalSupplyDAO {
         return supplies;
     }
     
-    // Dispose expired item
+    // Dispose expired item (zeroes it and records the OUT transaction)
     public boolean disposeExpiredItem(int itemId, String reason) {
-        String sql = "UPDATE supplies SET quantity = 0, notes = CONCAT(IFNULL(notes, ''), ?) WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            String note = "\n[Disposed on " + LocalDate.now() + ": " + reason + "]";
-            pstmt.setString(1, note);
-            pstmt.setInt(2, itemId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
             
-            return pstmt.executeUpdate() > 0;
+            try {
+                List<Transaction> disposals = new ArrayList<>();
+                int disposed = disposeInConnection(conn, "id = ? AND quantity > 0", itemId,
+                                                   reason, "admin", null, disposals);
+                conn.commit();
+                for (Transaction disposal : disposals) {
+                    quantityChanged(disposal.getSupplyId(), 0);
+                }
+                transactionsRecorded(disposals);
+                return disposed > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("Error disposing expired item: " + e.getMessage());
             return false;
         }
     }
     
+    // Dispose every expired item in one transaction: one set-based INSERT ... SELECT
+    // writes the OUT ledger rows and one set-based UPDATE zeroes the stock.
+    // Progress (0-100) is reported through the optional callback.
+    // Returns the number of items disposed, or -1 on error.
+    public int disposeAllExpiredItems(String reason, String performedBy, IntConsumer progress) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                List<Transaction> disposals = new ArrayList<>();
+                int disposed = disposeInConnection(conn,
+                    "expiry_date < CURDATE() AND expiry_date IS NOT NULL AND quantity > 0", null,
+                    reason, performedBy, progress, disposals);
+                conn.commit();
+                for (Transaction disposal : disposals) {
+                    quantityChanged(disposal.getSupplyId(), 0);
+                }
+                transactionsRecorded(disposals);
+                if (progress != null) progress.accept(100);
+                
+                System.out.println("✅ Disposed " + disposed + " expired item(s)");
+                return disposed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error disposing expired items: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    // Shared disposal steps; caller owns the transaction.
+    // The ledger row for each locked (and so disposed) supply is added to disposals.
+    private int disposeInConnection(Connection conn, String condition, Integer itemId,
+                                    String reason, String performedBy, IntConsumer progress,
+                                    List<Transaction> disposals) throws SQLException {
+        // Lock the matching rows first so the ledger and the update see the same set
+        String lockSql = "SELECT id, name, quantity FROM supplies WHERE " + condition + " FOR UPDATE";
+        String ledgerSql = "INSERT INTO transactions (supply_id, transaction_type, quantity_changed, " +
+                          "previous_quantity, new_quantity, reason, performed_by) " +
+                          "SELECT id, 'OUT', quantity, quantity, 0, ?, ? FROM supplies WHERE " + condition;
+        String updateSql = "UPDATE supplies SET quantity = 0, notes = CONCAT(IFNULL(notes, ''), ?) WHERE " + condition;
+        
+        int matched;
+        try (PreparedStatement lockStmt = conn.prepareStatement(lockSql)) {
+            if (itemId != null) lockStmt.setInt(1, itemId);
+            try (ResultSet rs = lockStmt.executeQuery()) {
+                while (rs.next()) {
+                    int quantity = rs.getInt("quantity");
+                    Transaction disposal = new Transaction(rs.getInt("id"), "OUT", quantity, quantity, 0,
+                                                           reason, performedBy);
+                    disposal.setSupplyName(rs.getString("name"));
+                    disposals.add(disposal);
+                }
+            }
+            matched = disposals.size();
+        }
+        if (progress != null) progress.accept(20);
+        if (matched == 0) {
+            return 0;
+        }
+        
+        try (PreparedStatement ledgerStmt = conn.prepareStatement(ledgerSql)) {
+            ledgerStmt.setString(1, reason);
+            ledgerStmt.setString(2, performedBy);
+            if (itemId != null) ledgerStmt.setInt(3, itemId);
+            ledgerStmt.executeUpdate();
+        }
+        ledgerRowsWritten(conn, disposals, false);
+        if (progress != null) progress.accept(60);
+        
+        int disposed;
+        try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+            updateStmt.setString(1, "\n[Disposed on " + LocalDate.now() + ": " + reason + "]");
+            if (itemId != null) updateStmt.setInt(2, itemId);
+            disposed = updateStmt.executeUpdate();
+        }
+        if (progress != null) progress.accept(90);
+        
+        return disposed;
+    }
+    
     // Save report
     public boolean saveReport(String reportType, String dateRange, String generatedBy, String filePath) {
         String fullReportType = reportType + " - " + dateRange;
@@ -743,6 +2198,53 @@ public class MedicalSupplyDAO {
         }
     }
     
+    // Records a report pack (report type -> file path) in one transaction, so the history
+    // shows all of the pack or none of it
+    public boolean saveReports(Map<String, String> filesByType, String dateRange, String generatedBy) {
+        String sql = "INSERT INTO reports (report_type, report_date, generated_by, file_path) VALUES (?, ?, ?, ?)";
+        
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            
+            java.sql.Date currentDate = new java.sql.Date(System.currentTimeMillis());
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Map.Entry<String, String> entry : filesByType.entrySet()) {
+                    pstmt.setString(1, entry.getKey() + " - " + dateRange);
+                    pstmt.setDate(2, currentDate);
+                    pstmt.setString(3, generatedBy);
+                    pstmt.setString(4, entry.getValue());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            
+            conn.commit();
+            return true;
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error saving report pack: " + e.getMessage());
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Error rolling back: " + ex.getMessage());
+                }
+            }
+            return false;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
     // Get all reports
     public List<Report> getAllReports() {
         List<Report> reports = new ArrayList<>();
@@ -804,6 +2306,142 @@ public class MedicalSupplyDAO {
         }
     }
     
+    // ===================== DASHBOARD SNAPSHOT =====================
+    public static final int RUNNING_OUT_DAYS = 14;
+    
+    // Loads every dashboard counter, the low-stock list and recent activity (with supply
+    // names) on one connection: one aggregate pass over supplies plus two list queries,
+    // instead of the separate count calls and a getSupplyById per activity row.
+    // Returns null if the database can't be reached.
+    public DashboardSnapshot getDashboardSnapshot(int recentDays, int recentLimit) {
+        String countsSql = "SELECT COUNT(*) as total_supplies, " +
+                          "COUNT(DISTINCT category) as total_categories, " +
+                          "COALESCE(SUM(quantity <= min_stock_level), 0) as low_stock_count, " +
+                          "COALESCE(SUM(expiry_date >= CURDATE() AND " +
+                          "expiry_date <= DATE_ADD(CURDATE(), INTERVAL 30 DAY)), 0) as expiring_soon_count, " +
+                          transactionCountSql() + " as transaction_count " +
+                          "FROM supplies";
+        String lowStockSql = "SELECT * FROM supplies WHERE " + lowStockCondition() + " ORDER BY quantity ASC";
+        // Supplies that run out within RUNNING_OUT_DAYS at their average daily use, i.e.
+        // quantity / (out / window) < days, kept in integers
+        String runningOutSql = "SELECT COUNT(*) FROM supplies s JOIN " +
+                              consumptionTable(ConsumptionStats.DEFAULT_WINDOW_DAYS) + " u ON u.supply_id = s.id " +
+                              "WHERE u.out_qty > 0 AND s.quantity * " + ConsumptionStats.DEFAULT_WINDOW_DAYS +
+                              " < u.out_qty * " + RUNNING_OUT_DAYS;
+        String activitySql = "SELECT t.*, s.name as supply_name FROM transactions t " +
+                            "LEFT JOIN supplies s ON t.supply_id = s.id " +
+                            "WHERE t.transaction_date >= DATE_SUB(NOW(), INTERVAL ? DAY) " +
+                            "ORDER BY t.transaction_date DESC, t.id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int totalSupplies, totalCategories, lowStockCount, expiringSoonCount, transactionCount;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(countsSql)) {
+                rs.next();
+                totalSupplies = rs.getInt("total_supplies");
+                totalCategories = rs.getInt("total_categories");
+                lowStockCount = rs.getInt("low_stock_count");
+                expiringSoonCount = rs.getInt("expiring_soon_count");
+                transactionCount = rs.getInt("transaction_count");
+            }
+            
+            List<MedicalSupply> lowStockItems = new ArrayList<>();
+            if (lowStockTracker.isReady()) {
+                lowStockItems = lowStockTracker.getItems();
+                lowStockCount = lowStockItems.size();
+            } else {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(lowStockSql)) {
+                    while (rs.next()) {
+                        lowStockItems.add(extractSupplyFromResultSet(rs));
+                    }
+                }
+            }
+            
+            int runningOutCount;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(runningOutSql)) {
+                runningOutCount = rs.next() ? rs.getInt(1) : 0;
+            }
+            
+            List<Transaction> recentActivity = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(activitySql)) {
+                pstmt.setInt(1, recentDays);
+                pstmt.setInt(2, recentLimit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Transaction transaction = extractTransactionFromResultSet(rs);
+                        transaction.setSupplyName(rs.getString("supply_name"));
+                        recentActivity.add(transaction);
+                    }
+                }
+            }
+            
+            return new DashboardSnapshot(totalSupplies, totalCategories, lowStockCount,
+                                         expiringSoonCount, transactionCount, runningOutCount,
+                                         lowStockItems, recentActivity);
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading dashboard snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // ===================== REPORT SNAPSHOT =====================
+    // Reads every supply and the transaction totals since activitySince (null = all time)
+    // inside one consistent-snapshot transaction, so a report pack sees a single point in
+    // time even while stock keeps moving. Returns null if the database can't be reached.
+    public ReportSnapshot getReportSnapshot(LocalDate activitySince) {
+        String suppliesSql = "SELECT * FROM supplies ORDER BY name";
+        String activitySql = "SELECT transaction_type, COUNT(*) as transaction_count, " +
+                            "COALESCE(SUM(ABS(quantity_changed)), 0) as quantity_total " +
+                            "FROM transactions" +
+                            (activitySince != null ? " WHERE transaction_date >= ?" : "") +
+                            " GROUP BY transaction_type ORDER BY transaction_type";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    // The snapshot only holds under REPEATABLE READ; set it for this transaction only
+                    stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                    stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                }
+                
+                List<MedicalSupply> supplies = new ArrayList<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(suppliesSql)) {
+                    while (rs.next()) {
+                        supplies.add(extractSupplyFromResultSet(rs));
+                    }
+                }
+                
+                Map<String, Integer> counts = new java.util.LinkedHashMap<>();
+                Map<String, Long> quantities = new java.util.LinkedHashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(activitySql)) {
+                    if (activitySince != null) {
+                        pstmt.setTimestamp(1, Timestamp.valueOf(activitySince.atStartOfDay()));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            counts.put(rs.getString("transaction_type"), rs.getInt("transaction_count"));
+                            quantities.put(rs.getString("transaction_type"), rs.getLong("quantity_total"));
+                        }
+                    }
+                }
+                
+                conn.commit();
+                return new ReportSnapshot(supplies, counts, quantities, activitySince);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading report snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Dashboard statistics methods
     public int getTotalSupplies() {
         String sql = "SELECT COUNT(*) as total FROM supplies";
@@ -842,7 +2480,11 @@ public class MedicalSupplyDAO {
     }
     
     public int getLowStockCount() {
-        String sql = "SELECT COUNT(*) as total FROM supplies WHERE quantity <= min_stock_level";
+        if (lowStockTracker.isReady()) {
+            return lowStockTracker.count();
+        }
+        
+        String sql = "SELECT COUNT(*) as total FROM supplies WHERE " + lowStockCondition();
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -860,6 +2502,10 @@ public class MedicalSupplyDAO {
     }
     
     public int getExpiringSoonCount() {
+        if (expiryTimeline.isReady()) {
+            return expiryTimeline.countExpiringWithin(30);
+        }
+        
         String sql = "SELECT COUNT(*) as total FROM supplies WHERE expiry_date <= DATE_ADD(CURDATE(), INTERVAL 30 DAY) " +
                      "AND expiry_date >= CURDATE() AND expiry_date IS NOT NULL";
         
@@ -887,27 +2533,32 @@ public class MedicalSupplyDAO {
             
             // Check if transactions table exists
             DatabaseMetaData meta = conn.getMetaData();
-            ResultSet tables = meta.getTables(null, null, "transactions", null);
+            boolean tableExists;
+            try (ResultSet tables = meta.getTables(null, null, "transactions", null)) {
+                tableExists = tables.next();
+            }
             
-            if (tables.next()) {
+            if (tableExists) {
                 System.out.println("✅ Transactions table: EXISTS");
                 
-                // Count transactions
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM transactions");
-                if (rs.next()) {
-                    System.out.println("📊 Total transactions: " + rs.getInt("count"));
-                }
-                
-                // Show recent transactions
-                rs = stmt.executeQuery("SELECT COUNT(*) as count FROM transactions WHERE transaction_date >= DATE_SUB(NOW(), INTERVAL 1 DAY)");
-                if (rs.next()) {
-                    System.out.println("📊 Today's transactions: " + rs.getInt("count"));
+                // Statement is closed explicitly so it doesn't linger on the pooled connection
+                try (Statement stmt = conn.createStatement()) {
+                    // Count transactions
+                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM transactions");
+                    if (rs.next()) {
+                        System.out.println("📊 Total transactions: " + rs.getInt("count"));
+                    }
+                    
+                    // Show recent transactions
+                    rs = stmt.executeQuery("SELECT COUNT(*) as count FROM transactions WHERE transaction_date >= DATE_SUB(NOW(), INTERVAL 1 DAY)");
+                    if (rs.next()) {
+                        System.out.println("📊 Today's transactions: " + rs.getInt("count"));
+                    }
                 }
                 
             } else {
                 System.out.println("❌ Transactions table: DOES NOT EXIST");
-                System.out.println("   Run: CREATE TABLE transactions (...)");
+                System.out.println("   Restart the application to run the schema migrations (SchemaMigrator)");
             }
             
         } catch (SQLException e) {
@@ -167,15 +167,17 @@ public class QuantityDialog extends JDialog {
                             reason = isAddOperation ? "Manual addition" : "Manual removal";
                         }
                         
-                        // Use the enhanced method with transaction recording
-                        boolean result = medicalSupplyDAO.updateQuantity(
+                        // Relative adjustment: the database applies the delta atomically,
+                        // so a concurrent change from another station isn't overwritten
+                        int delta = isAddOperation ? quantityChange : -quantityChange;
+                        Transaction result = medicalSupplyDAO.adjustQuantity(
                             supply.getId(), 
-                            newQuantity, 
+                            delta, 
                             performedBy,
                             reason
                         );
                         
-                        if (result) {
+                        if (result != null) {
                             String message = String.format(
                                 "✅ Quantity updated successfully!\n\n" +
                                 "Item: %s\n" +
@@ -185,17 +187,17 @@ public class QuantityDialog extends JDialog {
                                 "Reason: %s\n\n" +
                                 "Transaction has been recorded.",
                                 supply.getName(), 
-                                supply.getQuantity(),
+                                result.getPreviousQuantity(),
                                 isAddOperation ? "Added" : "Removed", 
                                 quantityChange, 
-                                newQuantity,
+                                result.getNewQuantity(),
                                 reason
                             );
                             
                             // Check if now below minimum stock after operation
                             String warning = "";
-                            if (newQuantity <= supply.getMinStockLevel()) {
-                                if (newQuantity == 0) {
+                            if (result.getNewQuantity() <= supply.getMinStockLevel()) {
+                                if (result.getNewQuantity() == 0) {
                                     warning = "\n⚠️ WARNING: Item is now OUT OF STOCK!";
                                 } else {
                                     warning = "\n⚠️ WARNING: Item is now LOW STOCK!";
@@ -207,11 +209,14 @@ public class QuantityDialog extends JDialog {
                                 "Success",
                                 JOptionPane.INFORMATION_MESSAGE);
                             
+                            supply.setQuantity(result.getNewQuantity());
                             success = true;
                             dispose();
                         } else {
                             JOptionPane.showMessageDialog(QuantityDialog.this,
-                                "❌ Failed to update quantity!\nPlease try again.",
+                                "❌ Failed to update quantity!\n" +
+                                "The stock may have been changed from another station.\n" +
+                                "Please refresh and try again.",
                                 "Error",
                                 JOptionPane.ERROR_MESSAGE);
                         }
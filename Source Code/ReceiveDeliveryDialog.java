@@ -0,0 +1,203 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReceiveDeliveryDialog extends JDialog {
+    private boolean success = false;
+    private MedicalSupplyDAO medicalSupplyDAO;
+    private DefaultTableModel linesModel;
+    private JTable linesTable;
+    private JTextField referenceField;
+    private List<MedicalSupply> supplies;
+
+    public ReceiveDeliveryDialog() {
+        this.medicalSupplyDAO = new MedicalSupplyDAO();
+        this.supplies = medicalSupplyDAO.getAllSupplies();
+        initializeUI();
+    }
+
+    private void initializeUI() {
+        setTitle("Receive Delivery");
+        setModal(true);
+        setSize(650, 500);
+        setLocationRelativeTo(null);
+
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("Receive Delivery", JLabel.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+
+        // Delivery reference (donor, DR number, etc.) goes into every ledger row
+        JPanel referencePanel = new JPanel(new BorderLayout(10, 0));
+        referencePanel.add(new JLabel("Delivery Reference:"), BorderLayout.WEST);
+        referenceField = new JTextField();
+        referenceField.putClientProperty("JTextField.placeholderText", "Donor, supplier or receipt number");
+        referencePanel.add(referenceField, BorderLayout.CENTER);
+
+        JPanel northPanel = new JPanel(new BorderLayout(10, 10));
+        northPanel.add(titleLabel, BorderLayout.NORTH);
+        northPanel.add(referencePanel, BorderLayout.CENTER);
+
+        // One line per received item
+        String[] columns = {"Supply", "Quantity Received"};
+        linesModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public Class<?> getColumnClass(int columnIndex) {
+                return columnIndex == 1 ? Integer.class : Object.class;
+            }
+        };
+
+        linesTable = new JTable(linesModel);
+        linesTable.setRowHeight(28);
+        linesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        linesTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
+
+        JComboBox<MedicalSupply> supplyCombo = new JComboBox<>(supplies.toArray(new MedicalSupply[0]));
+        supplyCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                setText(describe(value));
+                return this;
+            }
+        });
+        linesTable.getColumnModel().getColumn(0).setCellEditor(new DefaultCellEditor(supplyCombo));
+        linesTable.getColumnModel().getColumn(0).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(describe(value));
+            }
+        });
+        linesTable.getColumnModel().getColumn(0).setPreferredWidth(420);
+
+        JScrollPane scrollPane = new JScrollPane(linesTable);
+
+        JButton addLineButton = new JButton("Add Line");
+        JButton removeLineButton = new JButton("Remove Line");
+        JButton postButton = new JButton("Post Delivery");
+        JButton cancelButton = new JButton("Cancel");
+
+        postButton.setBackground(new Color(40, 167, 69));
+        postButton.setForeground(Color.WHITE);
+        postButton.setFocusPainted(false);
+        cancelButton.setBackground(new Color(108, 117, 125));
+        cancelButton.setForeground(Color.WHITE);
+        cancelButton.setFocusPainted(false);
+
+        JPanel linePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        linePanel.add(addLineButton);
+        linePanel.add(removeLineButton);
+
+        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        actionPanel.add(postButton);
+        actionPanel.add(cancelButton);
+
+        JPanel buttonPanel = new JPanel(new BorderLayout());
+        buttonPanel.add(linePanel, BorderLayout.WEST);
+        buttonPanel.add(actionPanel, BorderLayout.EAST);
+
+        mainPanel.add(northPanel, BorderLayout.NORTH);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+
+        addLineButton.addActionListener(e -> addLine());
+        removeLineButton.addActionListener(e -> {
+            int row = linesTable.getSelectedRow();
+            if (row >= 0) {
+                if (linesTable.isEditing()) {
+                    linesTable.getCellEditor().cancelCellEditing();
+                }
+                linesModel.removeRow(row);
+            }
+        });
+        postButton.addActionListener(e -> postDelivery());
+        cancelButton.addActionListener(e -> dispose());
+
+        addLine();
+    }
+
+    private void addLine() {
+        linesModel.addRow(new Object[]{supplies.isEmpty() ? null : supplies.get(0), null});
+        int row = linesModel.getRowCount() - 1;
+        linesTable.setRowSelectionInterval(row, row);
+    }
+
+    private void postDelivery() {
+        if (linesTable.isEditing()) {
+            linesTable.getCellEditor().stopCellEditing();
+        }
+
+        String reference = referenceField.getText().trim();
+        String reason = reference.isEmpty() ? "Delivery received" : "Delivery received: " + reference;
+        String performedBy = "admin"; // Replace with actual username from login
+
+        List<Adjustment> adjustments = new ArrayList<>();
+        for (int row = 0; row < linesModel.getRowCount(); row++) {
+            Object supplyValue = linesModel.getValueAt(row, 0);
+            Object quantityValue = linesModel.getValueAt(row, 1);
+
+            if (!(supplyValue instanceof MedicalSupply)) {
+                showError("Line " + (row + 1) + ": please select a supply");
+                return;
+            }
+            if (!(quantityValue instanceof Integer) || (Integer) quantityValue <= 0) {
+                showError("Line " + (row + 1) + ": please enter a positive quantity");
+                return;
+            }
+
+            MedicalSupply supply = (MedicalSupply) supplyValue;
+            adjustments.add(new Adjustment(supply.getId(), (Integer) quantityValue, reason, performedBy));
+        }
+
+        if (adjustments.isEmpty()) {
+            showError("Add at least one line to post");
+            return;
+        }
+
+        List<Transaction> recorded = medicalSupplyDAO.applyAdjustments(adjustments);
+
+        if (recorded != null) {
+            int totalUnits = 0;
+            for (Transaction transaction : recorded) {
+                totalUnits += transaction.getQuantityChanged();
+            }
+            JOptionPane.showMessageDialog(this,
+                "✅ Delivery posted successfully!\n\n" +
+                "Lines: " + recorded.size() + "\n" +
+                "Total units received: " + totalUnits + "\n\n" +
+                "Transactions have been recorded.",
+                "Success",
+                JOptionPane.INFORMATION_MESSAGE);
+            success = true;
+            dispose();
+        } else {
+            JOptionPane.showMessageDialog(this,
+                "❌ Failed to post delivery!\nNo quantities were changed. Please try again.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String describe(Object value) {
+        if (value instanceof MedicalSupply) {
+            MedicalSupply supply = (MedicalSupply) value;
+            return supply.getName() + " (" + supply.getCategory() + ") - Qty: " + supply.getQuantity();
+        }
+        return value != null ? value.toString() : "";
+    }
+
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(this, message, "Validation Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers finished reports by what they were generated from: report type, date range,
+ * user, day, and the data version stamp (MedicalSupplyDAO.getDataVersion). If nothing
+ * has changed since, the report on disk is still correct and can simply be copied.
+ *
+ * Only the file location and the preview text are kept, not the report, so memory
+ * stays small however large the reports are. An entry is dropped if its file has been
+ * deleted or modified since it was written.
+ */
+public class ReportCache {
+    private static final int MAX_ENTRIES = 32;
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    // Everything that shows up in a report's content
+    public static class Key {
+        private final String reportType;
+        private final String dateRange;
+        private final String generatedBy;
+        private final LocalDate day;        // The header date, and the expiry days-left
+        private final String dataVersion;
+
+        public Key(String reportType, String dateRange, String generatedBy, LocalDate day, String dataVersion) {
+            this.reportType = reportType;
+            this.dateRange = dateRange;
+            this.generatedBy = generatedBy;
+            this.day = day;
+            this.dataVersion = dataVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return reportType.equals(other.reportType) && dateRange.equals(other.dateRange) &&
+                   Objects.equals(generatedBy, other.generatedBy) && day.equals(other.day) &&
+                   dataVersion.equals(other.dataVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reportType, dateRange, generatedBy, day, dataVersion);
+        }
+
+        @Override
+        public String toString() {
+            return reportType + " / " + dateRange + " @ " + dataVersion;
+        }
+    }
+
+    public static class Entry {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final String preview;           // First lines of the report
+        private final long linesPastPreview;
+        private final long rows;
+
+        Entry(File file, long size, long lastModified, String preview, long linesPastPreview, long rows) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.preview = preview;
+            this.linesPastPreview = linesPastPreview;
+            this.rows = rows;
+        }
+
+        public File getFile() { return file; }
+        public String getPreview() { return preview; }
+        public long getLinesPastPreview() { return linesPastPreview; }
+        public long getRows() { return rows; }
+
+        // Still exactly what we wrote?
+        boolean isIntact() {
+            return file.isFile() && file.length() == size && file.lastModified() == lastModified;
+        }
+    }
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    // The cached report for this key, or null if there isn't a usable one
+    public synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isIntact()) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    // Call once the report file is in its final place
+    public synchronized void put(Key key, File file, String preview, long linesPastPreview, long rows) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            entries.put(key, new Entry(file, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                                       preview, linesPastPreview, rows));
+        } catch (IOException e) {
+            System.err.println("⚠️ Report not cached, can't read " + file + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // Copies a cached report to a new target (nothing to do if it is the same file)
+    static void copyTo(Entry entry, Path target) throws IOException {
+        if (Files.exists(target) && Files.isSameFile(entry.getFile().toPath(), target)) {
+            return;
+        }
+        Path part = StreamingReportWriter.partFile(target.toFile());
+        try {
+            Files.copy(entry.getFile().toPath(), part, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            StreamingReportWriter.deletePart(part);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("[size=%d/%d, hits=%d, misses=%d]", entries.size(), MAX_ENTRIES, hits, misses);
+    }
+}
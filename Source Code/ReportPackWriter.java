@@ -0,0 +1,299 @@
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Generates every report type as one pack. The data is read once, in a single
+ * consistent-snapshot transaction (MedicalSupplyDAO.getReportSnapshot). The reports
+ * are then formatted concurrently from that shared, read-only snapshot on a small
+ * bounded pool, instead of each report querying the database on its own.
+ *
+ * Files land in the chosen folder as "<type>_<date>.csv", plus a pack summary. They
+ * are all written as .part files first and renamed into place only if every report
+ * succeeded. The pack is then recorded in the reports table in one transaction.
+ */
+public class ReportPackWriter extends SwingWorker<Integer, Void> {
+    public static final String PACK_SUMMARY = "Report Pack Summary";
+
+    static final String[] PACK_TYPES = {
+        StreamingReportWriter.INVENTORY_SUMMARY,
+        StreamingReportWriter.LOW_STOCK,
+        StreamingReportWriter.EXPIRY,
+        StreamingReportWriter.CATEGORY_SUMMARY
+    };
+
+    // One thread per report at most, never more than the machine has
+    private static final int MAX_THREADS = Math.max(1, Math.min(PACK_TYPES.length,
+            Runtime.getRuntime().availableProcessors()));
+
+    private final String dateRange;
+    private final String generatedBy;
+    private final File directory;
+    private Runnable onFinished;
+
+    private final Map<String, File> files = new LinkedHashMap<>();
+    private volatile boolean saved = false;
+    private volatile Exception error;
+
+    public ReportPackWriter(String dateRange, String generatedBy, File directory) {
+        this.dateRange = dateRange;
+        this.generatedBy = generatedBy;
+        this.directory = directory;
+    }
+
+    // Runs on the EDT when the worker is done, including after a cancel
+    public ReportPackWriter onFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+        return this;
+    }
+
+    // Report type -> file, once the pack is done
+    public Map<String, File> getFiles() {
+        return files;
+    }
+
+    // Whether the pack made it into the reports table
+    public boolean isSaved() {
+        return saved;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    // Start of the transaction window for a date range choice; null = all time
+    static LocalDate rangeStart(String dateRange, LocalDate today) {
+        switch (dateRange) {
+            case "Last 7 days":
+                return today.minusDays(7);
+            case "Last 30 days":
+                return today.minusDays(30);
+            case "Last 90 days":
+                return today.minusDays(90);
+            case "This Year":
+                return today.withDayOfYear(1);
+            default:
+                return null;
+        }
+    }
+
+    // ===================== GENERATION =====================
+    @Override
+    protected Integer doInBackground() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        List<Path> parts = new ArrayList<>();
+        boolean written = false;
+        ExecutorService executor = null;
+
+        try {
+            ReportSnapshot snapshot = new MedicalSupplyDAO().getReportSnapshot(rangeStart(dateRange, today));
+            if (snapshot == null) {
+                throw new IOException("Could not read the inventory from the database");
+            }
+            System.out.println("📊 Report pack snapshot: " + snapshot);
+            setProgress(10);
+
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+                Thread thread = new Thread(r, "report-pack-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            ExecutorCompletionService<Long> completion = new ExecutorCompletionService<>(executor);
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            List<Future<Long>> futures = new ArrayList<>();
+
+            for (String type : PACK_TYPES) {
+                File file = new File(directory, fileName(type, today));
+                Path part = StreamingReportWriter.partFile(file);
+                files.put(type, file);
+                parts.add(part);
+                futures.add(completion.submit(() -> writeReport(type, snapshot, today, part)));
+            }
+
+            for (int done = 0; done < futures.size(); done++) {
+                if (isCancelled()) {
+                    break;
+                }
+                completion.take().get();
+                setProgress(10 + (done + 1) * 80 / futures.size());
+            }
+            if (isCancelled()) {
+                futures.forEach(f -> f.cancel(true));
+                System.out.println("⚠️ Report pack cancelled");
+                return 0;
+            }
+            for (int i = 0; i < PACK_TYPES.length; i++) {
+                rowCounts.put(PACK_TYPES[i], futures.get(i).get());
+            }
+
+            File summaryFile = new File(directory, fileName(PACK_SUMMARY, today));
+            Path summaryPart = StreamingReportWriter.partFile(summaryFile);
+            parts.add(summaryPart);
+            writeSummary(snapshot, rowCounts, today, summaryPart);
+            files.put(PACK_SUMMARY, summaryFile);
+
+            // Every report is complete; only now do they replace anything in the folder
+            for (File file : files.values()) {
+                Files.move(StreamingReportWriter.partFile(file), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            written = true;
+            setProgress(95);
+
+            Map<String, String> paths = new LinkedHashMap<>();
+            files.forEach((type, file) -> paths.put(type, file.getAbsolutePath()));
+            saved = new MedicalSupplyDAO().saveReports(paths, dateRange, generatedBy);
+            setProgress(100);
+
+            System.out.println("📊 Report pack of " + files.size() + " file(s) written in " +
+                               (System.nanoTime() - start) / 1_000_000 + " ms on " + MAX_THREADS + " thread(s)");
+            return files.size();
+
+        } catch (ExecutionException e) {
+            if (isCancelled()) {
+                System.out.println("⚠️ Report pack cancelled");
+                return 0;
+            }
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            error = cause instanceof Exception ? (Exception) cause : e;
+            System.err.println("❌ Report pack failed: " + cause.getMessage());
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            System.err.println("❌ Report pack failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (!written) {
+                parts.forEach(StreamingReportWriter::deletePart);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    protected void done() {
+        if (onFinished != null) {
+            onFinished.run();
+        }
+    }
+
+    private static String fileName(String type, LocalDate today) {
+        return type.toLowerCase().replace(" ", "_") + "_" + today + ".csv";
+    }
+
+    // Formats one report from the snapshot; runs on a pack thread. Returns the row count.
+    private long writeReport(String type, ReportSnapshot snapshot, LocalDate today, Path part) throws IOException {
+        StreamingReportWriter.Section section = StreamingReportWriter.sectionFor(type);
+        long rows = 0;
+        try (BufferedWriter out = StreamingReportWriter.openBuffered(part)) {
+            StreamingReportWriter.LineSink sink = line -> {
+                out.write(line);
+                out.write('\n');
+            };
+            StreamingReportWriter.writeHeader(sink, type, dateRange, generatedBy, today, section);
+
+            Iterator<Object[]> it = rows(type, snapshot.getSupplies(), today).iterator();
+            while (it.hasNext()) {
+                if (isCancelled() || Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException();
+                }
+                sink.line(StreamingReportWriter.toCsv(it.next()));
+                rows++;
+            }
+
+            StreamingReportWriter.writeFooter(sink);
+        }
+        return rows;
+    }
+
+    // Same selection and order as the report's own query (supplies arrive ordered by name).
+    // Rows are formatted lazily as the writer pulls them.
+    private static Stream<Object[]> rows(String type, List<MedicalSupply> supplies, LocalDate today) {
+        switch (type) {
+            case StreamingReportWriter.INVENTORY_SUMMARY:
+                return supplies.stream()
+                        .map(s -> StreamingReportWriter.inventoryRow(s.getName(), s.getCategory(), s.getQuantity(),
+                                                                     s.getMinStockLevel(), s.getExpiryDate()));
+            case StreamingReportWriter.LOW_STOCK:
+                return supplies.stream()
+                        .filter(s -> s.getQuantity() <= s.getMinStockLevel())
+                        .sorted(Comparator.comparingInt(MedicalSupply::getQuantity))
+                        .map(s -> StreamingReportWriter.lowStockRow(s.getName(), s.getCategory(),
+                                                                    s.getQuantity(), s.getMinStockLevel()));
+            case StreamingReportWriter.EXPIRY:
+                return supplies.stream()
+                        .filter(s -> StreamingReportWriter.inExpiryWindow(s.getExpiryDate(), today))
+                        .sorted(Comparator.comparing(MedicalSupply::getExpiryDate))
+                        .map(s -> StreamingReportWriter.expiryRow(s.getName(), s.getCategory(),
+                                                                  s.getQuantity(), s.getExpiryDate(), today));
+            case StreamingReportWriter.CATEGORY_SUMMARY:
+                Map<String, long[]> byCategory = new TreeMap<>(Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+                for (MedicalSupply s : supplies) {
+                    long[] totals = byCategory.computeIfAbsent(s.getCategory(), c -> new long[2]);
+                    totals[0]++;
+                    totals[1] += s.getQuantity();
+                }
+                return byCategory.entrySet().stream()
+                        .map(e -> StreamingReportWriter.categoryRow(e.getKey(), (int) e.getValue()[0], e.getValue()[1]));
+            default:
+                return Stream.empty();
+        }
+    }
+
+    // What went into the pack, and the stock movements in its date range
+    private void writeSummary(ReportSnapshot snapshot, Map<String, Long> rowCounts, LocalDate today,
+                              Path part) throws IOException {
+        try (BufferedWriter out = StreamingReportWriter.openBuffered(part)) {
+            StreamingReportWriter.LineSink sink = line -> {
+                out.write(line);
+                out.write('\n');
+            };
+            sink.line("MEDICAL INVENTORY MANAGEMENT SYSTEM");
+            sink.line("====================================");
+            sink.line("Report Type: " + PACK_SUMMARY);
+            sink.line("Date Range: " + dateRange);
+            sink.line("Generated: " + today);
+            sink.line("Generated By: " + generatedBy);
+            sink.line("Data As Of: " + snapshot.getLoadedAt().withNano(0));
+            sink.line("");
+            sink.line("Reports");
+            sink.line("Report,Rows");
+            for (Map.Entry<String, Long> entry : rowCounts.entrySet()) {
+                sink.line(StreamingReportWriter.toCsv(new Object[]{entry.getKey(), entry.getValue()}));
+            }
+            sink.line("");
+            sink.line("Transactions " + (snapshot.getActivitySince() != null
+                    ? "since " + snapshot.getActivitySince() : "(all time)"));
+            sink.line("Type,Transactions,Units");
+            for (Map.Entry<String, Integer> entry : snapshot.getTransactionCounts().entrySet()) {
+                sink.line(StreamingReportWriter.toCsv(new Object[]{entry.getKey(), entry.getValue(),
+                        snapshot.getQuantitiesChanged().get(entry.getKey())}));
+            }
+            StreamingReportWriter.writeFooter(sink);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// One consistent read of everything a report pack needs, loaded by
+// MedicalSupplyDAO.getReportSnapshot(): every supply, plus transaction totals by type
+// for the pack's date range. Shared read-only by the report threads.
+public class ReportSnapshot {
+    private final List<MedicalSupply> supplies;               // Ordered by name
+    private final Map<String, Integer> transactionCounts;     // transaction_type -> transactions in range
+    private final Map<String, Long> quantitiesChanged;        // transaction_type -> units moved in range
+    private final LocalDate activitySince;                    // Null = all time
+    private final LocalDateTime loadedAt;
+
+    public ReportSnapshot(List<MedicalSupply> supplies, Map<String, Integer> transactionCounts,
+                          Map<String, Long> quantitiesChanged, LocalDate activitySince) {
+        this.supplies = Collections.unmodifiableList(supplies);
+        this.transactionCounts = Collections.unmodifiableMap(transactionCounts);
+        this.quantitiesChanged = Collections.unmodifiableMap(quantitiesChanged);
+        this.activitySince = activitySince;
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    public List<MedicalSupply> getSupplies() { return supplies; }
+    public Map<String, Integer> getTransactionCounts() { return transactionCounts; }
+    public Map<String, Long> getQuantitiesChanged() { return quantitiesChanged; }
+    public LocalDate getActivitySince() { return activitySince; }
+    public LocalDateTime getLoadedAt() { return loadedAt; }
+
+    @Override
+    public String toString() {
+        return String.format("ReportSnapshot[supplies=%d, transactionTypes=%d, since=%s, at %s]",
+            supplies.size(), transactionCounts.size(), activitySince != null ? activitySince : "all time", loadedAt);
+    }
+}
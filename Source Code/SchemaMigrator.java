@@ -0,0 +1,365 @@
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned schema bootstrap, run once at startup (Main) before the first screen opens.
+ * Creates the tables on a fresh database and upgrades existing ones to the latest
+ * version, including the indexes the DAO queries depend on. Applied versions are
+ * recorded in schema_version.
+ *
+ * MySQL DDL auto-commits, so a migration can't be rolled back halfway. Every step is
+ * written to be safe to run again (IF NOT EXISTS, or an information_schema check first)
+ * and a failed migration simply runs again on the next start.
+ */
+public class SchemaMigrator {
+    private static final String SCHEMA = "medical_inventory";
+
+    // Set by migrate(); the DAO only uses the generated low-stock column once it exists
+    private static volatile boolean lowStockFlagAvailable = false;
+    // Likewise the daily rollup; until it exists consumption is read from the ledger
+    private static volatile boolean dailyRollupAvailable = false;
+    private static volatile boolean transactionSummaryAvailable = false;
+    private static volatile boolean dataVersionAvailable = false;
+    private static volatile String status = "Schema not checked yet";
+
+    // A single DDL step; runs only when its check says it's still needed
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        final int version;
+        final String description;
+        final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = Arrays.asList(steps);
+        }
+    }
+
+    // Expected index -> table, verified after migrating
+    private static final String[][] REQUIRED_INDEXES = {
+        {"transactions", "idx_transactions_date"},
+        {"transactions", "idx_transactions_supply_date"},
+        {"transactions", "idx_transactions_type_date"},
+        {"transactions", "idx_transactions_user_date"},
+        {"transactions", "ft_transactions_reason"},
+        {"supplies", "idx_supplies_name"},
+        {"supplies", "idx_supplies_category"},
+        {"supplies", "idx_supplies_expiry"},
+        {"supplies", "idx_supplies_low_stock"},
+        {"reports", "idx_reports_created"},
+        {"supply_daily_rollup", "idx_rollup_day"},
+        {"transaction_summary", "idx_summary_count"}
+    };
+
+    // ===================== MIGRATIONS =====================
+    // Append only - never edit a migration that has shipped
+    private static List<Migration> migrations() {
+        List<Migration> list = new ArrayList<>();
+
+        list.add(new Migration(1, "Baseline tables",
+            sql("CREATE TABLE IF NOT EXISTS users (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "username VARCHAR(50) NOT NULL UNIQUE, " +
+                "password VARCHAR(255) NOT NULL, " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB"),
+            sql("CREATE TABLE IF NOT EXISTS supplies (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "name VARCHAR(255) NOT NULL, " +
+                "category VARCHAR(100), " +
+                "quantity INT NOT NULL DEFAULT 0, " +
+                "expiry_date DATE NULL, " +
+                "location VARCHAR(255), " +
+                "supplier VARCHAR(255), " +
+                "min_stock_level INT NOT NULL DEFAULT 0, " +
+                "notes TEXT, " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB"),
+            sql("CREATE TABLE IF NOT EXISTS transactions (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "supply_id INT NOT NULL, " +
+                "transaction_type VARCHAR(10) NOT NULL, " +
+                "quantity_changed INT NOT NULL, " +
+                "previous_quantity INT NOT NULL, " +
+                "new_quantity INT NOT NULL, " +
+                "reason VARCHAR(500), " +
+                "performed_by VARCHAR(50), " +
+                "transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB"),
+            sql("CREATE TABLE IF NOT EXISTS reports (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "report_type VARCHAR(100) NOT NULL, " +
+                "report_date DATE, " +
+                "generated_by VARCHAR(50), " +
+                "file_path VARCHAR(500), " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB"),
+            // Matches the default credentials shown on the login screen
+            sql("INSERT IGNORE INTO users (username, password) VALUES ('admin', 'admin123')")));
+
+        list.add(new Migration(2, "Ledger and supply indexes",
+            // Keyset paging of the history: ORDER BY transaction_date DESC, id DESC
+            index("transactions", "idx_transactions_date", "(transaction_date, id)"),
+            // TransactionFilter columns, each with the date so the range and ORDER BY use it too
+            index("transactions", "idx_transactions_supply_date", "(supply_id, transaction_date, id)"),
+            index("transactions", "idx_transactions_type_date", "(transaction_type, transaction_date)"),
+            index("transactions", "idx_transactions_user_date", "(performed_by, transaction_date)"),
+            index("supplies", "idx_supplies_name", "(name)"),
+            index("supplies", "idx_supplies_category", "(category, name)"),
+            index("supplies", "idx_supplies_expiry", "(expiry_date)"),
+            index("reports", "idx_reports_created", "(created_at)")));
+
+        list.add(new Migration(3, "Full-text index on transaction reasons",
+            // Lets the reason filter use MATCH ... AGAINST instead of scanning with LIKE
+            index("transactions", "ft_transactions_reason", "FULLTEXT", "(reason)")));
+
+        list.add(new Migration(4, "Indexed low-stock flag",
+            // quantity <= min_stock_level compares two columns, so no index can serve it.
+            // A stored generated column turns it into an indexable equality.
+            column("supplies", "is_low_stock",
+                   "TINYINT(1) AS (quantity <= min_stock_level) STORED"),
+            index("supplies", "idx_supplies_low_stock", "(is_low_stock, quantity)")));
+
+        list.add(new Migration(5, "Daily consumption rollup",
+            // One row per supply per day with the IN/OUT totals, kept up to date by the DAO
+            // in the same transaction as the ledger insert
+            sql("CREATE TABLE IF NOT EXISTS supply_daily_rollup (" +
+                "supply_id INT NOT NULL, " +
+                "day DATE NOT NULL, " +
+                "in_qty BIGINT NOT NULL DEFAULT 0, " +
+                "out_qty BIGINT NOT NULL DEFAULT 0, " +
+                "in_count INT NOT NULL DEFAULT 0, " +
+                "out_count INT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (supply_id, day)" +
+                ") ENGINE=InnoDB"),
+            // Window queries read every supply for a range of days; covering, so no row lookups
+            index("supply_daily_rollup", "idx_rollup_day", "(day, supply_id, in_qty, out_qty)"),
+            // Backfill from the existing ledger in one pass. Overwrites rather than adds,
+            // so running it again after a failed start doesn't double count.
+            sql("INSERT INTO supply_daily_rollup (supply_id, day, in_qty, out_qty, in_count, out_count) " +
+                "SELECT supply_id, DATE(transaction_date), " +
+                "SUM(CASE WHEN transaction_type = 'IN' THEN quantity_changed ELSE 0 END), " +
+                "SUM(CASE WHEN transaction_type = 'OUT' THEN quantity_changed ELSE 0 END), " +
+                "SUM(transaction_type = 'IN'), SUM(transaction_type = 'OUT') " +
+                "FROM transactions WHERE transaction_date IS NOT NULL " +
+                "GROUP BY supply_id, DATE(transaction_date) " +
+                "ON DUPLICATE KEY UPDATE in_qty = VALUES(in_qty), out_qty = VALUES(out_qty), " +
+                "in_count = VALUES(in_count), out_count = VALUES(out_count)")));
+
+        list.add(new Migration(6, "Transaction summary counters",
+            // Ledger counts per type, per day and per user, kept by the DAO on every ledger
+            // write and reconciled against the ledger nightly
+            sql("CREATE TABLE IF NOT EXISTS transaction_summary (" +
+                "dimension VARCHAR(10) NOT NULL, " +
+                "dim_key VARCHAR(50) NOT NULL, " +
+                "txn_count BIGINT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (dimension, dim_key)" +
+                ") ENGINE=InnoDB"),
+            // Most active user without sorting every user
+            index("transaction_summary", "idx_summary_count", "(dimension, txn_count)"),
+            // Backfill; overwrites so a rerun doesn't double count
+            sql("INSERT INTO transaction_summary (dimension, dim_key, txn_count) " +
+                "SELECT 'type', transaction_type, COUNT(*) FROM transactions GROUP BY transaction_type " +
+                "ON DUPLICATE KEY UPDATE txn_count = VALUES(txn_count)"),
+            sql("INSERT INTO transaction_summary (dimension, dim_key, txn_count) " +
+                "SELECT 'user', performed_by, COUNT(*) FROM transactions " +
+                "WHERE performed_by IS NOT NULL GROUP BY performed_by " +
+                "ON DUPLICATE KEY UPDATE txn_count = VALUES(txn_count)"),
+            sql("INSERT INTO transaction_summary (dimension, dim_key, txn_count) " +
+                "SELECT 'day', CAST(DATE(transaction_date) AS CHAR), COUNT(*) FROM transactions " +
+                "WHERE transaction_date >= CURDATE() - INTERVAL 30 DAY GROUP BY DATE(transaction_date) " +
+                "ON DUPLICATE KEY UPDATE txn_count = VALUES(txn_count)")));
+
+        list.add(new Migration(7, "Report data version",
+            // One counter row, bumped in the same transaction as every supply or ledger
+            // write, so every client sees the same report cache stamp
+            sql("CREATE TABLE IF NOT EXISTS data_version (" +
+                "id TINYINT PRIMARY KEY, " +
+                "version BIGINT NOT NULL DEFAULT 0" +
+                ") ENGINE=InnoDB"),
+            sql("INSERT IGNORE INTO data_version (id, version) VALUES (1, 0)")));
+
+        return list;
+    }
+
+    // ===================== RUN =====================
+    // Brings the schema up to date. Returns false if a migration failed; the app still
+    // starts, and the DAO falls back to queries that don't need the missing pieces.
+    public static synchronized boolean migrate() {
+        long start = System.currentTimeMillis();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                             "version INT PRIMARY KEY, " +
+                             "description VARCHAR(255) NOT NULL, " +
+                             "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                             ") ENGINE=InnoDB");
+            }
+
+            int current = currentVersion(conn);
+            int applied = 0;
+            for (Migration migration : migrations()) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                System.out.println("🔧 Applying schema migration " + migration.version +
+                                   ": " + migration.description);
+                for (Step step : migration.steps) {
+                    step.apply(conn);
+                }
+                recordVersion(conn, migration);
+                current = migration.version;
+                applied++;
+            }
+
+            List<String> missing = verifyIndexes(conn);
+            lowStockFlagAvailable = columnExists(conn, "supplies", "is_low_stock") &&
+                                    !missing.contains("idx_supplies_low_stock");
+            // Only trusted once migration 5 finished, i.e. the backfill is in
+            dailyRollupAvailable = current >= 5 && tableExists(conn, "supply_daily_rollup");
+            transactionSummaryAvailable = current >= 6 && tableExists(conn, "transaction_summary");
+            dataVersionAvailable = current >= 7 && tableExists(conn, "data_version");
+
+            long elapsed = System.currentTimeMillis() - start;
+            if (missing.isEmpty()) {
+                status = "Schema v" + current + ", all indexes present";
+                System.out.println("✅ Schema at version " + current + " (" + applied +
+                                   " migration(s) applied in " + elapsed + " ms)");
+            } else {
+                status = "Schema v" + current + ", missing indexes: " + String.join(", ", missing);
+                System.err.println("⚠️ Schema at version " + current + " but indexes are missing: " + missing);
+            }
+            return missing.isEmpty();
+
+        } catch (SQLException e) {
+            status = "Schema migration failed: " + e.getMessage();
+            System.err.println("❌ Schema migration failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static boolean isLowStockFlagAvailable() {
+        return lowStockFlagAvailable;
+    }
+
+    public static boolean isDailyRollupAvailable() {
+        return dailyRollupAvailable;
+    }
+
+    public static boolean isTransactionSummaryAvailable() {
+        return transactionSummaryAvailable;
+    }
+
+    public static boolean isDataVersionAvailable() {
+        return dataVersionAvailable;
+    }
+
+    // One-line summary for the settings screen
+    public static String getStatus() {
+        return status;
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static List<String> verifyIndexes(Connection conn) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        for (String[] required : REQUIRED_INDEXES) {
+            if (!indexExists(conn, required[0], required[1])) {
+                missing.add(required[1]);
+            }
+        }
+        return missing;
+    }
+
+    // ===================== STEPS =====================
+    private static Step sql(String statement) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(statement);
+            }
+        };
+    }
+
+    private static Step index(String table, String name, String columns) {
+        return index(table, name, "", columns);
+    }
+
+    // MySQL has no CREATE INDEX IF NOT EXISTS, so check first
+    private static Step index(String table, String name, String kind, String columns) {
+        return conn -> {
+            if (indexExists(conn, table, name)) {
+                return;
+            }
+            String ddl = "CREATE " + (kind.isEmpty() ? "" : kind + " ") + "INDEX " + name +
+                         " ON " + table + " " + columns;
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(ddl);
+            }
+            System.out.println("   + index " + table + "." + name);
+        };
+    }
+
+    private static Step column(String table, String name, String definition) {
+        return conn -> {
+            if (columnExists(conn, table, name)) {
+                return;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + name + " " + definition);
+            }
+            System.out.println("   + column " + table + "." + name);
+        };
+    }
+
+    private static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.statistics " +
+                     "WHERE table_schema = ? AND table_name = ? AND index_name = ? LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, SCHEMA);
+            pstmt.setString(2, table);
+            pstmt.setString(3, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(SCHEMA, null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static boolean columnExists(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(SCHEMA, null, table, name)) {
+            return rs.next();
+        }
+    }
+}
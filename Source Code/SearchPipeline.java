@@ -0,0 +1,74 @@
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Debounced, cancellable search for the inventory screens.
+ * Keystrokes restart a short timer; when it fires, the query runs on a background
+ * executor. A newer search cancels the one in flight, and a result that arrives after
+ * a newer search started is dropped, so the screen only ever shows the latest query.
+ * Results are delivered on the EDT.
+ */
+public class SearchPipeline<T> {
+    // Shared by every screen; daemon threads so they never hold the app open
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "search-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<String, T> query;
+    private final BiConsumer<String, T> onResult;
+    private final Timer debounceTimer;
+
+    // EDT only
+    private String pendingTerm = "";
+    private int latestSequence = 0;
+    private Future<?> inFlight;
+
+    public SearchPipeline(int debounceMillis, Function<String, T> query, BiConsumer<String, T> onResult) {
+        this.query = query;
+        this.onResult = onResult;
+        this.debounceTimer = new Timer(debounceMillis, e -> run(pendingTerm));
+        this.debounceTimer.setRepeats(false);
+    }
+
+    // Typing: waits for a pause before querying
+    public void submit(String term) {
+        pendingTerm = term;
+        debounceTimer.restart();
+    }
+
+    // Enter, Search button, refresh: queries straight away
+    public void submitNow(String term) {
+        debounceTimer.stop();
+        run(term);
+    }
+
+    private void run(String term) {
+        final int sequence = ++latestSequence;
+        // JDBC calls don't react to interrupts, so a superseded database query may still
+        // finish in the background; its result is dropped below
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+
+        inFlight = executor.submit(() -> {
+            try {
+                T result = query.apply(term);
+                SwingUtilities.invokeLater(() -> {
+                    if (sequence == latestSequence) {
+                        onResult.accept(term, result);
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("❌ Search failed for '" + term + "': " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,391 @@
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Writes a report straight from a forward-only cursor to disk, one row at a time.
+ * Nothing is materialized: rows are formatted as they arrive and go through a
+ * buffered writer on a file channel, so memory stays flat however big the table is.
+ *
+ * The report is written to "<file>.part" and moved into place only once it is
+ * complete; a cancelled or failed run deletes the partial file. Progress is the share
+ * of rows written, against a COUNT(*) taken up front. Only the first PREVIEW_LINES
+ * lines are kept for the preview pane.
+ *
+ * Finished reports go into ReportCache under the current data version. If nothing has
+ * changed when the same report is asked for again, the earlier file is copied instead
+ * of running the query again.
+ */
+public class StreamingReportWriter extends SwingWorker<Long, Void> {
+    public static final String INVENTORY_SUMMARY = "Inventory Summary";
+    public static final String LOW_STOCK = "Low Stock Report";
+    public static final String EXPIRY = "Expiry Report";
+    public static final String CATEGORY_SUMMARY = "Category Summary";
+    public static final String CONSUMPTION = "Consumption Report";
+
+    // Rows per round trip (needs useCursorFetch, see DatabaseConnection)
+    private static final int FETCH_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PREVIEW_LINES = 200;
+    private static final int EXPIRY_WINDOW_DAYS = 90;
+
+    // Turns the current row into CSV fields
+    private interface RowFormatter {
+        Object[] format(ResultSet rs, LocalDate today) throws SQLException;
+    }
+
+    // Where report lines go (the file, plus the preview for a single report)
+    interface LineSink {
+        void line(String line) throws IOException;
+    }
+
+    // One report body: its title, CSV header, cursor query and row count for progress
+    static class Section {
+        final String title;
+        final String columns;
+        final String sql;
+        final String countSql;
+        final RowFormatter formatter;
+
+        Section(String title, String columns, String sql, String countSql, RowFormatter formatter) {
+            this.title = title;
+            this.columns = columns;
+            this.sql = sql;
+            this.countSql = countSql;
+            this.formatter = formatter;
+        }
+    }
+
+    private final String reportType;
+    private final String dateRange;
+    private final String generatedBy;
+    private final File target;
+    private Runnable onFinished;
+
+    private final StringBuilder preview = new StringBuilder();
+    private int previewLines = 0;
+    private long linesPastPreview = 0;
+    private volatile Exception error;
+    private volatile boolean fromCache = false;
+
+    public StreamingReportWriter(String reportType, String dateRange, String generatedBy, File target) {
+        this.reportType = reportType;
+        this.dateRange = dateRange;
+        this.generatedBy = generatedBy;
+        this.target = target;
+    }
+
+    // Runs on the EDT when the worker is done, including after a cancel
+    public StreamingReportWriter onFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+        return this;
+    }
+
+    public File getTarget() {
+        return target;
+    }
+
+    // The failure that ended the run, if any
+    public Exception getError() {
+        return error;
+    }
+
+    // True if the report was unchanged and copied from ReportCache
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    // The start of the report, for the preview pane (read once the worker is done)
+    public String getPreview() {
+        if (linesPastPreview == 0) {
+            return preview.toString();
+        }
+        return preview + "\n... " + linesPastPreview + " more line(s) in " + target.getName() + "\n";
+    }
+
+    // ===================== REPORT SECTIONS =====================
+    // Null for an unknown report type
+    static Section sectionFor(String reportType) {
+        switch (reportType) {
+            case INVENTORY_SUMMARY:
+                return new Section("Inventory Summary",
+                    "Item Name,Category,Quantity,Expiry,Status",
+                    "SELECT name, category, quantity, min_stock_level, expiry_date FROM supplies ORDER BY name",
+                    "SELECT COUNT(*) FROM supplies",
+                    (rs, today) -> inventoryRow(rs.getString("name"), rs.getString("category"),
+                                                rs.getInt("quantity"), rs.getInt("min_stock_level"),
+                                                toLocalDate(rs.getDate("expiry_date"))));
+            case LOW_STOCK:
+                return new Section("Low Stock Report",
+                    "Item Name,Category,Quantity,Min Stock Level,Urgency",
+                    "SELECT name, category, quantity, min_stock_level FROM supplies WHERE " +
+                        MedicalSupplyDAO.lowStockCondition() + " ORDER BY quantity ASC",
+                    "SELECT COUNT(*) FROM supplies WHERE " + MedicalSupplyDAO.lowStockCondition(),
+                    (rs, today) -> lowStockRow(rs.getString("name"), rs.getString("category"),
+                                               rs.getInt("quantity"), rs.getInt("min_stock_level")));
+            case EXPIRY:
+                String window = "expiry_date >= CURDATE() AND expiry_date <= DATE_ADD(CURDATE(), INTERVAL " +
+                                EXPIRY_WINDOW_DAYS + " DAY)";
+                return new Section("Expiry Report (Next " + EXPIRY_WINDOW_DAYS + " Days)",
+                    "Item Name,Category,Quantity,Expiry,Days Left",
+                    "SELECT name, category, quantity, expiry_date FROM supplies WHERE " + window +
+                        " ORDER BY expiry_date ASC",
+                    "SELECT COUNT(*) FROM supplies WHERE " + window,
+                    (rs, today) -> expiryRow(rs.getString("name"), rs.getString("category"), rs.getInt("quantity"),
+                                             toLocalDate(rs.getDate("expiry_date")), today));
+            case CATEGORY_SUMMARY:
+                // Grouped by the database; one row per category comes back
+                return new Section("Category Summary",
+                    "Category,Item Count,Total Quantity",
+                    "SELECT category, COUNT(*) AS item_count, COALESCE(SUM(quantity), 0) AS total_quantity " +
+                        "FROM supplies GROUP BY category ORDER BY category",
+                    "SELECT COUNT(DISTINCT category) FROM supplies",
+                    (rs, today) -> categoryRow(rs.getString("category"), rs.getInt("item_count"),
+                                               rs.getLong("total_quantity")));
+            case CONSUMPTION:
+                // Totals come from the daily rollup; items that run out soonest come first
+                int days = ConsumptionStats.DEFAULT_WINDOW_DAYS;
+                return new Section("Consumption Report (Last " + days + " Days)",
+                    "Item Name,Category,Quantity,Received,Used,Avg Daily Use,Days of Stock",
+                    "SELECT s.name, s.category, s.quantity, COALESCE(u.in_qty, 0) AS in_qty, " +
+                        "COALESCE(u.out_qty, 0) AS out_qty FROM supplies s LEFT JOIN " +
+                        MedicalSupplyDAO.consumptionTable(days) + " u ON u.supply_id = s.id " +
+                        "ORDER BY COALESCE(u.out_qty, 0) = 0, s.quantity / NULLIF(u.out_qty, 0), s.name",
+                    "SELECT COUNT(*) FROM supplies",
+                    (rs, today) -> consumptionRow(rs.getString("name"), rs.getString("category"),
+                                                  rs.getInt("quantity"), rs.getLong("in_qty"),
+                                                  rs.getLong("out_qty"), days));
+            default:
+                return null;
+        }
+    }
+
+    // Row layouts, shared with ReportPackWriter so a pack matches the single reports
+    static Object[] inventoryRow(String name, String category, int quantity, int minStock, LocalDate expiry) {
+        String status = quantity == 0 ? "OUT OF STOCK" :
+                quantity <= minStock ? "LOW STOCK" : "IN STOCK";
+        return new Object[]{name, category, quantity, expiry != null ? expiry.toString() : "N/A", status};
+    }
+
+    static Object[] lowStockRow(String name, String category, int quantity, int minStock) {
+        String urgency = quantity == 0 ? "CRITICAL" :
+                quantity <= minStock / 2 ? "HIGH" : "MEDIUM";
+        return new Object[]{name, category, quantity, minStock, urgency};
+    }
+
+    static Object[] expiryRow(String name, String category, int quantity, LocalDate expiry, LocalDate today) {
+        return new Object[]{name, category, quantity, expiry.toString(), ChronoUnit.DAYS.between(today, expiry)};
+    }
+
+    static Object[] categoryRow(String category, int itemCount, long totalQuantity) {
+        return new Object[]{category, itemCount, totalQuantity};
+    }
+
+    static Object[] consumptionRow(String name, String category, int quantity, long inQuantity,
+                                   long outQuantity, int windowDays) {
+        double daysOfStock = ConsumptionStats.daysOfStock(quantity, outQuantity, windowDays);
+        return new Object[]{name, category, quantity, inQuantity, outQuantity,
+                            String.format("%.2f", (double) outQuantity / windowDays),
+                            daysOfStock == ConsumptionStats.NOT_CONSUMED ? "N/A" : String.format("%.1f", daysOfStock)};
+    }
+
+    // The window the expiry report covers, [today, today + EXPIRY_WINDOW_DAYS]
+    static boolean inExpiryWindow(LocalDate expiry, LocalDate today) {
+        return expiry != null && !expiry.isBefore(today) && !expiry.isAfter(today.plusDays(EXPIRY_WINDOW_DAYS));
+    }
+
+    static void writeHeader(LineSink out, String reportType, String dateRange, String generatedBy,
+                            LocalDate today, Section section) throws IOException {
+        out.line("MEDICAL INVENTORY MANAGEMENT SYSTEM");
+        out.line("====================================");
+        out.line("Report Type: " + reportType);
+        out.line("Date Range: " + dateRange);
+        out.line("Generated: " + today);
+        out.line("Generated By: " + generatedBy);
+        out.line("");
+        out.line(section.title);
+        out.line(section.columns);
+    }
+
+    static void writeFooter(LineSink out) throws IOException {
+        out.line("");
+        out.line("=== END OF REPORT ===");
+    }
+
+    // Reports are written next to their target and renamed into place when complete
+    static Path partFile(File target) {
+        Path file = target.toPath();
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    static BufferedWriter openBuffered(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                                  BUFFER_SIZE);
+    }
+
+    static void deletePart(Path part) {
+        try {
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete partial report " + part + ": " + e.getMessage());
+        }
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    // ===================== WRITING =====================
+    @Override
+    protected Long doInBackground() {
+        long rows = 0;
+        long start = System.nanoTime();
+        Path part = partFile(target);
+        boolean written = false;
+
+        try {
+            Section section = sectionFor(reportType);
+            if (section == null) {
+                throw new IllegalArgumentException("Unknown report type: " + reportType);
+            }
+            LocalDate today = LocalDate.now();
+
+            // Stamp taken before reading, so a change during the run makes the next run miss
+            String dataVersion = new MedicalSupplyDAO().getDataVersion();
+            ReportCache.Key key = dataVersion != null
+                    ? new ReportCache.Key(reportType, dateRange, generatedBy, today, dataVersion) : null;
+            ReportCache.Entry cached = key != null ? copyFromCache(key) : null;
+            if (cached != null) {
+                return cached.getRows();
+            }
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 BufferedWriter out = openBuffered(part)) {
+                LineSink sink = line -> writeLine(out, line);
+
+                long total = countRows(conn, section.countSql);
+                writeHeader(sink, reportType, dateRange, generatedBy, today, section);
+
+                try (PreparedStatement stmt = conn.prepareStatement(section.sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    stmt.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        int percent = 0;
+                        while (!isCancelled() && rs.next()) {
+                            sink.line(toCsv(section.formatter.format(rs, today)));
+                            rows++;
+                            int now = total > 0 ? (int) Math.min(99, rows * 100 / total) : 0;
+                            if (now != percent) {
+                                percent = now;
+                                setProgress(percent);
+                            }
+                        }
+                    }
+                }
+                if (isCancelled()) {
+                    System.out.println("⚠️ Report cancelled after " + rows + " row(s): " + reportType);
+                    return rows;
+                }
+
+                writeFooter(sink);
+            }
+
+            Files.move(part, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            written = true;
+            if (key != null) {
+                ReportCache.getInstance().put(key, target, preview.toString(), linesPastPreview, rows);
+            }
+            setProgress(100);
+            System.out.println("📊 Report '" + reportType + "' streamed " + rows + " row(s) in " +
+                               (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException | IOException | RuntimeException e) {
+            error = e;
+            System.err.println("❌ Report generation failed after " + rows + " row(s): " + e.getMessage());
+        } finally {
+            if (!written) {
+                deletePart(part);
+            }
+        }
+        return rows;
+    }
+
+    // Serves the report from ReportCache if it has this exact version; null to generate
+    private ReportCache.Entry copyFromCache(ReportCache.Key key) {
+        ReportCache.Entry cached = ReportCache.getInstance().get(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            ReportCache.copyTo(cached, target.toPath());
+        } catch (IOException e) {
+            System.err.println("⚠️ Cached report unusable, regenerating: " + e.getMessage());
+            return null;
+        }
+        preview.append(cached.getPreview());
+        linesPastPreview = cached.getLinesPastPreview();
+        fromCache = true;
+        setProgress(100);
+        System.out.println("📊 Report '" + reportType + "' unchanged at " + key + ", copied from cache");
+        return cached;
+    }
+
+    @Override
+    protected void done() {
+        if (onFinished != null) {
+            onFinished.run();
+        }
+    }
+
+    private static long countRows(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private void writeLine(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        if (previewLines < PREVIEW_LINES) {
+            preview.append(line).append('\n');
+            previewLines++;
+        } else {
+            linesPastPreview++;
+        }
+    }
+
+    // Quotes fields that would otherwise break the columns (commas in names, etc.)
+    static String toCsv(Object[] fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = fields[i] != null ? fields[i].toString() : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,145 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Streams a query's rows into a DefaultTableModel without flooding the EDT.
+ * The cursor is read on the worker thread with a server-side fetch size, rows are
+ * buffered into chunks (by count or age), and each chunk is appended to the model
+ * with a single rows-inserted event. A big result set arrives in a handful of EDT
+ * hops instead of one invokeLater per row.
+ *
+ * Call start() on the EDT; it clears the model first. cancel(true) stops reading
+ * after the current row, and anything still queued for the EDT is dropped.
+ */
+public class StreamingTableLoader extends SwingWorker<Integer, Object[]> {
+    // Rows per round trip (needs useCursorFetch, see DatabaseConnection)
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    // A chunk goes to the EDT when it's this big or this old, whichever comes first
+    private static final int CHUNK_ROWS = 200;
+    private static final long CHUNK_MILLIS = 100;
+
+    public interface Query {
+        PreparedStatement prepare(Connection conn) throws SQLException;
+    }
+
+    // Turns the current row into table cells. The connection is the one the cursor is
+    // open on, for mappers that need a follow-up lookup.
+    public interface RowMapper {
+        Object[] map(Connection conn, ResultSet rs) throws SQLException;
+    }
+
+    private final DefaultTableModel model;
+    private final Query query;
+    private final RowMapper mapper;
+    private Object[] emptyRow;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private Runnable onFinished;
+    private volatile SQLException error;
+
+    public StreamingTableLoader(DefaultTableModel model, Query query, RowMapper mapper) {
+        this.model = model;
+        this.query = query;
+        this.mapper = mapper;
+    }
+
+    // Shown when the query returns nothing
+    public StreamingTableLoader emptyRow(Object... row) {
+        this.emptyRow = row;
+        return this;
+    }
+
+    public StreamingTableLoader fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    // Runs on the EDT after the last chunk (not when cancelled)
+    public StreamingTableLoader onFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+        return this;
+    }
+
+    public StreamingTableLoader start() {
+        model.setRowCount(0);
+        execute();
+        return this;
+    }
+
+    // The failure that ended the load, if any
+    public SQLException getError() {
+        return error;
+    }
+
+    @Override
+    protected Integer doInBackground() {
+        int count = 0;
+        long start = System.nanoTime();
+        List<Object[]> chunk = new ArrayList<>(CHUNK_ROWS);
+        long chunkStarted = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = query.prepare(conn)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (!isCancelled() && rs.next()) {
+                    Object[] row = mapper.map(conn, rs);
+                    if (row == null) {
+                        continue;
+                    }
+                    chunk.add(row);
+                    count++;
+                    if (chunk.size() >= CHUNK_ROWS || System.currentTimeMillis() - chunkStarted >= CHUNK_MILLIS) {
+                        publish(chunk.toArray(new Object[0][]));
+                        chunk.clear();
+                        chunkStarted = System.currentTimeMillis();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            error = e;
+            System.err.println("❌ Streaming load failed after " + count + " row(s): " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty() && !isCancelled()) {
+            publish(chunk.toArray(new Object[0][]));
+        }
+        System.out.println("📊 Streamed " + count + " row(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return count;
+    }
+
+    // SwingWorker merges chunks that pile up between EDT hops into one call
+    @Override
+    protected void process(List<Object[]> rows) {
+        if (isCancelled() || rows.isEmpty()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) model.getDataVector();
+        int first = data.size();
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableRowsInserted(first, data.size() - 1);
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            return;
+        }
+        if (model.getRowCount() == 0 && emptyRow != null) {
+            model.addRow(emptyRow);
+        }
+        if (onFinished != null) {
+            onFinished.run();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Grouped supply totals from MedicalSupplyDAO.aggregateSupplies, one entry per group.
+ * The columns are parallel primitive arrays (index i is group i) rather than a list of
+ * objects, so a summary costs a few small arrays however many supplies it covers.
+ *
+ * Expiry dates are kept as epoch days; a group with no dated supplies has NO_EXPIRY.
+ * Group keys can be null (supplies with no category/location/supplier).
+ */
+public class SupplyAggregate {
+    public static final int NO_EXPIRY = Integer.MIN_VALUE;
+
+    private final MedicalSupplyDAO.SupplyGroup group;
+    private final int expiringWithinDays;
+
+    private int size = 0;
+    private String[] keys;
+    private int[] itemCounts;
+    private long[] totalQuantities;
+    private int[] lowStockCounts;
+    private int[] withExpiryCounts;
+    private int[] expiredCounts;
+    private int[] expiringCounts;       // Expiring from today through today + expiringWithinDays
+    private int[] minExpiryDays;
+    private int[] maxExpiryDays;
+
+    SupplyAggregate(MedicalSupplyDAO.SupplyGroup group, int expiringWithinDays) {
+        this.group = group;
+        this.expiringWithinDays = expiringWithinDays;
+        allocate(8);
+    }
+
+    // Appends a group; used while reading the result set
+    void add(String key, int itemCount, long totalQuantity, int lowStockCount, int withExpiryCount,
+             int expiredCount, int expiringCount, LocalDate minExpiry, LocalDate maxExpiry) {
+        if (size == keys.length) {
+            allocate(size * 2);
+        }
+        keys[size] = key;
+        itemCounts[size] = itemCount;
+        totalQuantities[size] = totalQuantity;
+        lowStockCounts[size] = lowStockCount;
+        withExpiryCounts[size] = withExpiryCount;
+        expiredCounts[size] = expiredCount;
+        expiringCounts[size] = expiringCount;
+        minExpiryDays[size] = minExpiry != null ? (int) minExpiry.toEpochDay() : NO_EXPIRY;
+        maxExpiryDays[size] = maxExpiry != null ? (int) maxExpiry.toEpochDay() : NO_EXPIRY;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        keys = keys == null ? new String[capacity] : Arrays.copyOf(keys, capacity);
+        itemCounts = itemCounts == null ? new int[capacity] : Arrays.copyOf(itemCounts, capacity);
+        totalQuantities = totalQuantities == null ? new long[capacity] : Arrays.copyOf(totalQuantities, capacity);
+        lowStockCounts = lowStockCounts == null ? new int[capacity] : Arrays.copyOf(lowStockCounts, capacity);
+        withExpiryCounts = withExpiryCounts == null ? new int[capacity] : Arrays.copyOf(withExpiryCounts, capacity);
+        expiredCounts = expiredCounts == null ? new int[capacity] : Arrays.copyOf(expiredCounts, capacity);
+        expiringCounts = expiringCounts == null ? new int[capacity] : Arrays.copyOf(expiringCounts, capacity);
+        minExpiryDays = minExpiryDays == null ? new int[capacity] : Arrays.copyOf(minExpiryDays, capacity);
+        maxExpiryDays = maxExpiryDays == null ? new int[capacity] : Arrays.copyOf(maxExpiryDays, capacity);
+    }
+
+    public MedicalSupplyDAO.SupplyGroup getGroup() { return group; }
+    public int getExpiringWithinDays() { return expiringWithinDays; }
+    public int size() { return size; }
+
+    public String getKey(int i) { return keys[check(i)]; }
+    public int getItemCount(int i) { return itemCounts[check(i)]; }
+    public long getTotalQuantity(int i) { return totalQuantities[check(i)]; }
+    public int getLowStockCount(int i) { return lowStockCounts[check(i)]; }
+    public int getWithExpiryCount(int i) { return withExpiryCounts[check(i)]; }
+    public int getExpiredCount(int i) { return expiredCounts[check(i)]; }
+    public int getExpiringCount(int i) { return expiringCounts[check(i)]; }
+    public int getMinExpiryDay(int i) { return minExpiryDays[check(i)]; }
+    public int getMaxExpiryDay(int i) { return maxExpiryDays[check(i)]; }
+
+    public LocalDate getMinExpiry(int i) { return toDate(getMinExpiryDay(i)); }
+    public LocalDate getMaxExpiry(int i) { return toDate(getMaxExpiryDay(i)); }
+
+    // Index of the group with this key, or -1
+    public int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Totals across every group
+    public int totalItems() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += itemCounts[i];
+        return total;
+    }
+
+    public long totalQuantity() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += totalQuantities[i];
+        return total;
+    }
+
+    public int totalLowStock() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += lowStockCounts[i];
+        return total;
+    }
+
+    public int totalWithExpiry() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += withExpiryCounts[i];
+        return total;
+    }
+
+    public int totalExpired() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += expiredCounts[i];
+        return total;
+    }
+
+    public int totalExpiring() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += expiringCounts[i];
+        return total;
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Group " + i + " of " + size);
+        }
+        return i;
+    }
+
+    private static LocalDate toDate(int epochDay) {
+        return epochDay != NO_EXPIRY ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SupplyAggregate[by %s, groups=%d, items=%d, quantity=%d]",
+            group, size, totalItems(), totalQuantity());
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, in-process cache of supplies keyed by id, shared by every MedicalSupplyDAO.
+ * Least-recently-used entries are evicted once the cache is full. Entries are copied
+ * on the way in and out so callers can't mutate what is cached.
+ */
+public class SupplyCache {
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final SupplyCache INSTANCE = new SupplyCache(DEFAULT_MAX_ENTRIES);
+
+    private final int maxEntries;
+    private final LinkedHashMap<Integer, MedicalSupply> entries;
+
+    // Bumped on every write so a slow read-through load can't overwrite newer data
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public SupplyCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        // Access order makes iteration order least-recently-used first
+        this.entries = new LinkedHashMap<Integer, MedicalSupply>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MedicalSupply> eldest) {
+                if (size() > SupplyCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static SupplyCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Returns a copy of the cached supply, or null on a miss
+    public synchronized MedicalSupply get(int id) {
+        MedicalSupply cached = entries.get(id);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new MedicalSupply(cached);
+    }
+
+    // Call before loading from the database; pass the result to putIfUnchanged
+    public synchronized long beginLoad() {
+        return generation;
+    }
+
+    // Caches a loaded supply unless something was written since beginLoad()
+    public synchronized void putIfUnchanged(MedicalSupply supply, long loadGeneration) {
+        if (supply != null && loadGeneration == generation) {
+            entries.put(supply.getId(), new MedicalSupply(supply));
+        }
+    }
+
+    // Caches the state we just wrote
+    public synchronized void put(MedicalSupply supply) {
+        generation++;
+        entries.put(supply.getId(), new MedicalSupply(supply));
+    }
+
+    public synchronized void updateQuantity(int id, int quantity) {
+        generation++;
+        MedicalSupply cached = entries.get(id);
+        if (cached != null) {
+            cached.setQuantity(quantity);
+        }
+    }
+
+    public synchronized void invalidate(int id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    // Statistics
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+            entries.size(), maxEntries, hits, misses, evictions, getHitRate() * 100);
+    }
+}
@@ -55,7 +55,7 @@ public class SupplyDAO {
     }
     
     public int getLowStockCount() {
-        String sql = "SELECT COUNT(*) as low_stock FROM supplies WHERE quantity <= min_stock_level";
+        String sql = "SELECT COUNT(*) as low_stock FROM supplies WHERE " + MedicalSupplyDAO.lowStockCondition();
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
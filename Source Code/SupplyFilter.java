@@ -0,0 +1,56 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Optional conditions for MedicalSupplyDAO.aggregateSupplies.
+// Unset (null/false) fields don't filter. All set fields must match.
+public class SupplyFilter {
+    private String category;        // Exact match
+    private String location;        // Exact match
+    private String supplier;        // Exact match
+    private boolean lowStockOnly;   // At or below min stock level
+    private LocalDate expiryFrom;   // Inclusive; supplies without an expiry date never match
+    private LocalDate expiryTo;     // Inclusive
+
+    public SupplyFilter() {
+    }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = blankToNull(category); }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = blankToNull(location); }
+
+    public String getSupplier() { return supplier; }
+    public void setSupplier(String supplier) { this.supplier = blankToNull(supplier); }
+
+    public boolean isLowStockOnly() { return lowStockOnly; }
+    public void setLowStockOnly(boolean lowStockOnly) { this.lowStockOnly = lowStockOnly; }
+
+    public LocalDate getExpiryFrom() { return expiryFrom; }
+    public void setExpiryFrom(LocalDate expiryFrom) { this.expiryFrom = expiryFrom; }
+
+    public LocalDate getExpiryTo() { return expiryTo; }
+    public void setExpiryTo(LocalDate expiryTo) { this.expiryTo = expiryTo; }
+
+    public boolean isEmpty() {
+        return category == null && location == null && supplier == null &&
+               !lowStockOnly && expiryFrom == null && expiryTo == null;
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.trim().isEmpty()) ? null : value.trim();
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        if (category != null) parts.add("category " + category);
+        if (location != null) parts.add("location " + location);
+        if (supplier != null) parts.add("supplier " + supplier);
+        if (lowStockOnly) parts.add("low stock");
+        if (expiryFrom != null) parts.add("expiring from " + expiryFrom);
+        if (expiryTo != null) parts.add("expiring to " + expiryTo);
+        return parts.isEmpty() ? "all supplies" : String.join(", ", parts);
+    }
+}
@@ -0,0 +1,416 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted trigram index over supply name, category, location and supplier.
+ * Built in the background (MedicalSupplyDAO.startSearchIndexBuild), kept up to date by
+ * the DAO's write methods and rebuilt from the database every midnight, so searches
+ * never touch the database and edits made elsewhere show up within a day.
+ *
+ * Each word is indexed by the trigrams of "^word$" plus a one-letter "^w" key, which
+ * covers prefix, substring and (when strict matching finds little) typo-tolerant lookups.
+ */
+public class SupplySearchIndex {
+    private static final SupplySearchIndex INSTANCE = new SupplySearchIndex();
+
+    // Field weights for ranking: name, category, location, supplier
+    private static final int FIELD_COUNT = 4;
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0, 1.0};
+
+    // Match scores (multiplied by the field weight)
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double SUBSTRING_SCORE = 0.6;
+    private static final double FUZZY_SCORE = 0.4;
+
+    // Typo tolerance only kicks in when strict matching finds fewer results than this
+    private static final int FUZZY_FALLBACK_THRESHOLD = 5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Integer, MedicalSupply> documents = new HashMap<>();
+    private Map<Integer, String[]> documentFields = new HashMap<>(); // Normalized field text
+    private Map<String, Set<Integer>> postings = new HashMap<>();
+
+    // Build state: writes that land while a (re)load is running win over the loaded rows.
+    // A null value means the supply was deleted.
+    private boolean ready = false;
+    private boolean building = false;
+    private final Map<Integer, MedicalSupply> changedDuringBuild = new HashMap<>();
+    private final Map<Integer, Integer> quantitiesDuringBuild = new HashMap<>();
+
+    public static SupplySearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // ===================== BUILD =====================
+    // Returns false if a load is already running. The index can be rebuilt once ready;
+    // searches keep using the current data until it finishes.
+    public boolean beginBuild() {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                return false;
+            }
+            building = true;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Swaps in an index of the loaded rows, with the writes made during the load on top
+    public void finishBuild(List<MedicalSupply> supplies) {
+        lock.writeLock().lock();
+        try {
+            documents = new HashMap<>();
+            documentFields = new HashMap<>();
+            postings = new HashMap<>();
+            for (MedicalSupply supply : supplies) {
+                if (changedDuringBuild.containsKey(supply.getId())) {
+                    continue;
+                }
+                MedicalSupply copy = new MedicalSupply(supply);
+                Integer quantity = quantitiesDuringBuild.get(supply.getId());
+                if (quantity != null) {
+                    copy.setQuantity(quantity);
+                }
+                addDocument(copy);
+            }
+            for (MedicalSupply changed : changedDuringBuild.values()) {
+                if (changed != null) {
+                    addDocument(changed);
+                }
+            }
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+            building = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Load failed; the current data (if any) stays in use and a later beginBuild() may try again
+    public void abortBuild() {
+        lock.writeLock().lock();
+        try {
+            building = false;
+            changedDuringBuild.clear();
+            quantitiesDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===================== INCREMENTAL UPDATES =====================
+    public void put(MedicalSupply supply) {
+        lock.writeLock().lock();
+        try {
+            MedicalSupply copy = new MedicalSupply(supply);
+            removeDocument(supply.getId());
+            addDocument(copy);
+            if (building) {
+                changedDuringBuild.put(copy.getId(), copy);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (building) {
+                changedDuringBuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quantity isn't searchable text, so only the stored copy changes
+    public void updateQuantity(int id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            MedicalSupply document = documents.get(id);
+            if (document != null) {
+                document.setQuantity(quantity);
+            }
+            if (building) {
+                MedicalSupply changed = changedDuringBuild.get(id);
+                if (changed != null) {
+                    changed.setQuantity(quantity);
+                } else if (!changedDuringBuild.containsKey(id)) {
+                    quantitiesDuringBuild.put(id, quantity);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(MedicalSupply supply) {
+        String[] fields = {
+            normalize(supply.getName()),
+            normalize(supply.getCategory()),
+            normalize(supply.getLocation()),
+            normalize(supply.getSupplier())
+        };
+        documents.put(supply.getId(), supply);
+        documentFields.put(supply.getId(), fields);
+        for (String gram : documentGrams(fields)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(supply.getId());
+        }
+    }
+
+    private void removeDocument(int id) {
+        String[] fields = documentFields.remove(id);
+        documents.remove(id);
+        if (fields == null) {
+            return;
+        }
+        for (String gram : documentGrams(fields)) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // ===================== SEARCH =====================
+    // Every query word must match somewhere; results are ranked best first (copies)
+    public List<MedicalSupply> search(String query) {
+        String[] words = tokens(normalize(query));
+        if (words.length == 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = match(words, false);
+            if (scores.size() < FUZZY_FALLBACK_THRESHOLD) {
+                for (Map.Entry<Integer, Double> fuzzy : match(words, true).entrySet()) {
+                    scores.putIfAbsent(fuzzy.getKey(), fuzzy.getValue());
+                }
+            }
+
+            List<MedicalSupply> results = new ArrayList<>(scores.size());
+            for (int id : scores.keySet()) {
+                results.add(new MedicalSupply(documents.get(id)));
+            }
+            results.sort((a, b) -> {
+                int byScore = Double.compare(scores.get(b.getId()), scores.get(a.getId()));
+                return byScore != 0 ? byScore : String.CASE_INSENSITIVE_ORDER.compare(a.getName(), b.getName());
+            });
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> match(String[] words, boolean fuzzy) {
+        Map<Integer, Double> scores = null;
+        for (String word : words) {
+            Set<Integer> candidates = fuzzy ? fuzzyCandidates(word) : strictCandidates(word);
+            Map<Integer, Double> wordScores = new HashMap<>();
+            for (int id : candidates) {
+                if (scores != null && !scores.containsKey(id)) {
+                    continue;
+                }
+                double score = scoreWord(word, documentFields.get(id), fuzzy);
+                if (score > 0) {
+                    wordScores.put(id, scores == null ? score : scores.get(id) + score);
+                }
+            }
+            scores = wordScores;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    // Docs containing every trigram of the word (or the prefix key for one/two letters)
+    private Set<Integer> strictCandidates(String word) {
+        List<String> grams = new ArrayList<>();
+        if (word.length() == 1) {
+            grams.add("^" + word);
+        } else if (word.length() == 2) {
+            grams.add("^" + word);
+        } else {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                grams.add(word.substring(i, i + 3));
+            }
+        }
+
+        Set<Integer> result = null;
+        for (String gram : grams) {
+            Set<Integer> ids = postings.getOrDefault(gram, Collections.emptySet());
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new HashSet<>();
+    }
+
+    // Docs sharing enough boundary-padded trigrams with the word to be within the edit limit
+    private Set<Integer> fuzzyCandidates(String word) {
+        if (word.length() < 3) {
+            return new HashSet<>();
+        }
+        List<String> grams = wordGrams("^" + word);
+        int required = Math.max(1, grams.size() - 3 * maxEdits(word));
+
+        Map<Integer, Integer> overlap = new HashMap<>();
+        for (String gram : grams) {
+            for (int id : postings.getOrDefault(gram, Collections.emptySet())) {
+                overlap.merge(id, 1, Integer::sum);
+            }
+        }
+        Set<Integer> result = new HashSet<>();
+        for (Map.Entry<Integer, Integer> entry : overlap.entrySet()) {
+            if (entry.getValue() >= required) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    // Best weighted match of one query word across the document's fields
+    private double scoreWord(String word, String[] fields, boolean fuzzy) {
+        double best = 0;
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            if (fields[f].isEmpty()) {
+                continue;
+            }
+            double match = 0;
+            for (String token : tokens(fields[f])) {
+                if (token.equals(word)) {
+                    match = Math.max(match, EXACT_SCORE);
+                } else if (token.startsWith(word)) {
+                    match = Math.max(match, PREFIX_SCORE);
+                } else if (fuzzy) {
+                    int distance = prefixDistance(word, token);
+                    if (distance <= maxEdits(word)) {
+                        match = Math.max(match, FUZZY_SCORE - 0.1 * distance);
+                    }
+                }
+            }
+            if (match == 0 && fields[f].contains(word)) {
+                match = SUBSTRING_SCORE;
+            }
+            best = Math.max(best, match * FIELD_WEIGHTS[f]);
+        }
+        return best;
+    }
+
+    // ===================== TEXT HELPERS =====================
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toLowerCase().toCharArray()) {
+            sb.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return sb.toString().trim().replaceAll(" +", " ");
+    }
+
+    private static String[] tokens(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static Set<String> documentGrams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (String token : tokens(field)) {
+                grams.add("^" + token.charAt(0));
+                grams.addAll(wordGrams("^" + token + "$"));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> wordGrams(String padded) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static int maxEdits(String word) {
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    // Edit distance from the word to the whole token or to a similar-length prefix of it,
+    // so a typo in a half-typed word still matches
+    private static int prefixDistance(String word, String token) {
+        int best = Integer.MAX_VALUE;
+        if (Math.abs(token.length() - word.length()) <= maxEdits(word)) {
+            best = editDistance(word, token);
+        }
+        for (int length = word.length() - 1; length <= word.length() + 1; length++) {
+            if (length <= 0 || length > token.length()) {
+                continue;
+            }
+            best = Math.min(best, editDistance(word, token.substring(0, length)));
+        }
+        return best;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
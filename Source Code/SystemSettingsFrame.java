@@ -24,7 +24,7 @@ public class SystemSettingsFrame extends JFrame {
     private static final String DB_PASSWORD = "";
 
     // UI Components
-    private JLabel dbStatusLabel, dbSizeLabel;
+    private JLabel dbStatusLabel, dbSizeLabel, poolStatsLabel;
     private JTable backupTable;
     
     // Buttons
@@ -34,6 +34,7 @@ public class SystemSettingsFrame extends JFrame {
         // Initialize labels first
         dbStatusLabel = new JLabel("Checking...");
         dbSizeLabel = new JLabel("Calculating...");
+        poolStatsLabel = new JLabel("-");
         
         initializeUI();
         loadDatabaseStatus();
@@ -62,6 +63,9 @@ public class SystemSettingsFrame extends JFrame {
         statusPanel.add(Box.createHorizontalStrut(20));
         statusPanel.add(new JLabel("Size:"));
         statusPanel.add(dbSizeLabel);
+        statusPanel.add(Box.createHorizontalStrut(20));
+        statusPanel.add(new JLabel("Pool:"));
+        statusPanel.add(poolStatsLabel);
 
         // Layout
         setLayout(new BorderLayout());
@@ -160,9 +164,17 @@ public class SystemSettingsFrame extends JFrame {
         JButton exportBtn = new JButton("📤 Export to CSV");
         exportBtn.addActionListener(e -> exportToCSV());
         
+        JButton snapshotBtn = new JButton("🧊 Export Snapshot");
+        snapshotBtn.addActionListener(e -> exportSnapshot());
+        
+        JButton inspectSnapshotBtn = new JButton("🔍 Inspect Snapshot");
+        inspectSnapshotBtn.addActionListener(e -> inspectSnapshot());
+        
         controlPanel.add(backupBtn);
         controlPanel.add(restoreBtn);
         controlPanel.add(exportBtn);
+        controlPanel.add(snapshotBtn);
+        controlPanel.add(inspectSnapshotBtn);
 
         // Backup history table
         JPanel historyPanel = new JPanel(new BorderLayout());
@@ -184,8 +196,9 @@ public class SystemSettingsFrame extends JFrame {
 
     // ===================== DATABASE METHODS =====================
     
+    // Borrow from the shared pool instead of opening a new connection per operation
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return DatabaseConnection.getConnection();
     }
 
     private void loadDatabaseStatus() {
@@ -222,56 +235,44 @@ public class SystemSettingsFrame extends JFrame {
             protected void done() {
                 dbStatusLabel.setText(status);
                 dbSizeLabel.setText(size);
+                
+                ConnectionPool.PoolStats stats = DatabaseConnection.getPoolStats();
+                if (stats != null) {
+                    poolStatsLabel.setText(String.format("%d active, %d idle, avg wait %.1f ms",
+                        stats.getActive(), stats.getIdle(), stats.getAverageWaitMillis()));
+                }
+                poolStatsLabel.setToolTipText("Supply cache " + SupplyCache.getInstance());
             }
         };
         worker.execute();
     }
 
     private void loadTableInfo(DefaultTableModel model) {
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                try (Connection conn = getConnection()) {
-                    // Clear existing rows
-                    SwingUtilities.invokeLater(() -> model.setRowCount(0));
-                    
-                    // Get table list
-                    String query = "SELECT TABLE_NAME FROM information_schema.tables " +
-                                  "WHERE table_schema = ? ORDER BY TABLE_NAME";
-                    
-                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                        stmt.setString(1, "medical_inventory");
-                        try (ResultSet rs = stmt.executeQuery()) {
-                            while (rs.next()) {
-                                final String tableName = rs.getString("TABLE_NAME");
-                                
-                                // Get row count for this table
-                                String countQuery = "SELECT COUNT(*) as row_count FROM `" + tableName + "`";
-                                try (Statement countStmt = conn.createStatement();
-                                     ResultSet countRs = countStmt.executeQuery(countQuery)) {
-                                    
-                                    final int rowCount; // Declare as final
-                                    if (countRs.next()) {
-                                        rowCount = countRs.getInt("row_count");
-                                    } else {
-                                        rowCount = 0;
-                                    }
-                                    
-                                    // Add to table model
-                                    SwingUtilities.invokeLater(() -> 
-                                        model.addRow(new Object[]{tableName, rowCount, "N/A"})
-                                    );
-                                }
-                            }
-                        }
-                    }
-                } catch (SQLException e) {
-                    logMessage("Error loading table info: " + e.getMessage());
+        String query = "SELECT TABLE_NAME, ROUND((data_length + index_length) / 1024) as size_kb " +
+                      "FROM information_schema.tables WHERE table_schema = ? ORDER BY TABLE_NAME";
+        
+        // Rows reach the table in chunks, not one invokeLater each. The exact row count
+        // is a follow-up query on the same connection (information_schema only estimates it).
+        final StreamingTableLoader loader = new StreamingTableLoader(model, conn -> {
+            PreparedStatement stmt = conn.prepareStatement(query);
+            stmt.setString(1, "medical_inventory");
+            return stmt;
+        }, (conn, rs) -> {
+            String tableName = rs.getString("TABLE_NAME");
+            int rowCount = 0;
+            try (Statement countStmt = conn.createStatement();
+                 ResultSet countRs = countStmt.executeQuery("SELECT COUNT(*) as row_count FROM `" + tableName + "`")) {
+                if (countRs.next()) {
+                    rowCount = countRs.getInt("row_count");
                 }
-                return null;
             }
-        };
-        worker.execute();
+            return new Object[]{tableName, rowCount, rs.getLong("size_kb")};
+        });
+        loader.onFinished(() -> {
+            if (loader.getError() != null) {
+                logMessage("Error loading table info: " + loader.getError().getMessage());
+            }
+        }).start();
     }
 
     private void testConnection() {
@@ -424,6 +425,10 @@ public class SystemSettingsFrame extends JFrame {
                         }
                     }
                     
+                    // 4. Schema version and indexes
+                    result.append("\n4. Schema:\n");
+                    result.append("   ").append(SchemaMigrator.getStatus()).append("\n");
+                    
                     result.append("\n=== VALIDATION COMPLETE ===\n");
                     
                 } catch (SQLException e) {
@@ -594,18 +599,21 @@ public class SystemSettingsFrame extends JFrame {
         String createTableSQL = getCreateTableSQL(conn, tableName);
         writer.println(createTableSQL + ";");
         
-        // Get table data
-        String selectQuery = "SELECT * FROM `" + tableName + "`";
+        // Get table data. Generated columns (e.g. supplies.is_low_stock) are left out:
+        // MySQL rejects explicit values for them and recomputes them on restore.
+        List<String> columns = getStoredColumns(conn, tableName);
+        String columnList = "`" + String.join("`, `", columns) + "`";
+        String selectQuery = "SELECT " + columnList + " FROM `" + tableName + "`";
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(selectQuery)) {
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+            int columnCount = columns.size();
             
             // Insert data
             while (rs.next()) {
                 StringBuilder insertSQL = new StringBuilder();
-                insertSQL.append("INSERT INTO `").append(tableName).append("` VALUES (");
+                insertSQL.append("INSERT INTO `").append(tableName).append("` (")
+                         .append(columnList).append(") VALUES (");
                 
                 for (int i = 1; i <= columnCount; i++) {
                     Object value = rs.getObject(i);
@@ -637,6 +645,18 @@ public class SystemSettingsFrame extends JFrame {
         writer.println("-- End of data for table: " + tableName);
     }
     
+    private List<String> getStoredColumns(Connection conn, String tableName) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (ResultSet rs = conn.getMetaData().getColumns("medical_inventory", null, tableName, null)) {
+            while (rs.next()) {
+                if (!"YES".equalsIgnoreCase(rs.getString("IS_GENERATEDCOLUMN"))) {
+                    columns.add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        return columns;
+    }
+    
     private String getCreateTableSQL(Connection conn, String tableName) throws SQLException {
         String query = "SHOW CREATE TABLE `" + tableName + "`";
         try (Statement stmt = conn.createStatement();
@@ -739,6 +759,18 @@ public class SystemSettingsFrame extends JFrame {
         SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
             @Override
             protected Boolean doInBackground() {
+                MedicalSupplyDAO dao = new MedicalSupplyDAO();
+                long versionBefore = dao.beginRestore();
+                try {
+                    return restore();
+                } finally {
+                    // Even a partial restore has replaced tables the caches were built from
+                    dao.restoreFinished(versionBefore);
+                    logMessage("Caches and search index rebuilt from the restored data");
+                }
+            }
+            
+            private boolean restore() {
                 try (Connection conn = getConnection();
                      BufferedReader reader = new BufferedReader(new FileReader(sqlFile))) {
                     
@@ -748,43 +780,49 @@ public class SystemSettingsFrame extends JFrame {
                     try (Statement stmt = conn.createStatement()) {
                         stmt.execute("SET FOREIGN_KEY_CHECKS=0");
                     }
+                    try {
+                        StringBuilder sqlCommand = new StringBuilder();
+                        String line;
+                        int commandCount = 0;
                     
-                    StringBuilder sqlCommand = new StringBuilder();
-                    String line;
-                    int commandCount = 0;
-                    
-                    while ((line = reader.readLine()) != null) {
-                        // Skip comments and empty lines
-                        if (line.trim().startsWith("--") || line.trim().isEmpty()) {
-                            continue;
-                        }
+                        while ((line = reader.readLine()) != null) {
+                            // Skip comments and empty lines
+                            if (line.trim().startsWith("--") || line.trim().isEmpty()) {
+                                continue;
+                            }
                         
-                        sqlCommand.append(line);
+                            sqlCommand.append(line);
                         
-                        // Check if line ends with semicolon (end of command)
-                        if (line.trim().endsWith(";")) {
-                            String command = sqlCommand.toString();
+                            // Check if line ends with semicolon (end of command)
+                            if (line.trim().endsWith(";")) {
+                                String command = sqlCommand.toString();
                             
-                            try (Statement stmt = conn.createStatement()) {
-                                stmt.execute(command);
-                                commandCount++;
-                            } catch (SQLException e) {
-                                logMessage("Error executing command #" + commandCount + ": " + e.getMessage());
-                                logMessage("Command: " + command.substring(0, Math.min(100, command.length())) + "...");
-                            }
+                                try (Statement stmt = conn.createStatement()) {
+                                    stmt.execute(command);
+                                    commandCount++;
+                                } catch (SQLException e) {
+                                    logMessage("Error executing command #" + commandCount + ": " + e.getMessage());
+                                    logMessage("Command: " + command.substring(0, Math.min(100, command.length())) + "...");
+                                }
                             
-                            sqlCommand = new StringBuilder(); // Reset for next command
+                                sqlCommand = new StringBuilder(); // Reset for next command
+                            }
+                        }
+                        
+                        logMessage("Restore completed: " + commandCount + " SQL commands executed");
+                        return true;
+                    } finally {
+                        // Re-enable foreign key checks even if the restore stopped early,
+                        // or the pooled connection would keep them off for its next borrower.
+                        // If that fails, abort the connection so the pool discards it.
+                        try (Statement stmt = conn.createStatement()) {
+                            stmt.execute("SET FOREIGN_KEY_CHECKS=1");
+                        } catch (SQLException e) {
+                            logMessage("Could not re-enable foreign key checks: " + e.getMessage());
+                            conn.abort(Runnable::run);
                         }
                     }
                     
-                    // Re-enable foreign key checks
-                    try (Statement stmt = conn.createStatement()) {
-                        stmt.execute("SET FOREIGN_KEY_CHECKS=1");
-                    }
-                    
-                    logMessage("Restore completed: " + commandCount + " SQL commands executed");
-                    return true;
-                    
                 } catch (Exception e) {
                     logMessage("Restore error: " + e.getMessage());
                     e.printStackTrace();
@@ -886,6 +924,157 @@ public class SystemSettingsFrame extends JFrame {
         }
     }
 
+    // Columnar copy of supplies + transactions for offline analysis (see ColumnarSnapshot)
+    private void exportSnapshot() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("medical_inventory_" + 
+            new SimpleDateFormat("yyyyMMdd").format(new Date()) + ".snap"));
+        
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File snapshotFile = chooser.getSelectedFile();
+        
+        SwingWorker<ColumnarSnapshotExporter.Result, Void> worker = 
+            new SwingWorker<ColumnarSnapshotExporter.Result, Void>() {
+            @Override
+            protected ColumnarSnapshotExporter.Result doInBackground() throws Exception {
+                logMessage("Exporting snapshot to: " + snapshotFile.getName());
+                return ColumnarSnapshotExporter.export(snapshotFile, this::setProgress, this::isCancelled);
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    logMessage("Snapshot export cancelled");
+                    return;
+                }
+                try {
+                    ColumnarSnapshotExporter.Result result = get();
+                    logMessage("Snapshot exported: " + result);
+                    JOptionPane.showMessageDialog(SystemSettingsFrame.this,
+                        "✅ Snapshot exported to:\n" + snapshotFile.getAbsolutePath() + "\n\n" +
+                        "Supplies: " + result.getSupplyRows() + "\n" +
+                        "Transactions: " + result.getTransactionRows() + "\n" +
+                        "Size: " + String.format("%.1f KB", result.getBytes() / 1024.0),
+                        "Snapshot Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    logMessage("Snapshot export error: " + cause.getMessage());
+                    JOptionPane.showMessageDialog(SystemSettingsFrame.this,
+                        "❌ Snapshot export failed!\n" + cause.getMessage(),
+                        "Snapshot Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> worker.cancel(false));
+        
+        JDialog progressDialog = new JDialog(this, "Exporting Snapshot", true);
+        progressDialog.setLayout(new BorderLayout());
+        progressDialog.add(new JLabel("Exporting supplies and transactions..."), BorderLayout.NORTH);
+        progressDialog.add(progressBar, BorderLayout.CENTER);
+        progressDialog.add(cancelButton, BorderLayout.SOUTH);
+        progressDialog.setSize(300, 120);
+        progressDialog.setLocationRelativeTo(this);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            } else if ("state".equals(evt.getPropertyName()) && 
+                       SwingWorker.StateValue.DONE == evt.getNewValue()) {
+                progressDialog.dispose();
+            }
+        });
+        
+        worker.execute();
+        progressDialog.setVisible(true);
+    }
+    
+    // Full scan of a snapshot file: checks it decodes and summarizes it, without the database
+    private void inspectSnapshot() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File snapshotFile = chooser.getSelectedFile();
+        
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws Exception {
+                StringBuilder summary = new StringBuilder();
+                long start = System.nanoTime();
+                try (ColumnarSnapshotReader reader = ColumnarSnapshotReader.open(snapshotFile.toPath())) {
+                    for (String table : reader.getTables()) {
+                        // Touch every column of every row so a damaged chunk shows up here
+                        List<ColumnarSnapshot.Column> columns = reader.getColumns(table);
+                        ColumnarSnapshotReader.Cursor cursor = reader.scan(table);
+                        long rows = 0;
+                        long nulls = 0;
+                        while (cursor.next()) {
+                            rows++;
+                            for (int c = 0; c < columns.size(); c++) {
+                                if (cursor.isNull(c)) {
+                                    nulls++;
+                                } else if (columns.get(c).getType() == ColumnarSnapshot.ColumnType.STRING) {
+                                    cursor.getString(c);
+                                } else {
+                                    cursor.getLong(c);
+                                }
+                            }
+                        }
+                        summary.append(table).append(": ").append(rows).append(" rows, ")
+                               .append(columns.size()).append(" columns, ")
+                               .append(reader.getRowGroupCount(table)).append(" row group(s), ")
+                               .append(nulls).append(" null value(s)\n");
+                    }
+                    
+                    // Stock movement by type, straight from the columns
+                    long in = 0, out = 0;
+                    ColumnarSnapshotReader.Cursor cursor = 
+                        reader.scan(ColumnarSnapshot.TRANSACTIONS, "transaction_type", "quantity_changed");
+                    while (cursor.next()) {
+                        if ("OUT".equals(cursor.getString(0))) {
+                            out += Math.abs(cursor.getLong(1));
+                        } else {
+                            in += Math.abs(cursor.getLong(1));
+                        }
+                    }
+                    summary.append("Units in: ").append(in).append(", units out: ").append(out).append("\n");
+                }
+                summary.append(String.format("Size: %.1f KB, scanned in %d ms", 
+                    snapshotFile.length() / 1024.0, (System.nanoTime() - start) / 1_000_000));
+                return summary.toString();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    String summary = get();
+                    logMessage("Snapshot " + snapshotFile.getName() + " OK: " + summary.replace("\n", "; "));
+                    JOptionPane.showMessageDialog(SystemSettingsFrame.this,
+                        "✅ " + snapshotFile.getName() + "\n\n" + summary,
+                        "Snapshot Contents",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    logMessage("Snapshot read error: " + cause.getMessage());
+                    JOptionPane.showMessageDialog(SystemSettingsFrame.this,
+                        "❌ Cannot read snapshot!\n" + cause.getMessage(),
+                        "Snapshot Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
     private void loadBackupHistory(DefaultTableModel model) {
         // Simple backup history loader
         File backupDir = new File("backups/");
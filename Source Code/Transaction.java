@@ -10,6 +10,7 @@ public class Transaction {
     private String reason;
     private String performedBy;
     private LocalDateTime transactionDate;
+    private String supplyName; // Filled in by queries that join supplies
     
     public Transaction() {}
     
@@ -52,6 +53,9 @@ public class Transaction {
     public LocalDateTime getTransactionDate() { return transactionDate; }
     public void setTransactionDate(LocalDateTime transactionDate) { this.transactionDate = transactionDate; }
     
+    public String getSupplyName() { return supplyName; }
+    public void setSupplyName(String supplyName) { this.supplyName = supplyName; }
+    
     @Override
     public String toString() {
         return String.format("%s: %d units (From %d to %d) - %s", 
@@ -0,0 +1,106 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Structured ledger filter for MedicalSupplyDAO.getTransactionsPage.
+// Unset (null/empty) fields don't filter. All set fields must match.
+public class TransactionFilter {
+    private List<Integer> supplyIds = new ArrayList<>(); // Empty = any supply
+    private String transactionType;  // "IN" or "OUT"
+    private String performedBy;      // Exact user name
+    private LocalDate fromDate;      // Inclusive
+    private LocalDate toDate;        // Inclusive
+    private String reasonText;       // Words that must all appear in the reason
+
+    private static final String NON_WORD = "[^\\p{L}\\p{N}_]+";
+
+    public TransactionFilter() {
+    }
+
+    public List<Integer> getSupplyIds() { return supplyIds; }
+    public void setSupplyIds(List<Integer> supplyIds) {
+        this.supplyIds = supplyIds != null ? supplyIds : new ArrayList<>();
+    }
+    public void setSupplyId(int supplyId) {
+        this.supplyIds = new ArrayList<>();
+        this.supplyIds.add(supplyId);
+    }
+
+    public String getTransactionType() { return transactionType; }
+    public void setTransactionType(String transactionType) { this.transactionType = blankToNull(transactionType); }
+
+    public String getPerformedBy() { return performedBy; }
+    public void setPerformedBy(String performedBy) { this.performedBy = blankToNull(performedBy); }
+
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+
+    public String getReasonText() { return reasonText; }
+    public void setReasonText(String reasonText) { this.reasonText = blankToNull(reasonText); }
+
+    public boolean isEmpty() {
+        return supplyIds.isEmpty() && transactionType == null && performedBy == null &&
+               fromDate == null && toDate == null && reasonText == null;
+    }
+
+    // Reason filter split on the same word boundaries as the full-text index (anything
+    // but letters, digits and '_'), which also drops the boolean-mode operators
+    public List<String> getReasonWords() {
+        List<String> words = new ArrayList<>();
+        if (reasonText != null) {
+            for (String word : reasonText.split(NON_WORD)) {
+                if (!word.isEmpty()) words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // In-memory version of the SQL conditions, for rows published live (InventoryEventBus).
+    // Like the full-text search, every reason word must start some word of the reason,
+    // ignoring case ("exp" finds "Expired", "pired" doesn't).
+    public boolean matches(Transaction transaction) {
+        if (!supplyIds.isEmpty() && !supplyIds.contains(transaction.getSupplyId())) return false;
+        if (transactionType != null && !transactionType.equals(transaction.getTransactionType())) return false;
+        if (performedBy != null && !performedBy.equals(transaction.getPerformedBy())) return false;
+        if (fromDate != null || toDate != null) {
+            if (transaction.getTransactionDate() == null) return false;
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
+            if (fromDate != null && date.isBefore(fromDate)) return false;
+            if (toDate != null && date.isAfter(toDate)) return false;
+        }
+        if (reasonText != null) {
+            String[] reasonWords = transaction.getReason() != null
+                    ? transaction.getReason().toLowerCase().split(NON_WORD) : new String[0];
+            for (String word : getReasonWords()) {
+                if (!startsAnyWord(reasonWords, word.toLowerCase())) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsAnyWord(String[] words, String prefix) {
+        for (String word : words) {
+            if (word.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.trim().isEmpty()) ? null : value.trim();
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        if (!supplyIds.isEmpty()) parts.add(supplyIds.size() == 1 ? "supply #" + supplyIds.get(0) : supplyIds.size() + " supplies");
+        if (transactionType != null) parts.add(transactionType);
+        if (performedBy != null) parts.add("by " + performedBy);
+        if (fromDate != null) parts.add("from " + fromDate);
+        if (toDate != null) parts.add("to " + toDate);
+        if (reasonText != null) parts.add("reason \"" + reasonText + "\"");
+        return parts.isEmpty() ? "all transactions" : String.join(", ", parts);
+    }
+}
@@ -0,0 +1,282 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind journal for ledger rows that are not part of a stock update.
+ * Rows are buffered in a bounded queue and written by a background thread as
+ * multi-row INSERTs, one database transaction per flush (group commit).
+ * Quantity changes keep writing their ledger row inside their own transaction.
+ */
+public class TransactionJournal {
+    // Defaults
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final int DEFAULT_FLUSH_SIZE = 200;
+    private static final long DEFAULT_MAX_LATENCY_MILLIS = 250;
+    private static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 5_000;
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private static volatile TransactionJournal instance;
+
+    private final BlockingQueue<Transaction> queue;
+    private final int flushSize;
+    private final long maxLatencyMillis;
+    private final long offerTimeoutMillis;
+    private final Thread writer;
+    private volatile boolean running = true;
+    // append() holds the read lock from its running check through the offer and
+    // shutdown() takes the write lock to stop, so no row can slip in after the final drain
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile List<Transaction> flushing = List.of();   // The writer's current batch
+
+    // Statistics
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public TransactionJournal(int capacity, int flushSize, long maxLatencyMillis, long offerTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = flushSize;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        this.writer = new Thread(this::runWriter, "transaction-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Shared journal. DatabaseConnection's shutdown hook flushes it before closing the pool.
+    public static TransactionJournal getInstance() {
+        TransactionJournal current = instance;
+        if (current == null) {
+            synchronized (TransactionJournal.class) {
+                current = instance;
+                if (current == null) {
+                    current = new TransactionJournal(DEFAULT_CAPACITY, DEFAULT_FLUSH_SIZE,
+                            DEFAULT_MAX_LATENCY_MILLIS, DEFAULT_OFFER_TIMEOUT_MILLIS);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Flushes the shared journal if it was ever started
+    public static void shutdownInstance() {
+        TransactionJournal current = instance;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    // ===================== ENQUEUE =====================
+    // Blocks for up to the offer timeout when the queue is full (backpressure).
+    // Returns false if the row could not be accepted.
+    public boolean append(Transaction transaction) {
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (transaction.getTransactionDate() == null) {
+                transaction.setTransactionDate(java.time.LocalDateTime.now());
+            }
+            try {
+                if (queue.offer(transaction, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    enqueued.incrementAndGet();
+                    return true;
+                }
+                System.err.println("⚠️ Transaction journal full (" + queue.size() + " pending), row rejected");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejected.incrementAndGet();
+            return false;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    // ===================== WRITER =====================
+    private void runWriter() {
+        List<Transaction> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Transaction first = queue.poll(maxLatencyMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect until the batch is full or the oldest row has waited long enough
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+                while (batch.size() < flushSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Transaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, flushSize - batch.size());
+                }
+
+                flushing = List.copyOf(batch);
+                flush(batch);
+                flushing = List.of();
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown requested; loop condition drains whatever is left
+                running = false;
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Transaction> batch) {
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                writeBatch(batch);
+                written.addAndGet(batch.size());
+                flushes.incrementAndGet();
+                publish(batch);
+                return;
+            } catch (SQLException e) {
+                System.err.println("❌ Journal flush of " + batch.size() + " row(s) failed (attempt " +
+                                   attempt + "/" + MAX_FLUSH_ATTEMPTS + "): " + e.getMessage());
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException ie) {
+                    running = false;
+                }
+            }
+        }
+        dropped.addAndGet(batch.size());
+        System.err.println("❌ Dropped " + batch.size() + " journal row(s) after repeated failures");
+        for (Transaction transaction : batch) {
+            System.err.println("   " + transaction);
+        }
+    }
+
+    // Rows are only "recorded" once their flush commits. Names are filled in here, off
+    // the EDT, usually from the supply cache.
+    private void publish(List<Transaction> batch) {
+        MedicalSupplyDAO dao = new MedicalSupplyDAO();
+        List<InventoryEvent> events = new ArrayList<>(batch.size());
+        for (Transaction transaction : batch) {
+            if (transaction.getSupplyName() == null) {
+                MedicalSupply supply = dao.getSupplyById(transaction.getSupplyId());
+                if (supply != null) {
+                    transaction.setSupplyName(supply.getName());
+                }
+            }
+            events.add(InventoryEvent.transactionRecorded(transaction));
+        }
+        InventoryEventBus.getInstance().publish(events);
+    }
+
+    // One multi-row INSERT per flush, committed together
+    private void writeBatch(List<Transaction> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO transactions (supply_id, transaction_type, quantity_changed, " +
+            "previous_quantity, new_quantity, reason, performed_by, transaction_date) VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Transaction transaction : batch) {
+                    pstmt.setInt(index++, transaction.getSupplyId());
+                    pstmt.setString(index++, transaction.getTransactionType());
+                    pstmt.setInt(index++, transaction.getQuantityChanged());
+                    pstmt.setInt(index++, transaction.getPreviousQuantity());
+                    pstmt.setInt(index++, transaction.getNewQuantity());
+                    pstmt.setString(index++, transaction.getReason());
+                    pstmt.setString(index++, transaction.getPerformedBy());
+                    pstmt.setTimestamp(index++, Timestamp.valueOf(transaction.getTransactionDate()));
+                }
+                pstmt.executeUpdate();
+                MedicalSupplyDAO.ledgerRowsWritten(conn, batch, true);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // ===================== SHUTDOWN / STATS =====================
+    // Stops accepting rows and waits for everything queued to be written. Rows the writer
+    // didn't get to in time are drained and flushed here; anything still unwritten after
+    // that is reported row by row.
+    public void shutdown() {
+        acceptLock.writeLock().lock();
+        try {
+            if (!running && !writer.isAlive() && queue.isEmpty()) {
+                return;
+            }
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            writer.join(30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Transaction> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            System.err.println("⚠️ Journal writer stopped with " + leftover.size() +
+                               " row(s) still queued, flushing them now");
+            for (int from = 0; from < leftover.size(); from += flushSize) {
+                flush(leftover.subList(from, Math.min(leftover.size(), from + flushSize)));
+            }
+        }
+
+        // The writer is stuck retrying a flush; its rows may or may not reach the database
+        List<Transaction> unconfirmed = writer.isAlive() ? flushing : List.of();
+        if (!unconfirmed.isEmpty()) {
+            System.err.println("❌ " + unconfirmed.size() + " journal row(s) were still being written when the " +
+                               "journal stopped and may not have been saved:");
+            for (Transaction transaction : unconfirmed) {
+                System.err.println("   " + transaction);
+            }
+        }
+        if (!unconfirmed.isEmpty() || dropped.get() > 0) {
+            System.err.println("❌ Transaction journal stopped with unsaved rows: " + getStatsSummary());
+        } else {
+            System.out.println("✅ Transaction journal stopped: " + getStatsSummary());
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public String getStatsSummary() {
+        return String.format("[enqueued=%d, written=%d, flushes=%d, pending=%d, rejected=%d, dropped=%d]",
+            enqueued.get(), written.get(), flushes.get(), queue.size(), rejected.get(), dropped.get());
+    }
+}
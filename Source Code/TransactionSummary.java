@@ -0,0 +1,49 @@
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+// Ledger statistics for the Transaction Summary tab, loaded by
+// MedicalSupplyDAO.getTransactionSummary() from the maintained counters
+public class TransactionSummary {
+    private final long totalCount;
+    private final long todayCount;
+    private final Map<String, Long> countsByType;
+    private final String topUser;               // Null if no transaction names a user
+    private final long topUserCount;
+    private final boolean fromCounters;         // False if the ledger was counted directly
+    private final LocalDateTime loadedAt;
+
+    public TransactionSummary(long todayCount, Map<String, Long> countsByType,
+                              String topUser, long topUserCount, boolean fromCounters) {
+        long total = 0;
+        for (long count : countsByType.values()) {
+            total += count;
+        }
+        this.totalCount = total;
+        this.todayCount = todayCount;
+        this.countsByType = Collections.unmodifiableMap(countsByType);
+        this.topUser = topUser;
+        this.topUserCount = topUserCount;
+        this.fromCounters = fromCounters;
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    public long getTotalCount() { return totalCount; }
+    public long getTodayCount() { return todayCount; }
+    public Map<String, Long> getCountsByType() { return countsByType; }
+    public String getTopUser() { return topUser; }
+    public long getTopUserCount() { return topUserCount; }
+    public boolean isFromCounters() { return fromCounters; }
+    public LocalDateTime getLoadedAt() { return loadedAt; }
+
+    public long getCount(String transactionType) {
+        return countsByType.getOrDefault(transactionType, 0L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TransactionSummary[total=%d, today=%d, byType=%s, top=%s (%d), %s, at %s]",
+            totalCount, todayCount, countsByType, topUser, topUserCount,
+            fromCounters ? "counters" : "ledger", loadedAt);
+    }
+}
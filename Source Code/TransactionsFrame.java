@@ -4,16 +4,47 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TransactionsFrame {
     private JPanel contentPanel;
     private JTable transactionsTable;
     private DefaultTableModel tableModel;
+    private JScrollPane transactionsScrollPane;
+    private JLabel pageStatusLabel;
+    private MedicalSupplyDAO medicalSupplyDAO;
+    
+    // Keyset paging state for the All Transactions tab
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+    private LocalDateTime cursorDate;
+    private int cursorId;
+    private boolean hasMorePages;
+    private boolean pageLoading;
+    private int loadedCount;
+    private int loadGeneration;
+    
+    // Structured filter applied to the paged history (empty = everything)
+    private static final int MAX_SUPPLY_MATCHES = 500;
+    private TransactionFilter activeFilter = new TransactionFilter();
+    private JTextField supplyFilterField, userFilterField, fromDateField, toDateField, reasonFilterField;
+    private JComboBox<String> typeFilterCombo;
+    
+    // New ledger rows are added to the top as they commit; the bus holds this weakly
+    private final InventoryEventBus.Listener inventoryListener = this::inventoryChanged;
+    
+    private StreamingTableLoader recentActivityLoader;
     
     public TransactionsFrame() {
         System.out.println("=== TRANSACTIONS FRAME STARTED ===");
+        medicalSupplyDAO = new MedicalSupplyDAO();
         initializeUI();
+        InventoryEventBus.getInstance().subscribe(inventoryListener);
     }
     
     private void initializeUI() {
@@ -41,23 +72,54 @@ public class TransactionsFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Color.WHITE);
         
-        // Search panel
-        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        // Filter panel - each filter maps to an indexed ledger column (see TransactionFilter)
+        JPanel searchPanel = new JPanel(new GridLayout(2, 1));
         searchPanel.setBackground(Color.WHITE);
         
-        JTextField searchField = new JTextField(20);
-        searchField.putClientProperty("JTextField.placeholderText", "Search by supply name or reason...");
+        JPanel filterRow1 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        JPanel filterRow2 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        filterRow1.setBackground(Color.WHITE);
+        filterRow2.setBackground(Color.WHITE);
+        
+        supplyFilterField = new JTextField(16);
+        supplyFilterField.putClientProperty("JTextField.placeholderText", "Supply name...");
+        typeFilterCombo = new JComboBox<>(new String[]{"All", "IN", "OUT"});
+        userFilterField = new JTextField(10);
+        userFilterField.putClientProperty("JTextField.placeholderText", "Username");
+        fromDateField = new JTextField(9);
+        fromDateField.putClientProperty("JTextField.placeholderText", "yyyy-mm-dd");
+        toDateField = new JTextField(9);
+        toDateField.putClientProperty("JTextField.placeholderText", "yyyy-mm-dd");
+        reasonFilterField = new JTextField(16);
+        reasonFilterField.putClientProperty("JTextField.placeholderText", "Words in reason...");
         
         JButton searchButton = new JButton("Search");
-        JButton refreshButton = new JButton("Refresh All");
+        JButton refreshButton = new JButton("Refresh");
+        JButton clearFiltersButton = new JButton("Clear Filters");
         
         styleButton(searchButton, new Color(0, 123, 255));
         styleButton(refreshButton, new Color(108, 117, 125));
-        
-        searchPanel.add(new JLabel("Search:"));
-        searchPanel.add(searchField);
-        searchPanel.add(searchButton);
-        searchPanel.add(refreshButton);
+        styleButton(clearFiltersButton, new Color(108, 117, 125));
+        
+        filterRow1.add(new JLabel("Supply:"));
+        filterRow1.add(supplyFilterField);
+        filterRow1.add(new JLabel("Type:"));
+        filterRow1.add(typeFilterCombo);
+        filterRow1.add(new JLabel("User:"));
+        filterRow1.add(userFilterField);
+        filterRow1.add(new JLabel("Reason:"));
+        filterRow1.add(reasonFilterField);
+        
+        filterRow2.add(new JLabel("From:"));
+        filterRow2.add(fromDateField);
+        filterRow2.add(new JLabel("To:"));
+        filterRow2.add(toDateField);
+        filterRow2.add(searchButton);
+        filterRow2.add(refreshButton);
+        filterRow2.add(clearFiltersButton);
+        
+        searchPanel.add(filterRow1);
+        searchPanel.add(filterRow2);
         
         // Table with optimized column widths
         String[] columns = {"ID", "Date & Time", "Type", "Supply", "Quantity", "Previous", "Current", "User", "Reason"};
@@ -134,38 +196,56 @@ public class TransactionsFrame {
         // Set row height for reason column
         transactionsTable.setRowHeight(45); // Increased height for better readability
         
-        JScrollPane scrollPane = new JScrollPane(transactionsTable);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        transactionsScrollPane = new JScrollPane(transactionsTable);
+        transactionsScrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        transactionsScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNearBottom());
         
         // Action buttons panel - REMOVED Add Test and Export buttons
-        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        JPanel actionPanel = new JPanel(new BorderLayout());
         actionPanel.setBackground(Color.WHITE);
         actionPanel.setBorder(BorderFactory.createMatteBorder(1, 0, 0, 0, new Color(230, 230, 230)));
         
+        pageStatusLabel = new JLabel(" ");
+        pageStatusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        pageStatusLabel.setForeground(new Color(100, 100, 100));
+        pageStatusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
+        
         // Only keep Clear All button
         JButton clearButton = new JButton("Clear All");
         styleButton(clearButton, new Color(220, 53, 69));
         
-        actionPanel.add(clearButton);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(clearButton);
+        
+        actionPanel.add(pageStatusLabel, BorderLayout.WEST);
+        actionPanel.add(buttonPanel, BorderLayout.EAST);
         
         panel.add(searchPanel, BorderLayout.NORTH);
-        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(transactionsScrollPane, BorderLayout.CENTER);
         panel.add(actionPanel, BorderLayout.SOUTH);
         
         // Event handlers
-        searchButton.addActionListener(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (!searchTerm.isEmpty()) {
-                searchTransactions(searchTerm);
-            } else {
-                loadAllTransactions();
-            }
-        });
+        searchButton.addActionListener(e -> applyFilters());
+        for (JTextField field : new JTextField[]{supplyFilterField, userFilterField, fromDateField,
+                                                 toDateField, reasonFilterField}) {
+            field.addActionListener(e -> applyFilters());
+        }
         
         refreshButton.addActionListener(e -> {
             loadAllTransactions();
         });
         
+        clearFiltersButton.addActionListener(e -> {
+            for (JTextField field : new JTextField[]{supplyFilterField, userFilterField, fromDateField,
+                                                     toDateField, reasonFilterField}) {
+                field.setText("");
+            }
+            typeFilterCombo.setSelectedIndex(0);
+            activeFilter = new TransactionFilter();
+            loadAllTransactions();
+        });
+        
         clearButton.addActionListener(e -> {
             clearTransactions();
         });
@@ -237,19 +317,14 @@ public class TransactionsFrame {
         summaryPanel.setBackground(Color.WHITE);
         
         // Load summary data
+        summaryPanel.add(new JLabel("Loading...", JLabel.CENTER));
         loadTransactionSummary(summaryPanel);
         
         // Add refresh button
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         JButton refreshSummaryButton = new JButton("Refresh Summary");
         styleButton(refreshSummaryButton, new Color(0, 123, 255));
-        refreshSummaryButton.addActionListener(e -> {
-            summaryPanel.removeAll();
-            summaryPanel.setLayout(new GridLayout(3, 2, 15, 15));
-            loadTransactionSummary(summaryPanel);
-            summaryPanel.revalidate();
-            summaryPanel.repaint();
-        });
+        refreshSummaryButton.addActionListener(e -> loadTransactionSummary(summaryPanel));
         buttonPanel.add(refreshSummaryButton);
         
         panel.add(titleLabel, BorderLayout.NORTH);
@@ -259,240 +334,235 @@ public class TransactionsFrame {
         return panel;
     }
     
+    // Resets the history to the newest page; older pages load as the user scrolls
     private void loadAllTransactions() {
-        System.out.println("Loading all transactions...");
+        System.out.println("Loading transactions: " + activeFilter);
+        
+        loadGeneration++;
+        cursorDate = null;
+        cursorId = 0;
+        hasMorePages = true;
+        pageLoading = false;
+        loadedCount = 0;
+        tableModel.setRowCount(0);
         
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        loadNextPage();
+    }
+    
+    private void loadNextPage() {
+        if (pageLoading || !hasMorePages) {
+            return;
+        }
+        pageLoading = true;
+        final int generation = loadGeneration;
+        final LocalDateTime beforeDate = cursorDate;
+        final int beforeId = cursorId;
+        final TransactionFilter filter = activeFilter;
+        pageStatusLabel.setText("Loading...");
+        
+        SwingWorker<List<Transaction>, Void> worker = new SwingWorker<List<Transaction>, Void>() {
+            @Override
+            protected List<Transaction> doInBackground() throws Exception {
+                return medicalSupplyDAO.getTransactionsPage(filter, beforeDate, beforeId, PAGE_SIZE);
+            }
+            
             @Override
-            protected Void doInBackground() {
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return; // Superseded by a refresh or search
+                }
+                pageLoading = false;
+                
+                List<Transaction> page;
                 try {
-                    Connection conn = DriverManager.getConnection(
-                        "jdbc:mysql://localhost:3306/medical_inventory", "root", "");
-                    
-                    // Query all transactions
-                    String sql = "SELECT t.*, s.name as supply_name " +
-                                "FROM transactions t " +
-                                "LEFT JOIN supplies s ON t.supply_id = s.id " +
-                                "ORDER BY t.transaction_date DESC " +
-                                "LIMIT 200";
-                    
-                    Statement stmt = conn.createStatement();
-                    ResultSet rs = stmt.executeQuery(sql);
-                    
-                    SwingUtilities.invokeLater(() -> {
+                    page = get();
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    System.err.println("❌ Database error: " + cause.getMessage());
+                    hasMorePages = false;
+                    if (loadedCount == 0) {
                         tableModel.setRowCount(0);
-                    });
-                    
-                    int count = 0;
-                    while (rs.next()) {
-                        count++;
-                        
-                        // Get data
-                        int id = rs.getInt("id");
-                        Timestamp date = rs.getTimestamp("transaction_date");
-                        String type = rs.getString("transaction_type");
-                        int supplyId = rs.getInt("supply_id");
-                        String supplyName = rs.getString("supply_name");
-                        int qtyChanged = rs.getInt("quantity_changed");
-                        int prevQty = rs.getInt("previous_quantity");
-                        int newQty = rs.getInt("new_quantity");
-                        String user = rs.getString("performed_by");
-                        String reason = rs.getString("reason");
-                        
-                        if (supplyName == null) {
-                            supplyName = "Supply #" + supplyId;
-                        }
-                        
-                        // Format date
-                        String dateStr = "N/A";
-                        if (date != null) {
-                            dateStr = date.toLocalDateTime().format(
-                                DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
-                        }
-                        
-                        // Format type with color coding
-                        String typeText = type;
-                        
-                        final Object[] row = {
-                            id,
-                            dateStr,
-                            typeText,
-                            supplyName,
-                            qtyChanged,
-                            prevQty,
-                            newQty,
-                            (user != null && !user.isEmpty()) ? user : "System",
-                            reason != null ? reason : "-"
-                        };
-                        
-                        SwingUtilities.invokeLater(() -> {
-                            tableModel.addRow(row);
+                        tableModel.addRow(new Object[]{
+                            "ERROR", cause.getMessage(), 
+                            "", "Check database connection", 0, 0, 0, "", ""
                         });
                     }
-                    
-                    System.out.println("✅ Loaded " + count + " transactions");
-                    
-                    if (count == 0) {
-                        SwingUtilities.invokeLater(() -> {
-                            tableModel.addRow(new Object[]{
-                                "-", "No transactions found", 
-                                "", "Add or edit supplies to create transactions", 
-                                0, 0, 0, "", ""
-                            });
-                        });
+                    pageStatusLabel.setText("Error loading transactions");
+                    return;
+                }
+                
+                for (Transaction transaction : page) {
+                    tableModel.addRow(toTableRow(transaction));
+                }
+                loadedCount += page.size();
+                hasMorePages = page.size() == PAGE_SIZE;
+                
+                if (!page.isEmpty()) {
+                    Transaction last = page.get(page.size() - 1);
+                    cursorDate = last.getTransactionDate();
+                    cursorId = last.getId();
+                    if (cursorDate == null) {
+                        hasMorePages = false; // Can't seek past a row without a date
                     }
-                    
-                    rs.close();
-                    stmt.close();
-                    conn.close();
-                    
-                } catch (SQLException ex) {
-                    System.err.println("❌ Database error: " + ex.getMessage());
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        tableModel.setRowCount(0);
+                }
+                
+                System.out.println("✅ Loaded " + loadedCount + " transactions");
+                
+                if (loadedCount == 0) {
+                    if (filter.isEmpty()) {
                         tableModel.addRow(new Object[]{
-                            "ERROR", ex.getMessage(), 
-                            "", "Check database connection", 0, 0, 0, "", ""
+                            "-", "No transactions found", 
+                            "", "Add or edit supplies to create transactions", 
+                            0, 0, 0, "", ""
                         });
-                    });
+                    } else {
+                        tableModel.addRow(new Object[]{
+                            "-", "No transactions match", 
+                            "", filter.toString(), 0, 0, 0, "", ""
+                        });
+                    }
                 }
-                return null;
+                
+                pageStatusLabel.setText("Showing " + loadedCount + " transactions" +
+                                        (filter.isEmpty() ? "" : " (" + filter + ")") +
+                                        (hasMorePages ? " - scroll for more" : ""));
+                
+                // Keep filling until the viewport has a scrollbar to drive further loads
+                loadMoreIfNearBottom();
             }
         };
         
         worker.execute();
     }
     
-    private void loadRecentActivity(DefaultTableModel model) {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() {
-                try {
-                    Connection conn = DriverManager.getConnection(
-                        "jdbc:mysql://localhost:3306/medical_inventory", "root", "");
-                    
-                    String sql = "SELECT t.transaction_date, t.transaction_type, " +
-                                "t.quantity_changed, s.name as supply_name, t.reason " +
-                                "FROM transactions t " +
-                                "LEFT JOIN supplies s ON t.supply_id = s.id " +
-                                "ORDER BY t.transaction_date DESC " +
-                                "LIMIT 50";
-                    
-                    Statement stmt = conn.createStatement();
-                    ResultSet rs = stmt.executeQuery(sql);
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        model.setRowCount(0);
-                    });
-                    
-                    while (rs.next()) {
-                        Timestamp date = rs.getTimestamp("transaction_date");
-                        String type = rs.getString("transaction_type");
-                        int qtyChanged = rs.getInt("quantity_changed");
-                        String supplyName = rs.getString("supply_name");
-                        String reason = rs.getString("reason");
-                        
-                        String timeStr = "N/A";
-                        if (date != null) {
-                            timeStr = date.toLocalDateTime().format(
-                                DateTimeFormatter.ofPattern("HH:mm:ss"));
-                        }
-                        
-                        String activity = type + " " + qtyChanged + " units of " + 
-                                        (supplyName != null ? supplyName : "supply");
-                        
-                        String details = reason != null ? reason : "No details";
-                        
-                        final Object[] row = {timeStr, activity, details};
-                        
-                        SwingUtilities.invokeLater(() -> {
-                            model.addRow(row);
-                        });
-                    }
-                    
-                    if (model.getRowCount() == 0) {
-                        SwingUtilities.invokeLater(() -> {
-                            model.addRow(new Object[]{"No recent activity", "", ""});
-                        });
-                    }
-                    
-                    rs.close();
-                    stmt.close();
-                    conn.close();
-                    
-                } catch (SQLException ex) {
-                    System.err.println("Error loading recent activity: " + ex.getMessage());
-                }
-                return null;
-            }
-        };
+    // Prefetch the next page once the user is within a few rows of the end
+    private void loadMoreIfNearBottom() {
+        if (pageLoading || !hasMorePages) {
+            return;
+        }
+        BoundedRangeModel range = transactionsScrollPane.getVerticalScrollBar().getModel();
+        int threshold = transactionsTable.getRowHeight() * PREFETCH_ROWS;
+        if (range.getValue() + range.getExtent() >= range.getMaximum() - threshold) {
+            loadNextPage();
+        }
+    }
+    
+    private void inventoryChanged(InventoryEvent event) {
+        if (event.getType() != InventoryEvent.Type.TRANSACTION_RECORDED) {
+            return;
+        }
+        // The first page is still loading and will include this row, or it's filtered out
+        if ((pageLoading && loadedCount == 0) || !activeFilter.matches(event.getTransaction())) {
+            return;
+        }
+        // The DAO names the supply before publishing, so nothing is looked up on the EDT
+        Transaction transaction = event.getTransaction();
+        if (loadedCount == 0) {
+            tableModel.setRowCount(0); // Drop the "No transactions" placeholder
+        }
+        tableModel.insertRow(0, toTableRow(transaction));
+        loadedCount++;
+        pageStatusLabel.setText("Showing " + loadedCount + " transactions" +
+                                (activeFilter.isEmpty() ? "" : " (" + activeFilter + ")") +
+                                (hasMorePages ? " - scroll for more" : ""));
+    }
+    
+    private Object[] toTableRow(Transaction transaction) {
+        String supplyName = transaction.getSupplyName();
+        if (supplyName == null) {
+            supplyName = "Supply #" + transaction.getSupplyId();
+        }
         
-        worker.execute();
+        // Format date
+        String dateStr = "N/A";
+        if (transaction.getTransactionDate() != null) {
+            dateStr = transaction.getTransactionDate().format(
+                DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
+        }
+        
+        String user = transaction.getPerformedBy();
+        String reason = transaction.getReason();
+        
+        return new Object[]{
+            transaction.getId(),
+            dateStr,
+            transaction.getTransactionType(),
+            supplyName,
+            transaction.getQuantityChanged(),
+            transaction.getPreviousQuantity(),
+            transaction.getNewQuantity(),
+            (user != null && !user.isEmpty()) ? user : "System",
+            reason != null ? reason : "-"
+        };
     }
     
-    private void loadTransactionSummary(JPanel summaryPanel) {
-        try {
-            Connection conn = DriverManager.getConnection(
-                "jdbc:mysql://localhost:3306/medical_inventory", "root", "");
-            
-            // Get total transactions count
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as total FROM transactions");
-            rs.next();
-            int totalTransactions = rs.getInt("total");
-            
-            // Get transactions by type
-            rs = stmt.executeQuery("SELECT transaction_type, COUNT(*) as count " +
-                                  "FROM transactions GROUP BY transaction_type");
+    private void loadRecentActivity(DefaultTableModel model) {
+        if (recentActivityLoader != null) {
+            recentActivityLoader.cancel(true);
+        }
+        String sql = "SELECT t.transaction_date, t.transaction_type, " +
+                    "t.quantity_changed, s.name as supply_name, t.reason " +
+                    "FROM transactions t " +
+                    "LEFT JOIN supplies s ON t.supply_id = s.id " +
+                    "ORDER BY t.transaction_date DESC " +
+                    "LIMIT 50";
+        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
+        
+        // Rows reach the table in chunks, not one invokeLater each
+        recentActivityLoader = new StreamingTableLoader(model, conn -> conn.prepareStatement(sql), (conn, rs) -> {
+            Timestamp date = rs.getTimestamp("transaction_date");
+            String supplyName = rs.getString("supply_name");
+            String reason = rs.getString("reason");
             
-            int inCount = 0, outCount = 0, adjustCount = 0;
-            while (rs.next()) {
-                String type = rs.getString("transaction_type");
-                int count = rs.getInt("count");
-                switch (type) {
-                    case "IN": inCount = count; break;
-                    case "OUT": outCount = count; break;
-                    case "ADJUST": adjustCount = count; break;
-                }
+            String timeStr = date != null ? date.toLocalDateTime().format(timeFormat) : "N/A";
+            String activity = rs.getString("transaction_type") + " " + rs.getInt("quantity_changed") +
+                              " units of " + (supplyName != null ? supplyName : "supply");
+            return new Object[]{timeStr, activity, reason != null ? reason : "No details"};
+        }).emptyRow("No recent activity", "", "").start();
+    }
+    
+    // Counters are read in the background; the boxes replace the panel's contents when done
+    private void loadTransactionSummary(JPanel summaryPanel) {
+        SwingWorker<TransactionSummary, Void> worker = new SwingWorker<TransactionSummary, Void>() {
+            @Override
+            protected TransactionSummary doInBackground() {
+                return medicalSupplyDAO.getTransactionSummary();
             }
             
-            // Get today's transactions
-            rs = stmt.executeQuery("SELECT COUNT(*) as today FROM transactions " +
-                                  "WHERE DATE(transaction_date) = CURDATE()");
-            rs.next();
-            int todayCount = rs.getInt("today");
-            
-            // Get most active user
-            rs = stmt.executeQuery("SELECT performed_by, COUNT(*) as count " +
-                                  "FROM transactions WHERE performed_by IS NOT NULL " +
-                                  "GROUP BY performed_by ORDER BY count DESC LIMIT 1");
-            String topUser = "None";
-            int userCount = 0;
-            if (rs.next()) {
-                topUser = rs.getString("performed_by");
-                userCount = rs.getInt("count");
+            @Override
+            protected void done() {
+                summaryPanel.removeAll();
+                summaryPanel.setLayout(new GridLayout(3, 2, 15, 15));
+                TransactionSummary summary = null;
+                try {
+                    summary = get();
+                } catch (Exception ex) {
+                    System.err.println("❌ Error loading transaction summary: " + ex.getMessage());
+                }
+                
+                if (summary == null) {
+                    summaryPanel.add(new JLabel("Error loading summary: check the database connection"));
+                } else {
+                    String topUser = summary.getTopUser() != null
+                        ? summary.getTopUser() + " (" + summary.getTopUserCount() + ")" : "None (0)";
+                    summaryPanel.add(createStatBox("Total Transactions", 
+                        String.valueOf(summary.getTotalCount()), new Color(0, 82, 165)));
+                    summaryPanel.add(createStatBox("Today's Transactions", 
+                        String.valueOf(summary.getTodayCount()), new Color(40, 167, 69)));
+                    summaryPanel.add(createStatBox("Stock-In Transactions", 
+                        String.valueOf(summary.getCount("IN")), new Color(0, 123, 255)));
+                    summaryPanel.add(createStatBox("Stock-Out Transactions", 
+                        String.valueOf(summary.getCount("OUT")), new Color(220, 53, 69)));
+                    summaryPanel.add(createStatBox("Adjustment Transactions", 
+                        String.valueOf(summary.getCount("ADJUST")), new Color(255, 193, 7)));
+                    summaryPanel.add(createStatBox("Most Active User", 
+                        topUser, new Color(111, 66, 193)));
+                }
+                summaryPanel.revalidate();
+                summaryPanel.repaint();
             }
-            
-            conn.close();
-            
-            // Create stat boxes
-            summaryPanel.add(createStatBox("Total Transactions", 
-                String.valueOf(totalTransactions), new Color(0, 82, 165)));
-            summaryPanel.add(createStatBox("Today's Transactions", 
-                String.valueOf(todayCount), new Color(40, 167, 69)));
-            summaryPanel.add(createStatBox("Stock-In Transactions", 
-                String.valueOf(inCount), new Color(0, 123, 255)));
-            summaryPanel.add(createStatBox("Stock-Out Transactions", 
-                String.valueOf(outCount), new Color(220, 53, 69)));
-            summaryPanel.add(createStatBox("Adjustment Transactions", 
-                String.valueOf(adjustCount), new Color(255, 193, 7)));
-            summaryPanel.add(createStatBox("Most Active User", 
-                topUser + " (" + userCount + ")", new Color(111, 66, 193)));
-            
-        } catch (SQLException ex) {
-            summaryPanel.add(new JLabel("Error loading summary: " + ex.getMessage()));
-        }
+        };
+        worker.execute();
     }
     
     private JPanel createStatBox(String title, String value, Color color) {
@@ -517,94 +587,86 @@ public class TransactionsFrame {
         return panel;
     }
     
-    private void searchTransactions(String searchTerm) {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+    // Builds a TransactionFilter from the filter fields and reloads the history with it.
+    // A supply name is resolved to ids first (through the supply search), so the ledger
+    // query itself only ever filters on supply_id.
+    private void applyFilters() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setTransactionType(typeFilterCombo.getSelectedIndex() > 0
+            ? (String) typeFilterCombo.getSelectedItem() : null);
+        filter.setPerformedBy(userFilterField.getText());
+        filter.setReasonText(reasonFilterField.getText());
+        try {
+            filter.setFromDate(parseDateField(fromDateField));
+            filter.setToDate(parseDateField(toDateField));
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(contentPanel,
+                "Please enter dates as yyyy-mm-dd (e.g. " + LocalDate.now() + ")",
+                "Invalid Date",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        final String supplyText = supplyFilterField.getText().trim();
+        if (supplyText.isEmpty()) {
+            activeFilter = filter;
+            loadAllTransactions();
+            return;
+        }
+        
+        // Stop any paging on the old filter while we look up the supplies
+        final int generation = ++loadGeneration;
+        hasMorePages = false;
+        pageLoading = false;
+        pageStatusLabel.setText("Finding supplies matching '" + supplyText + "'...");
+        
+        SwingWorker<List<MedicalSupply>, Void> worker = new SwingWorker<List<MedicalSupply>, Void>() {
+            @Override
+            protected List<MedicalSupply> doInBackground() {
+                return medicalSupplyDAO.searchSupplies(supplyText);
+            }
+            
             @Override
-            protected Void doInBackground() {
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                List<MedicalSupply> matches;
                 try {
-                    Connection conn = DriverManager.getConnection(
-                        "jdbc:mysql://localhost:3306/medical_inventory", "root", "");
-                    
-                    String sql = "SELECT t.*, s.name as supply_name " +
-                                "FROM transactions t " +
-                                "LEFT JOIN supplies s ON t.supply_id = s.id " +
-                                "WHERE s.name LIKE ? OR t.reason LIKE ? OR t.performed_by LIKE ? " +
-                                "ORDER BY t.transaction_date DESC " +
-                                "LIMIT 100";
-                    
-                    PreparedStatement pstmt = conn.prepareStatement(sql);
-                    String likeTerm = "%" + searchTerm + "%";
-                    pstmt.setString(1, likeTerm);
-                    pstmt.setString(2, likeTerm);
-                    pstmt.setString(3, likeTerm);
-                    
-                    ResultSet rs = pstmt.executeQuery();
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        tableModel.setRowCount(0);
+                    matches = get();
+                } catch (Exception ex) {
+                    matches = new ArrayList<>();
+                    System.err.println("Error finding supplies: " + ex.getMessage());
+                }
+                
+                if (matches.isEmpty()) {
+                    tableModel.setRowCount(0);
+                    tableModel.addRow(new Object[]{
+                        "-", "No supplies match: " + supplyText, 
+                        "", "", 0, 0, 0, "", ""
                     });
-                    
-                    int count = 0;
-                    while (rs.next()) {
-                        count++;
-                        
-                        Timestamp date = rs.getTimestamp("transaction_date");
-                        String type = rs.getString("transaction_type");
-                        String supplyName = rs.getString("supply_name");
-                        int qtyChanged = rs.getInt("quantity_changed");
-                        int prevQty = rs.getInt("previous_quantity");
-                        int newQty = rs.getInt("new_quantity");
-                        String user = rs.getString("performed_by");
-                        String reason = rs.getString("reason");
-                        
-                        String dateStr = "N/A";
-                        if (date != null) {
-                            dateStr = date.toLocalDateTime().format(
-                                DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
-                        }
-                        
-                        final Object[] row = {
-                            rs.getInt("id"),
-                            dateStr,
-                            type,
-                            supplyName != null ? supplyName : "Supply #" + rs.getInt("supply_id"),
-                            qtyChanged,
-                            prevQty,
-                            newQty,
-                            user != null ? user : "System",
-                            reason != null ? reason : "-"
-                        };
-                        
-                        SwingUtilities.invokeLater(() -> {
-                            tableModel.addRow(row);
-                        });
-                    }
-                    
-                    System.out.println("Search found " + count + " transactions for: " + searchTerm);
-                    
-                    if (count == 0) {
-                        SwingUtilities.invokeLater(() -> {
-                            tableModel.addRow(new Object[]{
-                                "-", "No results for: " + searchTerm, 
-                                "", "", 0, 0, 0, "", ""
-                            });
-                        });
-                    }
-                    
-                    rs.close();
-                    pstmt.close();
-                    conn.close();
-                    
-                } catch (SQLException ex) {
-                    System.err.println("Error searching transactions: " + ex.getMessage());
+                    pageStatusLabel.setText("No supplies match '" + supplyText + "'");
+                    return;
+                }
+                
+                List<Integer> supplyIds = new ArrayList<>();
+                for (MedicalSupply supply : matches.subList(0, Math.min(matches.size(), MAX_SUPPLY_MATCHES))) {
+                    supplyIds.add(supply.getId());
                 }
-                return null;
+                filter.setSupplyIds(supplyIds);
+                activeFilter = filter;
+                loadAllTransactions();
             }
         };
         
         worker.execute();
     }
     
+    private LocalDate parseDateField(JTextField field) {
+        String text = field.getText().trim();
+        return text.isEmpty() ? null : LocalDate.parse(text);
+    }
+    
     private void clearTransactions() {
         int confirm = JOptionPane.showConfirmDialog(contentPanel,
             "<html><div style='width:400px;'>" +
@@ -618,29 +680,22 @@ public class TransactionsFrame {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                Connection conn = DriverManager.getConnection(
-                    "jdbc:mysql://localhost:3306/medical_inventory", "root", "");
-                
-                Statement stmt = conn.createStatement();
-                int count = stmt.executeUpdate("DELETE FROM transactions");
-                
+            int count = medicalSupplyDAO.clearAllTransactions();
+            if (count < 0) {
                 JOptionPane.showMessageDialog(contentPanel,
-                    "Deleted " + count + " transaction records",
-                    "Cleared",
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                // Refresh all tabs
-                loadAllTransactions();
-                
-                conn.close();
-                
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(contentPanel,
-                    "Error: " + ex.getMessage(),
+                    "Error clearing transactions. Check the database connection.",
                     "Database Error",
                     JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            
+            JOptionPane.showMessageDialog(contentPanel,
+                "Deleted " + count + " transaction records",
+                "Cleared",
+                JOptionPane.INFORMATION_MESSAGE);
+            
+            // Refresh all tabs
+            loadAllTransactions();
         }
     }
     
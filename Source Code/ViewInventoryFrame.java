@@ -8,9 +8,13 @@ import java.util.List;
 public class ViewInventoryFrame {
     private JPanel contentPanel;
     private JTable inventoryTable;
-    private DefaultTableModel tableModel;
+    private InventoryTableModel tableModel;
     private MedicalSupplyDAO medicalSupplyDAO;
-    private List<MedicalSupply> currentSupplies;
+    private JTextField searchField;
+    
+    // Search-as-you-type: index lookups run off the EDT once typing pauses
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    private SearchPipeline<List<MedicalSupply>> searchPipeline;
     
     public ViewInventoryFrame() {
         medicalSupplyDAO = new MedicalSupplyDAO();
@@ -95,7 +99,7 @@ public class ViewInventoryFrame {
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         searchPanel.setBackground(Color.WHITE);
         
-        JTextField searchField = new JTextField(20);
+        searchField = new JTextField(20);
         searchField.putClientProperty("JTextField.placeholderText", "Search inventory...");
         
         JButton searchButton = new JButton("Search");
@@ -112,13 +116,14 @@ public class ViewInventoryFrame {
         searchPanel.add(refreshButton);
         
         // Table
-        String[] columns = {"ID", "Item Name", "Category", "Quantity", "Min Stock", "Status", "Expiry Date", "Days Left", "Location", "Supplier"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
-            }
-        };
+        // Virtualized: rows are fetched page by page as they scroll into view
+        tableModel = new InventoryTableModel(medicalSupplyDAO);
+        
+        // Null result = no index yet (or no term): the model pages/filters in SQL instead
+        searchPipeline = new SearchPipeline<>(SEARCH_DEBOUNCE_MS,
+            term -> (term.isEmpty() || !SupplySearchIndex.getInstance().isReady())
+                    ? null : medicalSupplyDAO.searchSupplies(term),
+            this::showSearchResults);
         
         inventoryTable = new JTable(tableModel);
         inventoryTable.setRowHeight(30);
@@ -127,6 +132,19 @@ public class ViewInventoryFrame {
         // Hide ID column by column index, not by name
         inventoryTable.removeColumn(inventoryTable.getColumnModel().getColumn(0));
         
+        // Header clicks sort in SQL (a TableRowSorter would need every row in memory)
+        inventoryTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int viewColumn = inventoryTable.columnAtPoint(evt.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                tableModel.toggleSort(inventoryTable.convertColumnIndexToModel(viewColumn));
+                refreshSortIndicators();
+            }
+        });
+        
         loadAllInventoryData();
         
         JScrollPane scrollPane = new JScrollPane(inventoryTable);
@@ -137,12 +155,16 @@ public class ViewInventoryFrame {
         
         JButton addQuantityButton = new JButton("Add Quantity");
         JButton removeQuantityButton = new JButton("Remove Quantity");
+        JButton receiveDeliveryButton = new JButton("Receive Delivery");
         
         addQuantityButton.setBackground(new Color(40, 167, 69));
         removeQuantityButton.setBackground(new Color(220, 53, 69));
+        receiveDeliveryButton.setBackground(new Color(0, 123, 255));
         addQuantityButton.setForeground(Color.WHITE);
         removeQuantityButton.setForeground(Color.WHITE);
+        receiveDeliveryButton.setForeground(Color.WHITE);
         
+        actionPanel.add(receiveDeliveryButton);
         actionPanel.add(addQuantityButton);
         actionPanel.add(removeQuantityButton);
         
@@ -151,13 +173,15 @@ public class ViewInventoryFrame {
         panel.add(actionPanel, BorderLayout.SOUTH);
         
         // Event handlers
-        searchButton.addActionListener(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (!searchTerm.isEmpty()) {
-                searchInventory(searchTerm);
-            } else {
-                loadAllInventoryData();
-            }
+        searchButton.addActionListener(e -> searchInventory(searchField.getText().trim()));
+        searchField.addActionListener(e -> searchInventory(searchField.getText().trim()));
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchPipeline.submit(searchField.getText().trim()); }
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchPipeline.submit(searchField.getText().trim()); }
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { }
         });
         
         refreshButton.addActionListener(e -> {
@@ -172,6 +196,15 @@ public class ViewInventoryFrame {
             showQuantityDialog(false);
         });
         
+        // Multi-line receiving: the whole delivery posts in one database transaction
+        receiveDeliveryButton.addActionListener(e -> {
+            ReceiveDeliveryDialog dialog = new ReceiveDeliveryDialog();
+            dialog.setVisible(true);
+            if (dialog.isSuccess()) {
+                tableModel.reload(); // Refresh the table
+            }
+        });
+        
         return panel;
     }
     
@@ -339,29 +372,30 @@ public class ViewInventoryFrame {
         summaryPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         summaryPanel.setBackground(Color.WHITE);
         
-        // Get data
-        List<MedicalSupply> expiredItems = medicalSupplyDAO.getExpiredItems();
-        List<MedicalSupply> expiring7Days = medicalSupplyDAO.getExpiringInDays(7);
-        List<MedicalSupply> expiring30Days = medicalSupplyDAO.getExpiringSoonItems(30);
-        List<MedicalSupply> allSupplies = medicalSupplyDAO.getAllSupplies();
-        
-        int totalItems = allSupplies.size();
-        int itemsWithExpiry = 0;
-        for (MedicalSupply supply : allSupplies) {
-            if (supply.getExpiryDate() != null) {
-                itemsWithExpiry++;
-            }
+        // Get data: grouped totals from the database, not every supply row
+        SupplyAggregate byCategory = medicalSupplyDAO.aggregateSupplies(
+            MedicalSupplyDAO.SupplyGroup.CATEGORY, null, 30);
+        SupplyAggregate thisWeek = medicalSupplyDAO.aggregateSupplies(
+            MedicalSupplyDAO.SupplyGroup.ALL, null, 7);
+        if (byCategory == null) {
+            byCategory = new SupplyAggregate(MedicalSupplyDAO.SupplyGroup.CATEGORY, 30);
         }
         
+        int totalItems = byCategory.totalItems();
+        int itemsWithExpiry = byCategory.totalWithExpiry();
+        int expiredCount = byCategory.totalExpired();
+        int expiring7Days = thisWeek != null ? thisWeek.totalExpiring() : 0;
+        int expiring30Days = byCategory.totalExpiring();
+        
         // Add statistics
         summaryPanel.add(createStatBox("Total Items", String.valueOf(totalItems), Color.BLUE));
         summaryPanel.add(createStatBox("Items with Expiry", itemsWithExpiry + " (" + 
             (totalItems > 0 ? (itemsWithExpiry * 100 / totalItems) : 0) + "%)", Color.BLUE));
         
-        summaryPanel.add(createStatBox("Already Expired", String.valueOf(expiredItems.size()), Color.RED));
-        summaryPanel.add(createStatBox("Expiring in 7 Days", String.valueOf(expiring7Days.size()), Color.ORANGE));
+        summaryPanel.add(createStatBox("Already Expired", String.valueOf(expiredCount), Color.RED));
+        summaryPanel.add(createStatBox("Expiring in 7 Days", String.valueOf(expiring7Days), Color.ORANGE));
         
-        summaryPanel.add(createStatBox("Expiring in 30 Days", String.valueOf(expiring30Days.size()), Color.YELLOW));
+        summaryPanel.add(createStatBox("Expiring in 30 Days", String.valueOf(expiring30Days), Color.YELLOW));
         summaryPanel.add(createStatBox("No Expiry Date", String.valueOf(totalItems - itemsWithExpiry), Color.GRAY));
         
         // Add recommendation
@@ -375,14 +409,14 @@ public class ViewInventoryFrame {
         StringBuilder recommendations = new StringBuilder();
         recommendations.append("📋 RECOMMENDATIONS:\n\n");
         
-        if (expiredItems.size() > 0) {
-            recommendations.append("• Dispose of ").append(expiredItems.size()).append(" expired items immediately\n");
+        if (expiredCount > 0) {
+            recommendations.append("• Dispose of ").append(expiredCount).append(" expired items immediately\n");
         }
-        if (expiring7Days.size() > 0) {
-            recommendations.append("• Use ").append(expiring7Days.size()).append(" items expiring this week first\n");
+        if (expiring7Days > 0) {
+            recommendations.append("• Use ").append(expiring7Days).append(" items expiring this week first\n");
         }
-        if (expiring30Days.size() > expiring7Days.size()) {
-            recommendations.append("• Plan for ").append(expiring30Days.size() - expiring7Days.size())
+        if (expiring30Days > expiring7Days) {
+            recommendations.append("• Plan for ").append(expiring30Days - expiring7Days)
                            .append(" items expiring this month\n");
         }
         if (itemsWithExpiry < totalItems) {
@@ -392,13 +426,74 @@ public class ViewInventoryFrame {
         
         recommendationArea.setText(recommendations.toString());
         
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.add(summaryPanel, BorderLayout.NORTH);
+        centerPanel.add(createExpiryBreakdownPanel(byCategory), BorderLayout.CENTER);
+        
         panel.add(titleLabel, BorderLayout.NORTH);
-        panel.add(summaryPanel, BorderLayout.CENTER);
+        panel.add(centerPanel, BorderLayout.CENTER);
         panel.add(new JScrollPane(recommendationArea), BorderLayout.SOUTH);
         
         return panel;
     }
     
+    // Expiry picture per category, location or supplier (one GROUP BY query per switch)
+    private JPanel createExpiryBreakdownPanel(SupplyAggregate initial) {
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.setBorder(BorderFactory.createTitledBorder("Breakdown"));
+        panel.setBackground(Color.WHITE);
+        
+        JComboBox<MedicalSupplyDAO.SupplyGroup> groupCombo = new JComboBox<>(new MedicalSupplyDAO.SupplyGroup[]{
+            MedicalSupplyDAO.SupplyGroup.CATEGORY,
+            MedicalSupplyDAO.SupplyGroup.LOCATION,
+            MedicalSupplyDAO.SupplyGroup.SUPPLIER
+        });
+        JPanel groupPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        groupPanel.setBackground(Color.WHITE);
+        groupPanel.add(new JLabel("Group by:"));
+        groupPanel.add(groupCombo);
+        
+        String[] columns = {"Group", "Items", "Total Quantity", "Expired", "Expiring (30 Days)",
+                            "Earliest Expiry", "Latest Expiry"};
+        DefaultTableModel breakdownModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable breakdownTable = new JTable(breakdownModel);
+        breakdownTable.setRowHeight(25);
+        
+        showExpiryBreakdown(breakdownModel, initial);
+        groupCombo.addActionListener(e -> showExpiryBreakdown(breakdownModel, medicalSupplyDAO.aggregateSupplies(
+            (MedicalSupplyDAO.SupplyGroup) groupCombo.getSelectedItem(), null, 30)));
+        
+        panel.add(groupPanel, BorderLayout.NORTH);
+        panel.add(new JScrollPane(breakdownTable), BorderLayout.CENTER);
+        return panel;
+    }
+    
+    private void showExpiryBreakdown(DefaultTableModel model, SupplyAggregate aggregate) {
+        model.setRowCount(0);
+        if (aggregate == null || aggregate.size() == 0) {
+            model.addRow(new Object[]{"No data", "", "", "", "", "", ""});
+            return;
+        }
+        for (int i = 0; i < aggregate.size(); i++) {
+            LocalDate earliest = aggregate.getMinExpiry(i);
+            LocalDate latest = aggregate.getMaxExpiry(i);
+            model.addRow(new Object[]{
+                aggregate.getKey(i) != null ? aggregate.getKey(i) : "(none)",
+                aggregate.getItemCount(i),
+                aggregate.getTotalQuantity(i),
+                aggregate.getExpiredCount(i),
+                aggregate.getExpiringCount(i),
+                earliest != null ? earliest.toString() : "N/A",
+                latest != null ? latest.toString() : "N/A"
+            });
+        }
+    }
+    
     // Helper method to create stat boxes
     private JPanel createStatBox(String title, String value, Color color) {
         JPanel panel = new JPanel(new BorderLayout());
@@ -419,53 +514,17 @@ public class ViewInventoryFrame {
     }
     
     private void loadAllInventoryData() {
-        try {
-            tableModel.setRowCount(0);
-            currentSupplies = medicalSupplyDAO.getAllSupplies();
-            
-            if (currentSupplies == null || currentSupplies.isEmpty()) {
-                System.out.println("No supplies found in database.");
-                return;
-            }
-            
-            System.out.println("Loading " + currentSupplies.size() + " supplies...");
-            
-            LocalDate today = LocalDate.now();
-            
-            for (MedicalSupply supply : currentSupplies) {
-                String status = getStockStatus(supply);
-                String expiryDateStr = (supply.getExpiryDate() != null) ? 
-                    supply.getExpiryDate().toString() : "No Expiry";
-                
-                long daysLeft = 9999;
-                if (supply.getExpiryDate() != null) {
-                    daysLeft = ChronoUnit.DAYS.between(today, supply.getExpiryDate());
-                }
-                
-                Object[] row = {
-                    supply.getId(),
-                    supply.getName(),
-                    supply.getCategory(),
-                    supply.getQuantity(),
-                    supply.getMinStockLevel(),
-                    status,
-                    expiryDateStr,
-                    daysLeft == 9999 ? "No Expiry" : (daysLeft >= 0 ? daysLeft + " days" : "Expired " + (-daysLeft) + " days ago"),
-                    supply.getLocation(),
-                    supply.getSupplier() != null ? supply.getSupplier() : "N/A"
-                };
-                tableModel.addRow(row);
-            }
-            
-            System.out.println("Successfully loaded " + currentSupplies.size() + " items.");
-        } catch (Exception e) {
-            System.err.println("Error loading inventory data: " + e.getMessage());
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(contentPanel,
-                "Error loading inventory data: " + e.getMessage(),
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE);
+        searchField.setText("");
+        searchPipeline.submitNow("");
+    }
+    
+    // Column headers carry the sort arrow from the model
+    private void refreshSortIndicators() {
+        for (int i = 0; i < inventoryTable.getColumnCount(); i++) {
+            javax.swing.table.TableColumn column = inventoryTable.getColumnModel().getColumn(i);
+            column.setHeaderValue(tableModel.getColumnName(column.getModelIndex()));
         }
+        inventoryTable.getTableHeader().repaint();
     }
     
     private void loadLowStockData(DefaultTableModel model) {
@@ -588,62 +647,19 @@ public class ViewInventoryFrame {
         }
     }
     
+    // Answered from the search index, or in SQL until the index is built
     private void searchInventory(String searchTerm) {
-        try {
-            tableModel.setRowCount(0);
-            currentSupplies = medicalSupplyDAO.searchSupplies(searchTerm);
-            
-            if (currentSupplies == null || currentSupplies.isEmpty()) {
-                System.out.println("No search results for: " + searchTerm);
-                return;
-            }
-            
-            LocalDate today = LocalDate.now();
-            
-            for (MedicalSupply supply : currentSupplies) {
-                String status = getStockStatus(supply);
-                String expiryDateStr = (supply.getExpiryDate() != null) ? 
-                    supply.getExpiryDate().toString() : "No Expiry";
-                
-                long daysLeft = 9999;
-                if (supply.getExpiryDate() != null) {
-                    daysLeft = ChronoUnit.DAYS.between(today, supply.getExpiryDate());
-                }
-                
-                Object[] row = {
-                    supply.getId(),
-                    supply.getName(),
-                    supply.getCategory(),
-                    supply.getQuantity(),
-                    supply.getMinStockLevel(),
-                    status,
-                    expiryDateStr,
-                    daysLeft == 9999 ? "No Expiry" : (daysLeft >= 0 ? daysLeft + " days" : "Expired " + (-daysLeft) + " days ago"),
-                    supply.getLocation(),
-                    supply.getSupplier() != null ? supply.getSupplier() : "N/A"
-                };
-                tableModel.addRow(row);
-            }
-            
-            System.out.println("Search found " + currentSupplies.size() + " items for: " + searchTerm);
-        } catch (Exception e) {
-            System.err.println("Error searching inventory: " + e.getMessage());
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(contentPanel,
-                "Error searching inventory: " + e.getMessage(),
-                "Search Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
+        searchPipeline.submitNow(searchTerm);
     }
     
-    private String getStockStatus(MedicalSupply supply) {
-        if (supply.getQuantity() == 0) {
-            return "OUT OF STOCK";
-        } else if (supply.getQuantity() <= supply.getMinStockLevel()) {
-            return "LOW STOCK";
+    // Latest search result, delivered on the EDT by the pipeline
+    private void showSearchResults(String searchTerm, List<MedicalSupply> results) {
+        if (results != null) {
+            tableModel.showSearchResults(searchTerm, results);
         } else {
-            return "IN STOCK";
+            tableModel.setFilter(searchTerm);
         }
+        refreshSortIndicators();
     }
     
     private void showQuantityDialog(boolean isAdd) {
@@ -660,12 +676,23 @@ public class ViewInventoryFrame {
             // Convert view row index to model row index
             int modelRow = inventoryTable.convertRowIndexToModel(selectedRow);
             
-            if (modelRow < currentSupplies.size()) {
-                MedicalSupply selectedSupply = currentSupplies.get(modelRow);
-                QuantityDialog dialog = new QuantityDialog(selectedSupply, isAdd);
+            MedicalSupply selectedSupply = tableModel.getSupplyAt(modelRow);
+            if (selectedSupply != null) {
+                // Re-read from the database (bypassing the supply cache) rather than the
+                // table row, which can predate an edit or another station's stock movement
+                MedicalSupply current = medicalSupplyDAO.getSupplyById(selectedSupply.getId(), true);
+                if (current == null) {
+                    JOptionPane.showMessageDialog(contentPanel,
+                        "'" + selectedSupply.getName() + "' no longer exists.",
+                        "Item Not Found",
+                        JOptionPane.WARNING_MESSAGE);
+                    tableModel.reload();
+                    return;
+                }
+                QuantityDialog dialog = new QuantityDialog(current, isAdd);
                 dialog.setVisible(true);
                 if (dialog.isSuccess()) {
-                    loadAllInventoryData(); // Refresh the table
+                    tableModel.reload(); // Refresh the table
                 }
             }
         } catch (Exception e) {
@@ -679,6 +706,7 @@ public class ViewInventoryFrame {
     }
     
     // Dispose all expired items
+    // Runs off the EDT as one set-based database transaction, with a progress dialog
     private void disposeAllExpiredItems() {
         int confirm = JOptionPane.showConfirmDialog(contentPanel,
             "This will dispose of ALL expired items by setting their quantity to 0.\n" +
@@ -688,33 +716,72 @@ public class ViewInventoryFrame {
             JOptionPane.YES_NO_OPTION,
             JOptionPane.WARNING_MESSAGE);
         
-        if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                List<MedicalSupply> expiredItems = medicalSupplyDAO.getExpiredItems();
-                int disposedCount = 0;
-                
-                for (MedicalSupply item : expiredItems) {
-                    boolean success = medicalSupplyDAO.disposeExpiredItem(
-                        item.getId(), 
-                        "Auto-disposed due to expiry"
-                    );
-                    if (success) disposedCount++;
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return medicalSupplyDAO.disposeAllExpiredItems(
+                    "Auto-disposed due to expiry",
+                    "admin", // Replace with actual username from login
+                    this::setProgress
+                );
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    int disposedCount = get();
+                    if (disposedCount >= 0) {
+                        JOptionPane.showMessageDialog(contentPanel,
+                            "Disposed " + disposedCount + " expired items.\n" +
+                            "Stock-out transactions have been recorded.",
+                            "Disposal Complete",
+                            JOptionPane.INFORMATION_MESSAGE);
+                        
+                        // Refresh all tabs
+                        loadAllInventoryData();
+                    } else {
+                        JOptionPane.showMessageDialog(contentPanel,
+                            "Error disposing items. No changes were made.",
+                            "Disposal Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(contentPanel,
+                        "Error disposing items: " + e.getMessage(),
+                        "Disposal Error",
+                        JOptionPane.ERROR_MESSAGE);
                 }
-                
-                JOptionPane.showMessageDialog(contentPanel,
-                    "Disposed " + disposedCount + " expired items.",
-                    "Disposal Complete",
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                // Refresh all tabs
-                loadAllInventoryData();
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(contentPanel,
-                    "Error disposing items: " + e.getMessage(),
-                    "Disposal Error",
-                    JOptionPane.ERROR_MESSAGE);
             }
-        }
+        };
+        
+        // Progress dialog
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        
+        JDialog progressDialog = new JDialog(SwingUtilities.getWindowAncestor(contentPanel),
+            "Disposing Expired Items", Dialog.ModalityType.APPLICATION_MODAL);
+        progressDialog.setLayout(new BorderLayout());
+        progressDialog.add(new JLabel("Disposing expired items..."), BorderLayout.NORTH);
+        progressDialog.add(progressBar, BorderLayout.CENTER);
+        progressDialog.setSize(300, 100);
+        progressDialog.setLocationRelativeTo(contentPanel);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            } else if ("state".equals(evt.getPropertyName()) &&
+                       SwingWorker.StateValue.DONE == evt.getNewValue()) {
+                progressDialog.dispose();
+            }
+        });
+        
+        worker.execute();
+        progressDialog.setVisible(true);
     }
     
     public JPanel getContentPanel() {